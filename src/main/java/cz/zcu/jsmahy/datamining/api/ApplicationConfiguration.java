@@ -19,6 +19,46 @@ public interface ApplicationConfiguration extends ArbitraryDataHolder {
     String CFG_KEY_VALID_DATE_FORMATS = "valid-date-formats";
     String CFG_KEY_BASE_URL = "base-url";
     String CFG_DATE_FORMAT_ANY = "any";
+    String CFG_KEY_FETCH_POOL_SIZE = "fetch-pool-size";
+    String CFG_KEY_CRAWL_POOL_SIZE = "crawl-pool-size";
+    String CFG_KEY_MAX_REQUESTS_PER_HOST = "max-requests-per-host";
+    // HTTP config keys
+    String CFG_KEY_HTTP_VERSION = "http-version";
+    String CFG_KEY_HTTP_CONNECT_TIMEOUT_MS = "http-connect-timeout-ms";
+    String CFG_KEY_HTTP_REQUEST_TIMEOUT_MS = "http-request-timeout-ms";
+    String CFG_KEY_PARSE_DROPPED_PREDICATES = "parse-dropped-predicates";
+    // throttling config keys
+    String CFG_KEY_RATE_LIMIT_REQUESTS_PER_SECOND = "rate-limit-requests-per-second";
+    String CFG_KEY_RATE_LIMIT_BURST = "rate-limit-burst";
+    String CFG_KEY_RETRY_MAX_ATTEMPTS = "retry-max-attempts";
+    String CFG_KEY_RETRY_BASE_DELAY_MS = "retry-base-delay-ms";
+    String CFG_KEY_RETRY_MAX_DELAY_MS = "retry-max-delay-ms";
+    String CFG_KEY_CIRCUIT_BREAKER_FAILURE_THRESHOLD = "circuit-breaker-failure-threshold";
+    String CFG_KEY_CIRCUIT_BREAKER_OPEN_MS = "circuit-breaker-open-ms";
+    String CFG_KEY_FETCH_MODE = "fetch-mode";
+    String CFG_KEY_SPARQL_ENDPOINT = "sparql-endpoint";
+    String CFG_KEY_SPARQL_BATCH_SIZE = "sparql-batch-size";
+    String CFG_KEY_MODEL_WINDOW_HOPS = "model-window-hops";
+    String CFG_KEY_VISITED_SET = "visited-set";
+    String CFG_KEY_URI_DICTIONARY_OFF_HEAP = "uri-dictionary-off-heap";
+    String CFG_KEY_DATA_NODE_STORE = "data-node-store";
+    String CFG_KEY_PATH_EXPANSION_ENABLED = "path-expansion-enabled";
+    String CFG_KEY_PATH_EXPANSION_LIMIT = "path-expansion-limit";
+    String CFG_KEY_PATH_ALIASES = "path-aliases";
+    String CFG_KEY_REDIRECT_CACHE_FILE = "redirect-cache-file";
+    String CFG_KEY_REDIRECT_CACHE_MAX_ENTRIES = "redirect-cache-max-entries";
+    String CFG_KEY_CHECKPOINT_ENABLED = "checkpoint-enabled";
+    String CFG_KEY_CHECKPOINT_DIRECTORY = "checkpoint-directory";
+    String CFG_KEY_CHECKPOINT_RESUME = "checkpoint-resume";
+    // automatic resolver config keys
+    String CFG_KEY_PREFERRED_PATH_PREDICATES = "preferred-path-predicates";
+    String CFG_KEY_PREFERRED_START_DATE_PREDICATES = "preferred-start-date-predicates";
+    String CFG_KEY_PREFERRED_END_DATE_PREDICATES = "preferred-end-date-predicates";
+    // resource cache config keys
+    String CFG_KEY_RESOURCE_CACHE_ENABLED = "resource-cache-enabled";
+    String CFG_KEY_RESOURCE_CACHE_DIRECTORY = "resource-cache-directory";
+    String CFG_KEY_RESOURCE_CACHE_TTL_HOURS = "resource-cache-ttl-hours";
+    String CFG_KEY_RESOURCE_CACHE_MAX_SIZE_MB = "resource-cache-max-size-mb";
     Collection<String> ALL_VALID_DATE_FORMATS = Collections.unmodifiableCollection(new HashSet<>() {
         {
             add("integer");
@@ -0,0 +1,296 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static cz.zcu.jsmahy.datamining.api.ColumnarDataNodeStore.NONE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>A view of a slot of a {@link ColumnarDataNodeStore}. The view holds nothing but the store and the slot, every call goes to the store. The views are created on demand and thrown away, two
+ * views of the same slot are equal.</p>
+ * <p>The children are a view of the sibling list of the slot. A child can be removed from the list, but not added -- use the {@link ColumnarDataNodeFactory} to add one. The listeners of the list
+ * are notified of the changes made through that very list only.</p>
+ *
+ * @see ColumnarDataNodeFactory
+ * @since 1.0
+ */
+final class ColumnarDataNode implements DataNode {
+    final ColumnarDataNodeStore store;
+    final int slot;
+
+    ColumnarDataNode(final ColumnarDataNodeStore store, final int slot) {
+        this.store = requireNonNull(store);
+        this.slot = slot;
+    }
+
+    @Override
+    public ObservableList<? extends DataNode> getChildren() {
+        return new Children();
+    }
+
+    @Override
+    public List<? extends DataNode> copyChildren() {
+        return store.children(slot);
+    }
+
+    @Override
+    public long getId() {
+        return store.id(slot);
+    }
+
+    @Override
+    public void setId(final long id) {
+        store.setId(slot, id);
+    }
+
+    @Override
+    @JsonIgnore
+    public DataNode getParent() {
+        final int parent = store.parent(slot);
+        return parent == NONE ? null : new ColumnarDataNode(store, parent);
+    }
+
+    @Override
+    public Optional<? extends DataNode> findRoot() {
+        return isRoot() ? Optional.empty() : Optional.of(store.root());
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isRoot() {
+        return store.parent(slot) == NONE;
+    }
+
+    @Override
+    @JsonIgnore
+    public EdgeTable getEdges() {
+        return store.edges();
+    }
+
+    /**
+     * @return The edges of the tree for Jackson, exported along with the root.
+     */
+    @JsonProperty("relationships")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<EdgeTable.Edge> getRelationships() {
+        return isRoot() ? store.edges()
+                               .toList() : List.of();
+    }
+
+    @Override
+    public void iterate(final BiConsumer<DataNode, Integer> biConsumer) {
+        store.iterate(slot, biConsumer);
+    }
+
+    @Override
+    @NotNull
+    public Iterator<DataNode> iterator() {
+        return new ChildIterator();
+    }
+
+    @Override
+    public Map<String, Object> getMetadata() {
+        return new Metadata();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> Optional<V> getValue(final String key) throws ClassCastException {
+        return (Optional<V>) Optional.ofNullable(store.get(slot, key));
+    }
+
+    @Override
+    public <V> V getValueUnsafe(final String key) throws NoSuchElementException, ClassCastException {
+        final Optional<V> opt = getValue(key);
+        return opt.orElseThrow(() -> new NoSuchElementException(key));
+    }
+
+    @Override
+    public <V> V getValue(final String key, final V defaultValue) throws ClassCastException {
+        final Optional<V> opt = getValue(key);
+        return opt.orElse(defaultValue);
+    }
+
+    @Override
+    public void addMetadata(final String key, final Object value) {
+        store.put(slot, requireNonNull(key), value);
+    }
+
+    @Override
+    public void addMetadata(final Map<String, Object> metadata) {
+        metadata.forEach(this::addMetadata);
+    }
+
+    @Override
+    public boolean hasMetadataKey(final String key) {
+        return store.containsKey(slot, key);
+    }
+
+    @Override
+    public void removeMetadata(final String key) {
+        store.remove(slot, key);
+    }
+
+    @Override
+    public void clearMetadata() {
+        store.clear(slot);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof ColumnarDataNode other && other.store == store && other.slot == slot;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + slot;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarDataNode(id=" + getId() + ", metadata=" + store.metadata(slot) + ")";
+    }
+
+    private class ChildIterator implements Iterator<DataNode> {
+        private int next = store.firstChild(slot);
+
+        @Override
+        public boolean hasNext() {
+            return next != NONE;
+        }
+
+        @Override
+        public DataNode next() {
+            if (next == NONE) {
+                throw new NoSuchElementException();
+            }
+            final DataNode child = new ColumnarDataNode(store, next);
+            next = store.nextSibling(next);
+            return child;
+        }
+    }
+
+    private class Children extends ObservableListBase<DataNode> {
+        @Override
+        public DataNode get(final int index) {
+            return new ColumnarDataNode(store, store.child(slot, index));
+        }
+
+        @Override
+        public int size() {
+            return store.childCount(slot);
+        }
+
+        @Override
+        @NotNull
+        public Iterator<DataNode> iterator() {
+            // walk the sibling list rather than look every index up from the first child
+            return new ChildIterator();
+        }
+
+        @Override
+        public DataNode remove(final int index) {
+            final DataNode removed = new ColumnarDataNode(store, store.removeChild(slot, index));
+            beginChange();
+            nextRemove(index, removed);
+            endChange();
+            return removed;
+        }
+
+        @Override
+        public boolean remove(final Object o) {
+            if (!(o instanceof ColumnarDataNode child) || child.store != store) {
+                return false;
+            }
+            final int index = store.indexOfChild(slot, child.slot);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+    }
+
+    private class Metadata extends AbstractMap<String, Object> {
+        @Override
+        public Object get(final Object key) {
+            return key instanceof String k ? store.get(slot, k) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof String k && store.containsKey(slot, k);
+        }
+
+        @Override
+        public Object put(final String key, final Object value) {
+            return store.put(slot, requireNonNull(key), value);
+        }
+
+        @Override
+        public Object remove(final Object key) {
+            return key instanceof String k ? store.remove(slot, k) : null;
+        }
+
+        @Override
+        public void clear() {
+            store.clear(slot);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            final Map<String, Object> snapshot = store.metadata(slot);
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final Iterator<Entry<String, Object>> iterator = snapshot.entrySet()
+                                                                             .iterator();
+                    return new Iterator<>() {
+                        private Entry<String, Object> last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            final Entry<String, Object> entry = iterator.next();
+                            last = entry;
+                            return new SimpleEntry<>(entry) {
+                                @Override
+                                public Object setValue(final Object value) {
+                                    put(getKey(), value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) {
+                                throw new IllegalStateException();
+                            }
+                            iterator.remove();
+                            Metadata.this.remove(last.getKey());
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return snapshot.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_NAME;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>A factory for the {@link DataNode}s stored in columns rather than as objects, meant for the trees of hundreds of thousands of nodes and more -- large imports and batch crawls.</p>
+ * <p>Every root gets a store of its own holding the whole tree in parallel arrays, the nodes are cheap views of their slots in the store. A node created with a parent not created by this factory
+ * falls back to the {@link DataNodeFactory default} one.</p>
+ * <p>Every store has a {@link UriDictionary} of its own too, so the URIs of a tree are released along with the tree.</p>
+ *
+ * @see DataNodeStoreType#COLUMNAR
+ * @since 1.0
+ */
+public class ColumnarDataNodeFactory extends DataNodeFactory {
+    private final boolean offHeap;
+
+    /**
+     * @param offHeap whether the dictionaries of the stores keep the URIs off the heap
+     */
+    public ColumnarDataNodeFactory(final boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public DataNode newRoot(final String rootName) {
+        final DataNode root = new ColumnarDataNodeStore(new UriDictionary(offHeap)).root();
+        root.addMetadata(METADATA_KEY_NAME, rootName);
+        return root;
+    }
+
+    @Override
+    public DataNode newNode(final DataNode parent, final boolean addChild) {
+        if (!(requireNonNull(parent) instanceof ColumnarDataNode columnarParent)) {
+            return super.newNode(parent, addChild);
+        }
+        return columnarParent.store.newNode(columnarParent.slot, addChild);
+    }
+}
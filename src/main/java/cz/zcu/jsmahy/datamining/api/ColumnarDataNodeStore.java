@@ -0,0 +1,461 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.ResourceFactory;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static cz.zcu.jsmahy.datamining.api.DataNode.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>The data nodes of a single tree laid out in parallel arrays, one slot per node, the root being the slot {@code 0}.</p>
+ * <p>The tree is kept as the parent, the first child, the last child and the next sibling of every slot, the dates as their time and the index of their time zone, and the URI as its ID in the
+ * {@link UriDictionary}. The RDF node is kept as the ID of its URI in the dictionary too, and created again once it's read -- the node read is thus not bound to a model. The name and the
+ * description have a column of their own, any other metadata (and a value of a different type than its column expects, e.g. a literal RDF node) goes to a hash map of the slot, created once the
+ * first such key is added. A date is created again once it's read as well, a change to the calendar read is thus not seen by the store -- the date has to be put again. A node costs some seventy bytes plus its strings, compared to the several hundred of a {@link DataNodeImpl}.</p>
+ * <p>The nodes are exposed as the {@link ColumnarDataNode} views of their slots. The store is append-only, the slot of a node removed from its parent is not reused.</p>
+ * <p>This class is thread-safe, the methods synchronize on the store itself.</p>
+ *
+ * @see ColumnarDataNodeFactory
+ * @since 1.0
+ */
+final class ColumnarDataNodeStore {
+    /**
+     * The index of no slot.
+     */
+    static final int NONE = -1;
+    private static final int ROOT = 0;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final short NO_ZONE = -1;
+    /**
+     * A calendar with the settings every calendar created by {@link #toCalendar(long, TimeZone)} has.
+     */
+    private static final GregorianCalendar DEFAULT_CALENDAR = new GregorianCalendar();
+
+    private final UriDictionary uriDictionary;
+    private final List<TimeZone> zones = new ArrayList<>();
+    private final EdgeTable edges = new EdgeTable();
+    private long[] ids;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] lastChildren;
+    private int[] nextSiblings;
+    private int[] childCounts;
+    private long[] begins;
+    private long[] ends;
+    private short[] beginZones;
+    private short[] endZones;
+    private int[] uris;
+    private String[] names;
+    private String[] descriptions;
+    private int[] rdfNodes;
+    private Object[] others;
+    private int size;
+
+    /**
+     * Creates a store with the root.
+     *
+     * @param uriDictionary the dictionary of the URIs of the nodes
+     */
+    ColumnarDataNodeStore(final UriDictionary uriDictionary) {
+        this.uriDictionary = requireNonNull(uriDictionary);
+        allocate(INITIAL_CAPACITY);
+        newSlot(NONE, false);
+    }
+
+    private void allocate(final int capacity) {
+        ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+        parents = grow(parents, capacity);
+        firstChildren = grow(firstChildren, capacity);
+        lastChildren = grow(lastChildren, capacity);
+        nextSiblings = grow(nextSiblings, capacity);
+        childCounts = childCounts == null ? new int[capacity] : Arrays.copyOf(childCounts, capacity);
+        begins = begins == null ? new long[capacity] : Arrays.copyOf(begins, capacity);
+        ends = ends == null ? new long[capacity] : Arrays.copyOf(ends, capacity);
+        beginZones = grow(beginZones, capacity);
+        endZones = grow(endZones, capacity);
+        uris = grow(uris, capacity);
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        descriptions = descriptions == null ? new String[capacity] : Arrays.copyOf(descriptions, capacity);
+        rdfNodes = grow(rdfNodes, capacity);
+        others = others == null ? new Object[capacity] : Arrays.copyOf(others, capacity);
+    }
+
+    private static int[] grow(final int[] array, final int capacity) {
+        final int from = array == null ? 0 : array.length;
+        final int[] grown = array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+        Arrays.fill(grown, from, capacity, NONE);
+        return grown;
+    }
+
+    private static short[] grow(final short[] array, final int capacity) {
+        final int from = array == null ? 0 : array.length;
+        final short[] grown = array == null ? new short[capacity] : Arrays.copyOf(array, capacity);
+        Arrays.fill(grown, from, capacity, NO_ZONE);
+        return grown;
+    }
+
+    private int newSlot(final int parent, final boolean addChild) {
+        if (size == ids.length) {
+            allocate(size * 2);
+        }
+        final int slot = size++;
+        ids[slot] = ID_SEQ.getAndIncrement();
+        parents[slot] = parent;
+        if (addChild) {
+            if (lastChildren[parent] == NONE) {
+                firstChildren[parent] = slot;
+            } else {
+                nextSiblings[lastChildren[parent]] = slot;
+            }
+            lastChildren[parent] = slot;
+            childCounts[parent]++;
+        }
+        return slot;
+    }
+
+    /**
+     * @return the root of the tree
+     */
+    ColumnarDataNode root() {
+        return new ColumnarDataNode(this, ROOT);
+    }
+
+    /**
+     * @return the relationships between the nodes of the tree
+     */
+    EdgeTable edges() {
+        return edges;
+    }
+
+    /**
+     * Creates a new node.
+     *
+     * @param parent   the slot of the parent
+     * @param addChild whether to add the node to the children of the parent
+     *
+     * @return the new node
+     */
+    synchronized ColumnarDataNode newNode(final int parent, final boolean addChild) {
+        return new ColumnarDataNode(this, newSlot(parent, addChild));
+    }
+
+    /**
+     * @return the number of slots, including the ones of the removed nodes
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized long id(final int slot) {
+        return ids[slot];
+    }
+
+    synchronized void setId(final int slot, final long id) {
+        ids[slot] = id;
+    }
+
+    synchronized int parent(final int slot) {
+        return parents[slot];
+    }
+
+    synchronized int firstChild(final int slot) {
+        return firstChildren[slot];
+    }
+
+    synchronized int nextSibling(final int slot) {
+        return nextSiblings[slot];
+    }
+
+    synchronized int childCount(final int slot) {
+        return childCounts[slot];
+    }
+
+    /**
+     * @param parent the slot of the parent
+     *
+     * @return the views of the children of the parent
+     */
+    synchronized List<DataNode> children(final int parent) {
+        final List<DataNode> children = new ArrayList<>(childCounts[parent]);
+        for (int child = firstChildren[parent]; child != NONE; child = nextSiblings[child]) {
+            children.add(new ColumnarDataNode(this, child));
+        }
+        return children;
+    }
+
+    /**
+     * @param parent the slot of the parent
+     * @param index  the index of the child
+     *
+     * @return the slot of the child at the index
+     */
+    synchronized int child(final int parent, final int index) {
+        Objects.checkIndex(index, childCounts[parent]);
+        int child = firstChildren[parent];
+        for (int i = 0; i < index; i++) {
+            child = nextSiblings[child];
+        }
+        return child;
+    }
+
+    /**
+     * @param parent the slot of the parent
+     * @param slot   the slot of the child
+     *
+     * @return the index of the child among the children of the parent, or {@code -1} if it is not a child of the parent
+     */
+    synchronized int indexOfChild(final int parent, final int slot) {
+        int index = 0;
+        for (int child = firstChildren[parent]; child != NONE; child = nextSiblings[child]) {
+            if (child == slot) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the child from the children of its parent. The child keeps the reference to the parent, the same as a {@link DataNodeImpl} does.
+     *
+     * @param parent the slot of the parent
+     * @param index  the index of the child
+     *
+     * @return the slot of the removed child
+     */
+    synchronized int removeChild(final int parent, final int index) {
+        Objects.checkIndex(index, childCounts[parent]);
+        int previous = NONE;
+        int child = firstChildren[parent];
+        for (int i = 0; i < index; i++) {
+            previous = child;
+            child = nextSiblings[child];
+        }
+        if (previous == NONE) {
+            firstChildren[parent] = nextSiblings[child];
+        } else {
+            nextSiblings[previous] = nextSiblings[child];
+        }
+        if (lastChildren[parent] == child) {
+            lastChildren[parent] = previous;
+        }
+        nextSiblings[child] = NONE;
+        childCounts[parent]--;
+        return child;
+    }
+
+    /**
+     * Iterates over the subtree of the slot the same way {@link DataNodeImpl#iterate(BiConsumer)} does, without holding the lock while the consumer runs.
+     *
+     * @param slot       the slot
+     * @param biConsumer the consumer of the nodes and their depths
+     */
+    void iterate(final int slot, final BiConsumer<DataNode, Integer> biConsumer) {
+        if (childCount(slot) == 0) {
+            return;
+        }
+        if (parent(slot) != NONE) {
+            biConsumer.accept(new ColumnarDataNode(this, slot), -1);
+        }
+        int depth = 0;
+        int curr = firstChild(slot);
+        while (curr != NONE) {
+            biConsumer.accept(new ColumnarDataNode(this, curr), depth);
+            final int child = firstChild(curr);
+            if (child != NONE) {
+                depth++;
+                curr = child;
+                continue;
+            }
+            // climb up until there is a sibling to go to
+            int next = nextSibling(curr);
+            while (next == NONE) {
+                curr = parent(curr);
+                if (curr == slot) {
+                    return;
+                }
+                depth--;
+                next = nextSibling(curr);
+            }
+            curr = next;
+        }
+    }
+
+    synchronized Object get(final int slot, final String key) {
+        final Object value = column(slot, key);
+        if (value != null) {
+            return value;
+        }
+        final Map<String, Object> other = other(slot);
+        return other == null ? null : other.get(key);
+    }
+
+    synchronized boolean containsKey(final int slot, final String key) {
+        if (column(slot, key) != null) {
+            return true;
+        }
+        final Map<String, Object> other = other(slot);
+        return other != null && other.containsKey(key);
+    }
+
+    synchronized Object put(final int slot, final String key, final Object value) {
+        final Object previous = remove(slot, key);
+        if (!putColumn(slot, key, value)) {
+            Map<String, Object> other = other(slot);
+            if (other == null) {
+                other = new HashMap<>(4);
+                others[slot] = other;
+            }
+            other.put(key, value);
+        }
+        return previous;
+    }
+
+    synchronized Object remove(final int slot, final String key) {
+        final Object previous = column(slot, key);
+        if (previous != null) {
+            putColumn(slot, key, null);
+            return previous;
+        }
+        final Map<String, Object> other = other(slot);
+        return other == null ? null : other.remove(key);
+    }
+
+    synchronized void clear(final int slot) {
+        for (final String key : List.of(METADATA_KEY_NAME, METADATA_KEY_URI, METADATA_KEY_RDF_NODE, METADATA_KEY_DESCRIPTION, METADATA_KEY_START_DATE, METADATA_KEY_END_DATE)) {
+            putColumn(slot, key, null);
+        }
+        others[slot] = null;
+    }
+
+    /**
+     * @param slot the slot
+     *
+     * @return a copy of the metadata of the slot
+     */
+    synchronized Map<String, Object> metadata(final int slot) {
+        final Map<String, Object> metadata = new LinkedHashMap<>();
+        for (final String key : List.of(METADATA_KEY_NAME, METADATA_KEY_URI, METADATA_KEY_RDF_NODE, METADATA_KEY_DESCRIPTION, METADATA_KEY_START_DATE, METADATA_KEY_END_DATE)) {
+            final Object value = column(slot, key);
+            if (value != null) {
+                metadata.put(key, value);
+            }
+        }
+        final Map<String, Object> other = other(slot);
+        if (other != null) {
+            metadata.putAll(other);
+        }
+        return metadata;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> other(final int slot) {
+        return (Map<String, Object>) others[slot];
+    }
+
+    /**
+     * @return the value of the key in its column, {@code null} if the key has no column or the column is empty
+     */
+    private Object column(final int slot, final String key) {
+        return switch (key) {
+            case METADATA_KEY_NAME -> names[slot];
+            case METADATA_KEY_DESCRIPTION -> descriptions[slot];
+            case METADATA_KEY_RDF_NODE -> rdfNodes[slot] == NONE ? null : ResourceFactory.createResource(uriDictionary.uri(rdfNodes[slot]));
+            case METADATA_KEY_URI -> uris[slot] == NONE ? null : uriDictionary.uri(uris[slot]);
+            case METADATA_KEY_START_DATE -> beginZones[slot] == NO_ZONE ? null : toCalendar(begins[slot], zones.get(beginZones[slot]));
+            case METADATA_KEY_END_DATE -> endZones[slot] == NO_ZONE ? null : toCalendar(ends[slot], zones.get(endZones[slot]));
+            default -> null;
+        };
+    }
+
+    /**
+     * Stores the value in the column of the key, {@code null} clears the column.
+     *
+     * @return {@code false} if the key has no column or the value does not fit it
+     */
+    private boolean putColumn(final int slot, final String key, final Object value) {
+        switch (key) {
+            case METADATA_KEY_NAME, METADATA_KEY_DESCRIPTION -> {
+                if (value != null && !(value instanceof String)) {
+                    return false;
+                }
+                (key.equals(METADATA_KEY_NAME) ? names : descriptions)[slot] = (String) value;
+            }
+            case METADATA_KEY_RDF_NODE -> {
+                if (value != null && !(value instanceof RDFNode rdfNode && rdfNode.isURIResource())) {
+                    return false;
+                }
+                rdfNodes[slot] = value == null ? NONE : uriDictionary.intern(((RDFNode) value).asResource()
+                                                                                               .getURI());
+            }
+            case METADATA_KEY_URI -> {
+                if (value != null && !(value instanceof String)) {
+                    return false;
+                }
+                uris[slot] = value == null ? NONE : uriDictionary.intern((String) value);
+            }
+            case METADATA_KEY_START_DATE, METADATA_KEY_END_DATE -> {
+                final boolean begin = key.equals(METADATA_KEY_START_DATE);
+                short zone = NO_ZONE;
+                if (value != null) {
+                    final GregorianCalendar calendar = asPlainCalendar(value);
+                    zone = calendar == null ? NO_ZONE : zone(calendar.getTimeZone());
+                    if (zone == NO_ZONE) {
+                        return false;
+                    }
+                    (begin ? begins : ends)[slot] = calendar.getTimeInMillis();
+                }
+                (begin ? beginZones : endZones)[slot] = zone;
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static GregorianCalendar toCalendar(final long millis, final TimeZone zone) {
+        final GregorianCalendar calendar = new GregorianCalendar(zone);
+        calendar.setTimeInMillis(millis);
+        return calendar;
+    }
+
+    /**
+     * @param value the value
+     *
+     * @return the value if it is a calendar that survives the round trip through its time and time zone, otherwise {@code null}
+     */
+    private static GregorianCalendar asPlainCalendar(final Object value) {
+        // only the plain calendars survive the round trip, a subclass or a calendar with a custom cutover does not
+        if (value == null || value.getClass() != GregorianCalendar.class) {
+            return null;
+        }
+        final GregorianCalendar calendar = (GregorianCalendar) value;
+        // compares the settings one by one rather than creating the calendar the round trip would
+        if (calendar.isLenient() != DEFAULT_CALENDAR.isLenient() ||
+            calendar.getFirstDayOfWeek() != DEFAULT_CALENDAR.getFirstDayOfWeek() ||
+            calendar.getMinimalDaysInFirstWeek() != DEFAULT_CALENDAR.getMinimalDaysInFirstWeek()) {
+            return null;
+        }
+        return calendar.getGregorianChange()
+                       .equals(DEFAULT_CALENDAR.getGregorianChange()) ? calendar : null;
+    }
+
+    /**
+     * @return the index of the time zone, or {@link #NO_ZONE} if the store ran out of the indices
+     */
+    private short zone(final TimeZone zone) {
+        final int index = zones.indexOf(zone);
+        if (index >= 0) {
+            return (short) index;
+        }
+        if (zones.size() == Short.MAX_VALUE) {
+            return NO_ZONE;
+        }
+        zones.add(zone);
+        return (short) (zones.size() - 1);
+    }
+}
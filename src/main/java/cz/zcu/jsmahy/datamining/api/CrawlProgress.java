@@ -0,0 +1,38 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import lombok.Value;
+
+/**
+ * An immutable snapshot of the progress of all the searches a {@link CrawlScheduler} has run.
+ *
+ * @since 1.0
+ */
+@Value
+public class CrawlProgress {
+    /**
+     * The number of searches scheduled so far.
+     */
+    int scheduled;
+    /**
+     * The number of searches done so far, including the failed ones.
+     */
+    int finished;
+    /**
+     * The number of searches that failed so far.
+     */
+    int failed;
+
+    /**
+     * @return the number of searches still running
+     */
+    public int getRunning() {
+        return scheduled - finished;
+    }
+
+    /**
+     * @return the finished fraction of the scheduled searches, {@code 1} if nothing has been scheduled
+     */
+    public double getProgress() {
+        return scheduled == 0 ? 1d : (double) finished / scheduled;
+    }
+}
@@ -0,0 +1,120 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import com.google.inject.Inject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Runs many {@link SparqlEndpointTask}s across many {@link DataNode} roots concurrently. Unlike the {@link SparqlEndpointAgent} the tasks do not get a {@link javafx.concurrent.Service} of
+ * their own, they are {@link SparqlEndpointTask#crawl() crawled} on the shared crawl pool instead.</p>
+ * <p>The tasks share everything the {@link SparqlEndpointTaskProvider} hands them -- most notably the resource cache and the {@link HostRequestLimiter}, thus running many of them at once does
+ * not flood the endpoint, nor does it fetch the same resource twice.</p>
+ * <p>The progress of all the searches is aggregated to a {@link CrawlProgress} the progress listeners are notified of. The listeners are notified on the thread the progress was made on.</p>
+ *
+ * @param <R> The generic type of {@link SparqlEndpointTask}
+ *
+ * @since 1.0
+ */
+public class CrawlScheduler<R> {
+    private static final Logger LOGGER = LogManager.getLogger(CrawlScheduler.class);
+    private final SparqlEndpointTaskProvider<R> sparqlEndpointTaskProvider;
+    private final Collection<Consumer<CrawlProgress>> progressListeners = new CopyOnWriteArrayList<>();
+    private int scheduled = 0;
+    private int finished = 0;
+    private int failed = 0;
+
+    /**
+     * Reason for this parameter not having a generic parameter: {@link DataMiningModule}
+     *
+     * @param sparqlEndpointTaskProvider the task provider that's called for every scheduled search
+     *
+     * @see DataMiningModule
+     */
+    @Inject
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CrawlScheduler(final SparqlEndpointTaskProvider sparqlEndpointTaskProvider) {
+        this.sparqlEndpointTaskProvider = requireNonNull(sparqlEndpointTaskProvider);
+    }
+
+    /**
+     * Schedules a search of the query.
+     *
+     * @param query        the query
+     * @param dataNodeRoot the data node root to add the children to
+     *
+     * @return the future completed with the task once its search is done
+     *
+     * @throws NullPointerException     if any argument is null
+     * @throws IllegalArgumentException if the query is blank or the data node is not a root
+     */
+    public CompletableFuture<SparqlEndpointTask<R>> schedule(final String query, final DataNode dataNodeRoot) throws NullPointerException, IllegalArgumentException {
+        final SparqlEndpointTask<R> task = sparqlEndpointTaskProvider.newTask(query, dataNodeRoot);
+        LOGGER.debug("Scheduling a search of {} with root {}", query, dataNodeRoot);
+        fireProgress(update(1, 0, 0));
+        return task.crawl()
+                   .whenComplete((ignored, e) -> {
+                       if (e != null) {
+                           LOGGER.error("Search of {} failed", query, e);
+                       }
+                       fireProgress(update(0, 1, e == null ? 0 : 1));
+                   })
+                   .thenApply(ignored -> task);
+    }
+
+    /**
+     * Schedules the searches of all the queries at once.
+     *
+     * @param queries the queries mapped to their data node roots
+     *
+     * @return the future completed with the tasks once all the searches are done
+     *
+     * @throws NullPointerException     if any query or root is null
+     * @throws IllegalArgumentException if any query is blank or any data node is not a root
+     */
+    public CompletableFuture<List<SparqlEndpointTask<R>>> scheduleAll(final Map<String, DataNode> queries) throws NullPointerException, IllegalArgumentException {
+        final List<CompletableFuture<SparqlEndpointTask<R>>> searches = new ArrayList<>(queries.size());
+        queries.forEach((query, dataNodeRoot) -> searches.add(schedule(query, dataNodeRoot)));
+        return CompletableFuture.allOf(searches.toArray(CompletableFuture[]::new))
+                                .thenApply(ignored -> searches.stream()
+                                                              .map(CompletableFuture::join)
+                                                              .toList());
+    }
+
+    /**
+     * @return the progress of all the searches scheduled so far
+     */
+    public synchronized CrawlProgress getProgress() {
+        return new CrawlProgress(scheduled, finished, failed);
+    }
+
+    public void addProgressListener(final Consumer<CrawlProgress> progressListener) {
+        progressListeners.add(requireNonNull(progressListener));
+    }
+
+    public void removeProgressListener(final Consumer<CrawlProgress> progressListener) {
+        progressListeners.remove(progressListener);
+    }
+
+    private synchronized CrawlProgress update(final int scheduled, final int finished, final int failed) {
+        this.scheduled += scheduled;
+        this.finished += finished;
+        this.failed += failed;
+        return getProgress();
+    }
+
+    private void fireProgress(final CrawlProgress progress) {
+        for (final Consumer<CrawlProgress> progressListener : progressListeners) {
+            progressListener.accept(progress);
+        }
+    }
+}
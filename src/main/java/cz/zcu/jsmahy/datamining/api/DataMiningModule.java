@@ -1,10 +1,14 @@
 package cz.zcu.jsmahy.datamining.api;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import com.google.inject.name.Names;
 import cz.zcu.jsmahy.datamining.app.controller.MainController;
 
 import static com.google.inject.Scopes.SINGLETON;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_DATA_NODE_STORE;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_URI_DICTIONARY_OFF_HEAP;
 
 /**
  * <p>The base module for this project.</p>
@@ -48,9 +52,10 @@ public class DataMiningModule extends AbstractModule {
 
     @Override
     protected void configure() {
-        bind(DataNodeFactory.class).in(SINGLETON);
         bind(ApplicationConfiguration.class).to(DefaultApplicationConfiguration.class);
         bind(JSONDataNodeSerializationUtils.class).in(SINGLETON);
+        bind(HostRequestLimiter.class).in(SINGLETON);
+        bind(CrawlScheduler.class).in(SINGLETON);
         bind(SparqlQueryServiceHolder.class).to(MainController.class);
         bind(DataNodeSerializer.class).annotatedWith(Names.named("builtin"))
                                       .to(JSONDataNodeSerializer.class)
@@ -60,4 +65,13 @@ public class DataMiningModule extends AbstractModule {
                                         .asEagerSingleton();
 //        bind(MainController.class).asEagerSingleton();
     }
+
+    @Provides
+    @Singleton
+    DataNodeFactory provideDataNodeFactory(final ApplicationConfiguration config) {
+        final String store = config.getValue(CFG_KEY_DATA_NODE_STORE, null);
+        final DataNodeStoreType type = store == null ? DataNodeStoreType.OBJECT : DataNodeStoreType.fromName(store);
+        // only the columnar store needs the dictionaries
+        return type == DataNodeStoreType.OBJECT ? new DataNodeFactory() : type.createFactory(config.getValue(CFG_KEY_URI_DICTIONARY_OFF_HEAP, false));
+    }
 }
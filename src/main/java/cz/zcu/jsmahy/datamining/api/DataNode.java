@@ -77,7 +77,8 @@ public interface DataNode extends Iterable<DataNode>, ArbitraryDataHolder {
      */
     String METADATA_KEY_DESCRIPTION = "description";
     /**
-     * Corresponding value should be {@link List} of {@link ArbitraryDataHolder}s
+     * Corresponding value should be {@link List} of {@link ArbitraryDataHolder}s. Only found in the data nodes exported before the relationships were kept in the {@link #getEdges() edge table} of the
+     * root, the JSON import moves them to the edge table.
      */
     String METADATA_KEY_RELATIONSHIPS = "relationships";
     /**
@@ -94,6 +95,13 @@ public interface DataNode extends Iterable<DataNode>, ArbitraryDataHolder {
      */
     ObservableList<? extends DataNode> getChildren();
 
+    /**
+     * <p>Unlike the list of {@link #getChildren()}, the copy can be read on the JavaFX thread while a search adds the children off it.</p>
+     *
+     * @return A copy of the children of this data node.
+     */
+    List<? extends DataNode> copyChildren();
+
     /**
      * @return The ID of this data node.
      */
@@ -123,6 +131,13 @@ public interface DataNode extends Iterable<DataNode>, ArbitraryDataHolder {
      */
     boolean isRoot();
 
+    /**
+     * <p>The relationships between the data nodes of a root are kept in a single table owned by the root, rather than in the metadata of every data node.</p>
+     *
+     * @return The edge table of the root of this node, or of this node if it is root.
+     */
+    EdgeTable getEdges();
+
     /**
      * <p>Iterates over the children of this root.</p>
      * <p>The first argument of the {@link BiConsumer} is the data node, the second argument is the breadth of the node in respect to the
@@ -153,4 +168,28 @@ public interface DataNode extends Iterable<DataNode>, ArbitraryDataHolder {
      * @param biConsumer the first parameter is the data node, the second one is the depth
      */
     void iterate(BiConsumer<DataNode, Integer> biConsumer);
+
+    /**
+     * <p>Adds the delta to the IDs of this root, of its data nodes and of the edges between them, e.g. so that the data nodes of an imported root do not clash with the data nodes already
+     * created.</p>
+     *
+     * @param delta the delta
+     *
+     * @return the greatest of the new IDs
+     *
+     * @throws IllegalStateException if this data node is not root
+     */
+    default long shiftIds(final long delta) throws IllegalStateException {
+        if (!isRoot()) {
+            throw new IllegalStateException("Only the IDs of a root can be shifted.");
+        }
+        setId(getId() + delta);
+        final AtomicLong maxId = new AtomicLong(getId());
+        iterate((dataNode, depth) -> {
+            dataNode.setId(dataNode.getId() + delta);
+            maxId.accumulateAndGet(dataNode.getId(), Math::max);
+        });
+        getEdges().remap(id -> id + delta);
+        return maxId.get();
+    }
 }
@@ -1,9 +1,14 @@
 package cz.zcu.jsmahy.datamining.api;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import javafx.collections.ObservableList;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,6 +16,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.lang.ref.WeakReference;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 
@@ -24,10 +30,23 @@ import java.util.function.BiConsumer;
 @EqualsAndHashCode(callSuper = false,
                    doNotUseGetters = true)
 @ToString(doNotUseGetters = true,
-          exclude = "parent",
+          exclude = {"parent", "edgeTable"},
           callSuper = true)
 final class DataNodeImpl extends DefaultArbitraryDataHolder implements DataNode {
     private static final Logger LOGGER = LogManager.getLogger(DataNodeImpl.class);
+    /**
+     * The keys every data node of a search has, including the ones added by the FialaBP export.
+     */
+    static final MetadataSchema METADATA_SCHEMA = MetadataSchema.builder()
+                                                                .key(METADATA_KEY_NAME)
+                                                                .key(METADATA_KEY_URI)
+                                                                .key(METADATA_KEY_RDF_NODE)
+                                                                .key(METADATA_KEY_DESCRIPTION)
+                                                                .key(METADATA_KEY_START_DATE)
+                                                                .key(METADATA_KEY_END_DATE)
+                                                                .key("stereotype")
+                                                                .key("properties")
+                                                                .build();
     /**
      * Using implementation because of Jackson. Jackson needs a default empty constructor, so we make a wrapper of... the existing wrapper... because that one does not permit empty lists...
      */
@@ -58,6 +77,13 @@ final class DataNodeImpl extends DefaultArbitraryDataHolder implements DataNode
     // the nodes C, D, E will be deleted in the first GC cycle, whereas the B node will be deleted in the second GC cycle
     @JsonIgnore
     private transient WeakReference<DataNode> parent;
+    /**
+     * The relationships between the data nodes of this root, created once the first one is added. The other data nodes use the one of their root.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile EdgeTable edgeTable;
     /**
      * The ID of this data node.
      */
@@ -79,6 +105,7 @@ final class DataNodeImpl extends DefaultArbitraryDataHolder implements DataNode
     }
 
     DataNodeImpl(final DataNode parent, final boolean setId) {
+        super(new SchemaMetadataMap(METADATA_SCHEMA));
         this.parent = new WeakReference<>(parent);
         if (setId) {
             this.id = ID_SEQ.getAndIncrement();
@@ -95,7 +122,10 @@ final class DataNodeImpl extends DefaultArbitraryDataHolder implements DataNode
      */
     void addChild(DataNode child) throws NullPointerException {
         assert !child.isRoot();
-        this.children.add(child);
+        // the children are added by the search and copied on the JavaFX thread
+        synchronized (children) {
+            this.children.add(child);
+        }
     }
 
     @Override
@@ -103,6 +133,13 @@ final class DataNodeImpl extends DefaultArbitraryDataHolder implements DataNode
         return children;
     }
 
+    @Override
+    public List<? extends DataNode> copyChildren() {
+        synchronized (children) {
+            return List.copyOf(children);
+        }
+    }
+
     @Override
     public DataNode getParent() {
         return parent.get();
@@ -131,6 +168,44 @@ final class DataNodeImpl extends DefaultArbitraryDataHolder implements DataNode
         return getParent() == null;
     }
 
+    @Override
+    @JsonIgnore
+    public EdgeTable getEdges() {
+        if (!isRoot()) {
+            return findRoot().orElseThrow()
+                             .getEdges();
+        }
+        EdgeTable edgeTable = this.edgeTable;
+        if (edgeTable == null) {
+            synchronized (this) {
+                edgeTable = this.edgeTable;
+                if (edgeTable == null) {
+                    edgeTable = new EdgeTable();
+                    this.edgeTable = edgeTable;
+                }
+            }
+        }
+        return edgeTable;
+    }
+
+    /**
+     * @return The edges of this root for Jackson, empty for the other data nodes.
+     */
+    @JsonProperty("relationships")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<EdgeTable.Edge> getRelationships() {
+        final EdgeTable edgeTable = this.edgeTable;
+        return edgeTable == null || !isRoot() ? List.of() : edgeTable.toList();
+    }
+
+    /**
+     * @param relationships the edges of this root, only a root has them
+     */
+    @JsonProperty("relationships")
+    void setRelationships(final List<EdgeTable.Edge> relationships) {
+        getEdges().addAll(relationships);
+    }
+
     @Override
     public void iterate(BiConsumer<DataNode, Integer> biConsumer) {
         iterate(biConsumer, this);
@@ -0,0 +1,44 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import java.util.Locale;
+
+/**
+ * The ways the {@link DataNode}s are stored in memory.
+ *
+ * @see ApplicationConfiguration#CFG_KEY_DATA_NODE_STORE
+ * @since 1.0
+ */
+public enum DataNodeStoreType {
+    /**
+     * An object per node with an observable list of its children. Several hundred bytes per node, but the children notify the UI of every change.
+     */
+    OBJECT,
+    /**
+     * The whole tree in parallel arrays, the nodes are views of their slots. Some seventy bytes per node plus the strings.
+     */
+    COLUMNAR;
+
+    /**
+     * @param name the name of the type, case-insensitive
+     *
+     * @return the type
+     *
+     * @throws IllegalArgumentException if there is no type with such name
+     */
+    public static DataNodeStoreType fromName(final String name) throws IllegalArgumentException {
+        return valueOf(name.toUpperCase(Locale.ROOT)
+                           .replace('-', '_'));
+    }
+
+    /**
+     * @param offHeap whether the dictionaries of the {@link #COLUMNAR} stores keep the URIs off the heap, ignored by the other types
+     *
+     * @return a factory of the data nodes stored this way
+     */
+    public DataNodeFactory createFactory(final boolean offHeap) {
+        return switch (this) {
+            case OBJECT -> new DataNodeFactory();
+            case COLUMNAR -> new ColumnarDataNodeFactory(offHeap);
+        };
+    }
+}
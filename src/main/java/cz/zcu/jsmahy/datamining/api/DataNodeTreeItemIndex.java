@@ -0,0 +1,100 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import cz.zcu.jsmahy.datamining.util.LongObjectHashMap;
+import javafx.event.EventHandler;
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>The tree items of a tree indexed by the {@link DataNode#getId() IDs} of their data nodes.</p>
+ * <p>The index listens to the children modifications of the tree root -- the modifications anywhere in the tree bubble up to it -- and indexes the added and unindexes the removed items along with
+ * their subtrees. A lookup is then a single probe regardless of the size of the tree. The items of the data nodes under a collapsed {@link LazyDataNodeTreeItem} do not exist, thus are not
+ * indexed.</p>
+ * <p>Must only be used on the JavaFX thread, the same as the tree.</p>
+ *
+ * @since 1.0
+ */
+public class DataNodeTreeItemIndex {
+    private final LongObjectHashMap<TreeItem<DataNode>> treeItems = new LongObjectHashMap<>();
+    private final EventHandler<TreeItem.TreeModificationEvent<DataNode>> handler = event -> {
+        if (event.wasRemoved()) {
+            event.getRemovedChildren()
+                 .forEach(this::unindex);
+        }
+        if (event.wasAdded()) {
+            event.getAddedChildren()
+                 .forEach(this::index);
+        }
+    };
+    private TreeItem<DataNode> treeRoot;
+
+    /**
+     * Indexes the tree of the root, and stops indexing the previous one.
+     *
+     * @param treeRoot the tree root, may be {@code null}
+     */
+    public void setTreeRoot(final TreeItem<DataNode> treeRoot) {
+        if (this.treeRoot != null) {
+            this.treeRoot.removeEventHandler(TreeItem.childrenModificationEvent(), handler);
+        }
+        treeItems.clear();
+        this.treeRoot = treeRoot;
+        if (treeRoot != null) {
+            treeRoot.addEventHandler(TreeItem.childrenModificationEvent(), handler);
+            treeRoot.getChildren()
+                    .forEach(this::index);
+        }
+    }
+
+    /**
+     * @param dataNode the data node
+     *
+     * @return the tree item of the data node, or {@code null} if it has none
+     */
+    public TreeItem<DataNode> get(final DataNode dataNode) {
+        return treeItems.get(requireNonNull(dataNode).getId());
+    }
+
+    /**
+     * @return the number of the indexed tree items
+     */
+    public int size() {
+        return treeItems.size();
+    }
+
+    private void index(final TreeItem<DataNode> subtree) {
+        final Deque<TreeItem<DataNode>> stack = new ArrayDeque<>();
+        stack.push(subtree);
+        while (!stack.isEmpty()) {
+            final TreeItem<DataNode> treeItem = stack.pop();
+            if (treeItem.getValue() != null) {
+                treeItems.put(treeItem.getValue()
+                                      .getId(), treeItem);
+            }
+            treeItem.getChildren()
+                    .forEach(stack::push);
+        }
+    }
+
+    private void unindex(final TreeItem<DataNode> subtree) {
+        final Deque<TreeItem<DataNode>> stack = new ArrayDeque<>();
+        stack.push(subtree);
+        while (!stack.isEmpty()) {
+            final TreeItem<DataNode> treeItem = stack.pop();
+            if (treeItem.getValue() != null) {
+                final long id = treeItem.getValue()
+                                        .getId();
+                // another item of the same data node could have been added since
+                if (treeItems.get(id) == treeItem) {
+                    treeItems.remove(id);
+                }
+            }
+            treeItem.getChildren()
+                    .forEach(stack::push);
+        }
+    }
+}
@@ -20,6 +20,17 @@ public class DefaultArbitraryDataHolder implements ArbitraryDataHolder {
         this(Collections.synchronizedMap(new HashMap<>()));
     }
 
+    /**
+     * Creates a holder whose well-known keys are laid out by the schema.
+     *
+     * @param schema the schema of the metadata
+     *
+     * @see SchemaMetadataMap
+     */
+    public DefaultArbitraryDataHolder(final MetadataSchema schema) {
+        this(new SchemaMetadataMap(schema));
+    }
+
     protected DefaultArbitraryDataHolder(final Map<String, Object> delegate) {
         this.metadata = delegate;
     }
@@ -1,56 +1,33 @@
 package cz.zcu.jsmahy.datamining.api;
 
-import javafx.beans.property.ReadOnlyBooleanProperty;
-import javafx.beans.property.ReadOnlyBooleanWrapper;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Default implementation of the {@link ResponseResolver}. It's advised to implement this class if you want to create a new {@link ResponseResolver}, although not mandatory.
+ * <p>Default implementation of the {@link ResponseResolver}. It's advised to implement this class if you want to create a new {@link ResponseResolver}, although not mandatory.</p>
+ * <p>Every request gets its own future, the resolvers thus hold no state of the requests and can be shared by concurrent request handlers.</p>
  *
  * @author Jakub Šmrha
  * @since 1.0
  */
 public abstract class DefaultResponseResolver<D> implements ResponseResolver<D> {
-    protected final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
-    private final Object lock = new Object();
-    /**
-     * If true then the reference has been set. This exists because the default value of reference is {@code null}, and when we set the reference to {@code null} the request handler has no way of
-     * telling whether the reference was actually set.
-     */
-    private final ReadOnlyBooleanWrapper responseProperty = new ReadOnlyBooleanWrapper(false);
-
-    @Override
-    public final void resolve(final D inputMetadata, final SparqlEndpointTask<?> requestHandler) throws IllegalStateException {
-        result.clearMetadata();
-        resolveInternal(inputMetadata, requestHandler);
-    }
 
     @Override
-    public final ArbitraryDataHolder getResponse() throws IllegalStateException {
-        if (!hasResponseReady()) {
-            throw new IllegalStateException("Response not ready yet.");
+    public final CompletableFuture<ArbitraryDataHolder> resolve(final D inputMetadata, final SparqlEndpointTask<?> requestHandler) {
+        final CompletableFuture<ArbitraryDataHolder> response = new CompletableFuture<>();
+        try {
+            resolveInternal(inputMetadata, requestHandler, response);
+        } catch (RuntimeException e) {
+            response.completeExceptionally(e);
         }
-        synchronized (lock) {
-            final ArbitraryDataHolder result = this.result;
-            // reset the response to false -- after this call we no longer have a response
-            responseProperty.set(false);
-            return result;
-        }
-    }
-
-    @Override
-    public final ReadOnlyBooleanProperty hasResponseReadyProperty() {
-        return responseProperty.getReadOnlyProperty();
+        return response;
     }
 
-    @Override
-    public boolean hasResponseReady() {
-        return responseProperty.get();
-    }
-
-    @Override
-    public void markResponseReady() {
-        responseProperty.set(true);
-    }
-
-    protected abstract void resolveInternal(final D inputMetadata, final SparqlEndpointTask<?> requestHandler);
+    /**
+     * Resolves the request. The implementation is obliged to complete the response, either right away or once the response is known.
+     *
+     * @param inputMetadata  The query input metadata
+     * @param requestHandler The request handler
+     * @param response       The response to complete
+     */
+    protected abstract void resolveInternal(final D inputMetadata, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response);
 }
@@ -8,6 +8,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*;
@@ -15,7 +16,8 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * <p>Default implementations for {@link SparqlEndpointTask}.</p>
- * <p>This class does not implement the {@link Task#call()} method, rather it returns {@link UnsupportedOperationException}! To run this task you must implement this method.</p>
+ * <p>This class does not implement the {@link Task#call()} and {@link #crawl()} methods, rather they throw {@link UnsupportedOperationException}! To run this task you must implement these
+ * methods.</p>
  *
  * @param <R>
  */
@@ -72,12 +74,13 @@ public class DefaultSparqlEndpointTask<R> extends SparqlEndpointTask<R> {
         }
     }
 
-    public synchronized void unlockDialogPane() {
-        notify();
-    }
-
     @Override
     public R call() throws Exception {
         throw new UnsupportedOperationException("Not implemented");
     }
+
+    @Override
+    public CompletableFuture<Void> crawl() {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException("Not implemented"));
+    }
 }
@@ -0,0 +1,289 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import cz.zcu.jsmahy.datamining.util.LongObjectHashMap;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.*;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * <p>The relationships (edges) between the data nodes of a root, see {@link DataNode#getEdges()}.</p>
+ * <p>An edge is stored as the IDs of the data nodes it goes from and to in two {@code long} arrays, and its name and stereotype as indices into the strings of the table -- the few distinct names
+ * are stored once. The edges going from and to a data node are indexed by the ID of the data node, so removing a data node along with its edges only costs its degree. A removed edge leaves a hole,
+ * the table is compacted once the holes outnumber the edges.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public class EdgeTable {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_COMPACTION_SIZE = 64;
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private LongObjectHashMap<IntList> outgoing = new LongObjectHashMap<>();
+    private LongObjectHashMap<IntList> incoming = new LongObjectHashMap<>();
+    private long[] froms = new long[INITIAL_CAPACITY];
+    private long[] tos = new long[INITIAL_CAPACITY];
+    private int[] names = new int[INITIAL_CAPACITY];
+    private int[] stereotypes = new int[INITIAL_CAPACITY];
+    /**
+     * The number of the slots, including the holes.
+     */
+    private int slots;
+    private int holes;
+
+    /**
+     * Adds an edge.
+     *
+     * @param from       the ID of the data node the edge goes from
+     * @param to         the ID of the data node the edge goes to
+     * @param name       the name of the edge
+     * @param stereotype the stereotype of the edge
+     */
+    public synchronized void add(final long from, final long to, final String name, final String stereotype) {
+        if (slots == froms.length) {
+            final int capacity = slots * 2;
+            froms = Arrays.copyOf(froms, capacity);
+            tos = Arrays.copyOf(tos, capacity);
+            names = Arrays.copyOf(names, capacity);
+            stereotypes = Arrays.copyOf(stereotypes, capacity);
+        }
+        final int slot = slots++;
+        froms[slot] = from;
+        tos[slot] = to;
+        names[slot] = intern(name);
+        stereotypes[slot] = intern(stereotype);
+        index(outgoing, from, slot);
+        index(incoming, to, slot);
+    }
+
+    /**
+     * Adds the edges.
+     *
+     * @param edges the edges
+     */
+    public synchronized void addAll(final Collection<Edge> edges) {
+        for (final Edge edge : edges) {
+            add(edge.getFrom(), edge.getTo(), edge.getName(), edge.getStereotype());
+        }
+    }
+
+    /**
+     * Removes the edges going from or to the data node.
+     *
+     * @param id the ID of the data node
+     *
+     * @return the number of the removed edges
+     */
+    public synchronized int removeDataNode(final long id) {
+        int count = 0;
+        final IntList from = outgoing.remove(id);
+        if (from != null) {
+            for (int i = 0; i < from.size; i++) {
+                count += remove(from.values[i], incoming, tos[from.values[i]]);
+            }
+        }
+        final IntList to = incoming.remove(id);
+        if (to != null) {
+            for (int i = 0; i < to.size; i++) {
+                count += remove(to.values[i], outgoing, froms[to.values[i]]);
+            }
+        }
+        if (holes > MIN_COMPACTION_SIZE && holes > slots - holes) {
+            compact();
+        }
+        return count;
+    }
+
+    /**
+     * Changes the IDs of the data nodes the edges go from and to, e.g. once the data nodes of an imported root are given new IDs.
+     *
+     * @param mapping the new ID of a data node by its old ID
+     */
+    public synchronized void remap(final LongUnaryOperator mapping) {
+        outgoing = new LongObjectHashMap<>();
+        incoming = new LongObjectHashMap<>();
+        for (int slot = removed.nextClearBit(0); slot < slots; slot = removed.nextClearBit(slot + 1)) {
+            froms[slot] = mapping.applyAsLong(froms[slot]);
+            tos[slot] = mapping.applyAsLong(tos[slot]);
+            index(outgoing, froms[slot], slot);
+            index(incoming, tos[slot], slot);
+        }
+    }
+
+    /**
+     * @param id the ID of the data node
+     *
+     * @return the edges going to the data node
+     */
+    public synchronized List<Edge> findIncoming(final long id) {
+        return edges(incoming.get(id));
+    }
+
+    /**
+     * @param id the ID of the data node
+     *
+     * @return the edges going from the data node
+     */
+    public synchronized List<Edge> findOutgoing(final long id) {
+        return edges(outgoing.get(id));
+    }
+
+    /**
+     * Passes every edge to the consumer, in the order the edges were added, without creating an object per edge.
+     *
+     * @param consumer the consumer
+     */
+    public synchronized void forEach(final EdgeConsumer consumer) {
+        for (int slot = removed.nextClearBit(0); slot < slots; slot = removed.nextClearBit(slot + 1)) {
+            consumer.accept(froms[slot], tos[slot], strings.get(names[slot]), strings.get(stereotypes[slot]));
+        }
+    }
+
+    /**
+     * @return a copy of the edges, in the order the edges were added
+     */
+    public synchronized List<Edge> toList() {
+        final List<Edge> edges = new ArrayList<>(size());
+        forEach((from, to, name, stereotype) -> edges.add(new Edge(from, to, name, stereotype)));
+        return edges;
+    }
+
+    /**
+     * @return the number of the edges
+     */
+    public synchronized int size() {
+        return slots - holes;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private int intern(final String string) {
+        final String value = string == null ? "" : string;
+        return stringIndices.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    private static void index(final LongObjectHashMap<IntList> index, final long id, final int slot) {
+        IntList slots = index.get(id);
+        if (slots == null) {
+            slots = new IntList();
+            index.put(id, slots);
+        }
+        slots.add(slot);
+    }
+
+    /**
+     * Removes the edge and unindexes it from the other end, the end of the removed data node is unindexed as a whole.
+     *
+     * @return {@code 1} if the edge was removed, {@code 0} if it already was (an edge going from the data node to itself)
+     */
+    private int remove(final int slot, final LongObjectHashMap<IntList> otherIndex, final long otherId) {
+        if (removed.get(slot)) {
+            return 0;
+        }
+        removed.set(slot);
+        holes++;
+        final IntList other = otherIndex.get(otherId);
+        if (other != null) {
+            other.remove(slot);
+            if (other.size == 0) {
+                otherIndex.remove(otherId);
+            }
+        }
+        return 1;
+    }
+
+    private List<Edge> edges(final IntList slots) {
+        if (slots == null) {
+            return Collections.emptyList();
+        }
+        final List<Edge> edges = new ArrayList<>(slots.size);
+        for (int i = 0; i < slots.size; i++) {
+            final int slot = slots.values[i];
+            edges.add(new Edge(froms[slot], tos[slot], strings.get(names[slot]), strings.get(stereotypes[slot])));
+        }
+        return edges;
+    }
+
+    private void compact() {
+        final long[] oldFroms = froms;
+        final long[] oldTos = tos;
+        final int[] oldNames = names;
+        final int[] oldStereotypes = stereotypes;
+        final int oldSlots = slots;
+        final int capacity = Math.max(INITIAL_CAPACITY, (oldSlots - holes) * 2);
+        froms = new long[capacity];
+        tos = new long[capacity];
+        names = new int[capacity];
+        stereotypes = new int[capacity];
+        outgoing = new LongObjectHashMap<>();
+        incoming = new LongObjectHashMap<>();
+        slots = 0;
+        for (int slot = removed.nextClearBit(0); slot < oldSlots; slot = removed.nextClearBit(slot + 1)) {
+            final int newSlot = slots++;
+            froms[newSlot] = oldFroms[slot];
+            tos[newSlot] = oldTos[slot];
+            names[newSlot] = oldNames[slot];
+            stereotypes[newSlot] = oldStereotypes[slot];
+            index(outgoing, froms[newSlot], newSlot);
+            index(incoming, tos[newSlot], newSlot);
+        }
+        removed.clear();
+        holes = 0;
+    }
+
+    /**
+     * A consumer of the edges of the table.
+     */
+    @FunctionalInterface
+    public interface EdgeConsumer {
+        void accept(long from, long to, String name, String stereotype);
+    }
+
+    /**
+     * A copy of an edge of the table.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Edge {
+        private long from;
+        private long to;
+        private String name;
+        private String stereotype;
+    }
+
+    /**
+     * The slots of the edges of a data node, usually just one or two.
+     */
+    private static class IntList {
+        private int[] values = new int[2];
+        private int size;
+
+        void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void remove(final int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import com.google.inject.Inject;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_MAX_REQUESTS_PER_HOST;
+
+/**
+ * <p>Limits the number of concurrent requests sent to a single host. Shared by everything that sends requests (resource fetchers, SPARQL services) so that many concurrent searches do not
+ * flood a single endpoint.</p>
+ * <p>An example usage:</p>
+ * <pre>{@code
+ * try (HostRequestLimiter.Permit permit = limiter.acquire(uri)) {
+ *     model.read(uri);
+ * }
+ * }</pre>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_MAX_REQUESTS_PER_HOST
+ * @since 1.0
+ */
+public class HostRequestLimiter {
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+    private final int maxRequestsPerHost;
+    private final ConcurrentMap<String, Semaphore> hosts = new ConcurrentHashMap<>();
+
+    @Inject
+    public HostRequestLimiter(final ApplicationConfiguration config) {
+        this(config.<Number>getValue(CFG_KEY_MAX_REQUESTS_PER_HOST, DEFAULT_MAX_REQUESTS_PER_HOST)
+                   .intValue());
+    }
+
+    /**
+     * @param maxRequestsPerHost the maximum number of concurrent requests to a single host
+     *
+     * @throws IllegalArgumentException if the maximum is not positive
+     */
+    public HostRequestLimiter(final int maxRequestsPerHost) throws IllegalArgumentException {
+        if (maxRequestsPerHost <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests per host must be positive.");
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * @param uri the URI
+     *
+     * @return the lower case host of the URI, or an empty string if the URI has none
+     */
+    public static String hostOf(final String uri) {
+        try {
+            final String host = URI.create(uri)
+                                   .getHost();
+            return host == null ? "" : host.toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Waits until a request can be sent to the host of the URI.
+     *
+     * @param uri the URI the request is sent to
+     *
+     * @return the permit to send the request, must be closed once the request is done
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Permit acquire(final String uri) throws InterruptedException {
+        final Semaphore semaphore = hosts.computeIfAbsent(hostOf(uri), host -> new Semaphore(maxRequestsPerHost, true));
+        semaphore.acquire();
+        return semaphore::release;
+    }
+
+    /**
+     * A permit to send a request. Closing it lets another request to the host through.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -6,6 +6,12 @@ import com.google.inject.Inject;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_NAME;
+import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_RELATIONSHIPS;
 
 /**
  * The JSON {@link DataNode} deserializer
@@ -14,6 +20,10 @@ import java.io.InputStreamReader;
  * @since 1.0
  */
 final class JSONDataNodeDeserializer implements DataNodeDeserializer {
+    // the keys of a relationship in the metadata of the data nodes exported before the edge table, see FialaBPMetadataKeys
+    private static final String LEGACY_KEY_FROM = "from";
+    private static final String LEGACY_KEY_TO = "to";
+    private static final String LEGACY_KEY_STEREOTYPE = "stereotype";
     private final ObjectMapper jsonObjectMapper;
 
     @Inject
@@ -30,6 +40,39 @@ final class JSONDataNodeDeserializer implements DataNodeDeserializer {
         }
     }
 
+    /**
+     * Moves the relationships of the data nodes exported before the relationships were kept in the edge table to the edge table of the root.
+     */
+    private void migrateRelationships(final DataNode root) {
+        final EdgeTable edges = root.getEdges();
+        root.iterate((dataNode, depth) -> {
+            if (!dataNode.hasMetadataKey(METADATA_KEY_RELATIONSHIPS)) {
+                return;
+            }
+            final List<?> relationships = dataNode.getValue(METADATA_KEY_RELATIONSHIPS, List.of());
+            for (final Object relationship : relationships) {
+                final Map<?, ?> metadata = metadata(relationship);
+                if (metadata.get(LEGACY_KEY_FROM) instanceof Number from && metadata.get(LEGACY_KEY_TO) instanceof Number to) {
+                    edges.add(from.longValue(), to.longValue(), Objects.toString(metadata.get(METADATA_KEY_NAME), null), Objects.toString(metadata.get(LEGACY_KEY_STEREOTYPE), null));
+                }
+            }
+            dataNode.removeMetadata(METADATA_KEY_RELATIONSHIPS);
+        });
+    }
+
+    /**
+     * A relationship is read either as an {@link ArbitraryDataHolder} or as its JSON form, i.e. a map with its metadata under the {@code "metadata"} key.
+     */
+    private static Map<?, ?> metadata(final Object relationship) {
+        if (relationship instanceof ArbitraryDataHolder holder) {
+            return holder.getMetadata();
+        }
+        if (relationship instanceof Map<?, ?> map) {
+            return map.get("metadata") instanceof Map<?, ?> metadata ? metadata : map;
+        }
+        return Map.of();
+    }
+
     @Override
     public String[] getAcceptedFileExtensions() {
         return new String[] {"json"};
@@ -44,6 +87,7 @@ final class JSONDataNodeDeserializer implements DataNodeDeserializer {
         // the serializer tries to serialize the parent of the children, and then it tries to serialize the children of the parent
         // children (0) -> parent -> children (0) -> parent -> children (0) -> parent -> (...)
         setupParents(root);
+        migrateRelationships(root);
         return root;
     }
 }
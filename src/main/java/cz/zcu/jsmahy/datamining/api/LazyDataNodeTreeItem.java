@@ -0,0 +1,113 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A tree item whose children mirror the {@link DataNode#getChildren() children} of its data node, created only once the item is expanded and released once it collapses. Opening a tree of
+ * tens of thousands of data nodes then only creates the items of the expanded nodes, and the items of a collapsed subtree can be garbage collected.</p>
+ * <p>The items do not listen to the data nodes -- the data node children may be modified off the JavaFX thread, thus the items only read the {@link DataNode#copyChildren() copies} of the
+ * children. Call {@link #refresh()} on the JavaFX thread once the children of the data node change.</p>
+ *
+ * @since 1.0
+ */
+public class LazyDataNodeTreeItem extends TreeItem<DataNode> {
+    private boolean materialized;
+
+    /**
+     * @param dataNode the data node of this item
+     */
+    public LazyDataNodeTreeItem(final DataNode dataNode) {
+        super(dataNode);
+        expandedProperty().addListener((observable, wasExpanded, expanded) -> {
+            if (expanded) {
+                materialize();
+            } else {
+                release();
+            }
+        });
+    }
+
+    private static List<TreeItem<DataNode>> toTreeItems(final List<? extends DataNode> dataNodes) {
+        return dataNodes.stream()
+                        .<TreeItem<DataNode>>map(LazyDataNodeTreeItem::new)
+                        .toList();
+    }
+
+    /**
+     * @return whether the items of the children are created
+     */
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Reports the data node without children as a leaf even if the items of the children are not created yet, so that the item can be expanded.
+     *
+     * @return {@code true} if the data node has no children
+     */
+    @Override
+    public boolean isLeaf() {
+        if (materialized) {
+            return super.isLeaf();
+        }
+        final DataNode dataNode = getValue();
+        return dataNode == null || dataNode.copyChildren()
+                                           .isEmpty();
+    }
+
+    /**
+     * Updates the items of the children to match the children of the data node. Does nothing if the items are not created, they are created from the current children once this item expands.
+     */
+    public void refresh() {
+        if (!materialized) {
+            return;
+        }
+        final List<? extends DataNode> dataNodes = getValue().copyChildren();
+        final ObservableList<TreeItem<DataNode>> treeItems = getChildren();
+        final int size = treeItems.size();
+        // the children are usually only appended to
+        if (size <= dataNodes.size() && (size == 0 || treeItems.get(size - 1)
+                                                               .getValue()
+                                                               .getId() == dataNodes.get(size - 1)
+                                                                                    .getId())) {
+            if (size < dataNodes.size()) {
+                treeItems.addAll(toTreeItems(dataNodes.subList(size, dataNodes.size())));
+            }
+            return;
+        }
+
+        // keep the items of the children that stayed so that their subtrees stay expanded
+        final Map<Long, TreeItem<DataNode>> byId = new HashMap<>();
+        for (final TreeItem<DataNode> treeItem : treeItems) {
+            byId.put(treeItem.getValue()
+                             .getId(), treeItem);
+        }
+        treeItems.setAll(dataNodes.stream()
+                                  .map(dataNode -> {
+                                      final TreeItem<DataNode> treeItem = byId.get(dataNode.getId());
+                                      return treeItem != null ? treeItem : new LazyDataNodeTreeItem(dataNode);
+                                  })
+                                  .toList());
+    }
+
+    private void materialize() {
+        if (materialized || getValue() == null) {
+            return;
+        }
+        materialized = true;
+        getChildren().setAll(toTreeItems(getValue().copyChildren()));
+    }
+
+    private void release() {
+        if (!materialized) {
+            return;
+        }
+        materialized = false;
+        getChildren().clear();
+    }
+}
@@ -0,0 +1,104 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>The well-known metadata keys of an {@link ArbitraryDataHolder} and the types of their values.</p>
+ * <p>A {@link SchemaMetadataMap} keeps the values of the well-known keys in slots rather than in hash map entries, and the values of the {@link SlotType#LONG} slots as primitives.</p>
+ *
+ * @see SchemaMetadataMap
+ * @since 1.0
+ */
+public final class MetadataSchema {
+    /**
+     * The maximum number of keys, the presence of the slots is tracked in an {@code int} mask.
+     */
+    public static final int MAX_KEYS = Integer.SIZE;
+
+    private final String[] keys;
+    private final SlotType[] types;
+
+    private MetadataSchema(final String[] keys, final SlotType[] types) {
+        if (keys.length > MAX_KEYS) {
+            throw new IllegalArgumentException("A schema can have at most " + MAX_KEYS + " keys: " + Arrays.toString(keys));
+        }
+        this.keys = keys;
+        this.types = types;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param key the key
+     *
+     * @return the slot of the key, or {@code -1} if the key is not well-known
+     */
+    int indexOf(final String key) {
+        // the keys are usually the constants, so try the identity first
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    String key(final int slot) {
+        return keys[slot];
+    }
+
+    SlotType type(final int slot) {
+        return types[slot];
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * The type of the values of a slot.
+     */
+    public enum SlotType {
+        /**
+         * Any object.
+         */
+        OBJECT,
+        /**
+         * A {@link Long}, stored unboxed.
+         */
+        LONG
+    }
+
+    public static final class Builder {
+        private final List<String> keys = new ArrayList<>();
+        private final List<SlotType> types = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder key(final String key) {
+            return key(key, SlotType.OBJECT);
+        }
+
+        public Builder key(final String key, final SlotType type) {
+            keys.add(requireNonNull(key));
+            types.add(requireNonNull(type));
+            return this;
+        }
+
+        public MetadataSchema build() {
+            return new MetadataSchema(keys.toArray(String[]::new), types.toArray(SlotType[]::new));
+        }
+    }
+}
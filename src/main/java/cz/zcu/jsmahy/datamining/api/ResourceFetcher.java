@@ -0,0 +1,24 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * <p>Dereferences RDF resources and reads their description to a {@link Model}.</p>
+ * <p>The {@link SparqlEndpointTask}s should never call {@link Model#read(String)} directly, rather they should go through an instance of this interface so that the fetching strategy (caching,
+ * throttling, ...) can be swapped via Guice.</p>
+ * <p>Implementations <b>must</b> be thread-safe as a single instance is shared by all the running tasks.</p>
+ *
+ * @since 1.0
+ */
+public interface ResourceFetcher {
+    /**
+     * Reads the description of the resource under the given URI to the model.
+     *
+     * @param model the model to read the description to
+     * @param uri   the URI of the resource
+     *
+     * @throws HttpException if the resource could not be fetched
+     */
+    void read(Model model, String uri) throws HttpException;
+}
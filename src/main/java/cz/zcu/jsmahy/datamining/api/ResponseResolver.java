@@ -1,7 +1,8 @@
 package cz.zcu.jsmahy.datamining.api;
 
 import javafx.application.Platform;
-import javafx.beans.property.ReadOnlyBooleanProperty;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <p>Solves ambiguities of nodes where a list of them occurs.</p>
@@ -14,22 +15,21 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
  */
 public interface ResponseResolver<D> {
     /**
-     * <p>WARNING: the program waits until {@link ResponseResolver#hasResponseReady()} returns true</p>
-     * <p>The reference can be set any time. Once the reference is set, you are obliged to resolveRequest {@link ResponseResolver#markResponseReady()} to mark the reference as set followed by
-     * {@link SparqlEndpointTask#unlockDialogPane()} if this method runs in a separate. If you do not resolveRequest these methods the program will get stuck because it {@code wait}s for the user
-     * input if you decide to run this in a different thread (e.g. in a {@link Platform#runLater(Runnable)} resolveRequest).
-     * </p>
+     * <p>Resolves the request. The response is delivered via the returned future -- the request handler does not block while waiting for it, it rather continues the search once the future
+     * completes.</p>
+     * <p>The future can be completed any time and from any thread (e.g. in a {@link Platform#runLater(Runnable)} call once the user responds). If you never complete it the search
+     * of the request handler never continues.</p>
      * <p>An example async (different thread) implementation:</p>
      * <pre>{@code
-     * public class UserAssistedAmbiguitySolver implements ResponseResolver<Collection<RDFNode>> {
+     * public class UserAssistedAmbiguitySolver extends DefaultResponseResolver<Collection<Statement>> {
      *     @Override
-     *     public void resolve(ObservableList<DataNode<T>> list, SparqlEndpointAgent<T, Void> requestHandler) {
+     *     protected void resolveInternal(Collection<Statement> candidates, SparqlEndpointTask<?> requestHandler, CompletableFuture<ArbitraryDataHolder> response) {
      *         Platform.runLater(() -> {
-     *           final Dialog<DataNode<T>> dialog = ...
-     *           final List<DataNode<T>> result = dialog.showAndWait()
-     *                                                 .orElse(null);
-     *           markResponseReady();
-     *           requestHandler.unlockDialogPane();
+     *           final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
+     *           final Dialog<Statement> dialog = ...
+     *           dialog.showAndWait()
+     *                 .ifPresent(stmt -> result.addMetadata(RESULT_KEY_CHOSEN_RDF_NODE, stmt.getObject()));
+     *           response.complete(result);
      *         });
      *     }
      * }
@@ -38,56 +38,23 @@ public interface ResponseResolver<D> {
      *
      * <p>An example sync implementation:</p>
      * <pre>{@code
-     * @Override
-     * public class DefaultFirstAmbiguitySolver<T extends RDFNode> implements AmbiguitySolver<T, Void> {
-     *
+     * public class FirstCandidateResolver extends DefaultResponseResolver<Collection<Statement>> {
      *     @Override
-     *     public DataNodeReferenceHolder<T> resolveRequest(final ObservableList<DataNode<T>> dataNodeList, final SparqlEndpointAgent<T, Void> requestHandler) {
-     *         final DataNodeReferenceHolder<T> ref = new DataNodeReferenceHolder<>();
-     *
-     *         for (DataNode<T> dataNode : dataNodeList) {
-     *             if (dataNode.getData()
-     *                         .isURIResource()) {
-     *                 ref.set(dataNode);
-     *                 break;
-     *             }
-     *         }
-     *         return ref;
+     *     protected void resolveInternal(Collection<Statement> candidates, SparqlEndpointTask<?> requestHandler, CompletableFuture<ArbitraryDataHolder> response) {
+     *         final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
+     *         candidates.stream()
+     *                   .findFirst()
+     *                   .ifPresent(stmt -> result.addMetadata(RESULT_KEY_CHOSEN_RDF_NODE, stmt.getObject()));
+     *         response.complete(result);
      *     }
      * }
-     *     }
+     * }
      * </pre>
      *
      * @param inputMetadata  The query input metadata
      * @param requestHandler The request handler
      *
-     * @throws IllegalStateException if another thread attempts to resolve a request by this resolver while it's running
-     */
-    void resolve(final D inputMetadata, final SparqlEndpointTask<?> requestHandler) throws IllegalStateException;
-
-    /**
-     * @return the result of the {@link ResponseResolver#resolve(D, SparqlEndpointTask)}
-     *
-     * @throws IllegalStateException if the {@link ResponseResolver#resolve(D, SparqlEndpointTask)} was not called prior to this method
-     */
-    ArbitraryDataHolder getResponse() throws IllegalStateException;
-
-    /**
-     * @return the response property
-     *
-     * @see ResponseResolver#hasResponseReady()
-     */
-    ReadOnlyBooleanProperty hasResponseReadyProperty();
-
-    /**
-     * This boolean should <b>always</b> be {@code true} if this resolver is not blocking
-     *
-     * @return {@code true} if the response is ready {@code false} otherwise
-     */
-    boolean hasResponseReady();
-
-    /**
-     * Marks this reference as finished -- the reference has been set.
+     * @return the future response of this resolver, a new one for every call
      */
-    void markResponseReady();
+    CompletableFuture<ArbitraryDataHolder> resolve(final D inputMetadata, final SparqlEndpointTask<?> requestHandler);
 }
@@ -0,0 +1,218 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>The metadata of an {@link ArbitraryDataHolder} laid out by a {@link MetadataSchema}.</p>
+ * <p>The values of the well-known keys are kept in an array indexed by their slot -- no hash map entries, and the {@link MetadataSchema.SlotType#LONG longs} unboxed. A value of a
+ * different type than the slot expects is kept as is, as is any other object (e.g. a calendar, thus a change to the calendar read is seen by the map). The other keys go to a hash map created
+ * once the first such key is added.</p>
+ * <p>This map is thread-safe, the methods synchronize on the map itself. The views iterate over a snapshot of the map, writing to an entry writes through to the map.</p>
+ *
+ * @since 1.0
+ */
+public class SchemaMetadataMap extends AbstractMap<String, Object> {
+    private final MetadataSchema schema;
+    /**
+     * The object values of the slots.
+     */
+    private final Object[] values;
+    /**
+     * The primitive values of the slots, {@code null} until the first primitive is stored.
+     */
+    private long[] primitives;
+    /**
+     * The slots that are set.
+     */
+    private int present;
+    /**
+     * The slots that hold a primitive.
+     */
+    private int unboxed;
+    private Map<String, Object> others;
+
+    /**
+     * @param schema the schema of the metadata
+     */
+    public SchemaMetadataMap(final MetadataSchema schema) {
+        this.schema = requireNonNull(schema);
+        this.values = new Object[schema.size()];
+    }
+
+    private static boolean isSet(final int mask, final int slot) {
+        return (mask & (1 << slot)) != 0;
+    }
+
+    private Object read(final int slot) {
+        if (!isSet(unboxed, slot)) {
+            return values[slot];
+        }
+        return switch (schema.type(slot)) {
+            case LONG -> primitives[slot];
+            case OBJECT -> throw new IllegalStateException("An object slot cannot hold a primitive");
+        };
+    }
+
+    private void write(final int slot, final Object value) {
+        final int bit = 1 << slot;
+        present |= bit;
+        unboxed &= ~bit;
+        values[slot] = value;
+        if (schema.type(slot) == MetadataSchema.SlotType.LONG && value instanceof Long l) {
+            store(slot, l);
+        }
+    }
+
+    private void store(final int slot, final long primitive) {
+        if (primitives == null) {
+            primitives = new long[schema.size()];
+        }
+        primitives[slot] = primitive;
+        values[slot] = null;
+        unboxed |= 1 << slot;
+    }
+
+    private void clear(final int slot) {
+        final int bit = 1 << slot;
+        present &= ~bit;
+        unboxed &= ~bit;
+        values[slot] = null;
+    }
+
+    @Override
+    public synchronized Object get(final Object key) {
+        if (!(key instanceof String k)) {
+            return null;
+        }
+        final int slot = schema.indexOf(k);
+        if (slot >= 0) {
+            return isSet(present, slot) ? read(slot) : null;
+        }
+        return others == null ? null : others.get(k);
+    }
+
+    @Override
+    public synchronized boolean containsKey(final Object key) {
+        if (!(key instanceof String k)) {
+            return false;
+        }
+        final int slot = schema.indexOf(k);
+        if (slot >= 0) {
+            return isSet(present, slot);
+        }
+        return others != null && others.containsKey(k);
+    }
+
+    @Override
+    public synchronized Object put(final String key, final Object value) {
+        final int slot = schema.indexOf(requireNonNull(key));
+        if (slot < 0) {
+            if (others == null) {
+                others = new HashMap<>(4);
+            }
+            return others.put(key, value);
+        }
+        final Object previous = isSet(present, slot) ? read(slot) : null;
+        write(slot, value);
+        return previous;
+    }
+
+    @Override
+    public synchronized void putAll(final Map<? extends String, ?> m) {
+        m.forEach(this::put);
+    }
+
+    @Override
+    public synchronized Object remove(final Object key) {
+        if (!(key instanceof String k)) {
+            return null;
+        }
+        final int slot = schema.indexOf(k);
+        if (slot < 0) {
+            return others == null ? null : others.remove(k);
+        }
+        if (!isSet(present, slot)) {
+            return null;
+        }
+        final Object previous = read(slot);
+        clear(slot);
+        return previous;
+    }
+
+    @Override
+    public synchronized int size() {
+        return Integer.bitCount(present) + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public synchronized void clear() {
+        present = 0;
+        unboxed = 0;
+        Arrays.fill(values, null);
+        others = null;
+    }
+
+    @Override
+    public synchronized Set<Entry<String, Object>> entrySet() {
+        final List<Entry<String, Object>> snapshot = new ArrayList<>(size());
+        for (int slot = 0; slot < values.length; slot++) {
+            if (isSet(present, slot)) {
+                snapshot.add(new MetadataEntry(schema.key(slot), read(slot)));
+            }
+        }
+        if (others != null) {
+            others.forEach((key, value) -> snapshot.add(new MetadataEntry(key, value)));
+        }
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                final Iterator<Entry<String, Object>> iterator = snapshot.iterator();
+                return new Iterator<>() {
+                    private Entry<String, Object> last;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        last = iterator.next();
+                        return last;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null) {
+                            throw new IllegalStateException();
+                        }
+                        iterator.remove();
+                        SchemaMetadataMap.this.remove(last.getKey());
+                        last = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return snapshot.size();
+            }
+        };
+    }
+
+    private class MetadataEntry extends SimpleEntry<String, Object> {
+        private static final long serialVersionUID = 1L;
+
+        MetadataEntry(final String key, final Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
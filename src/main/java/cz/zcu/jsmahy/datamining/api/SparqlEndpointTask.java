@@ -2,6 +2,8 @@ package cz.zcu.jsmahy.datamining.api;
 
 import javafx.concurrent.Task;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * <p>A SPARQL endpoint background task. This class can be used for offline data processing as well, but it will be run in a separate thread regardless.</p>
  * <p>This abstraction exists mainly for testing purposes (it's easy to mock this class).</p>
@@ -14,9 +16,6 @@ import javafx.concurrent.Task;
  */
 public abstract class SparqlEndpointTask<R> extends Task<R> {
 
-    // TODO: docs
-    public abstract void unlockDialogPane();
-
     public abstract ApplicationConfiguration getConfig();
 
     public abstract String getQuery();
@@ -25,6 +24,13 @@ public abstract class SparqlEndpointTask<R> extends Task<R> {
 
     public abstract RequestProgressListener getProgressListener();
 
+    /**
+     * Runs the search without holding a thread while waiting for the responses of the resolvers. Unlike {@link #call()} this method returns right away.
+     *
+     * @return the future completed once the search is done
+     */
+    public abstract CompletableFuture<Void> crawl();
+
     // public for testing purposes
     @Override
     public abstract R call() throws Exception;
@@ -0,0 +1,36 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>Executes SPARQL queries against some SPARQL endpoint.</p>
+ * <p>Implementations <b>must</b> be thread-safe as a single instance is shared by all the running tasks.</p>
+ *
+ * @since 1.0
+ */
+public interface SparqlService {
+    /**
+     * Executes the {@code CONSTRUCT} query and adds the constructed triples to the model.
+     *
+     * @param query the {@code CONSTRUCT} query
+     * @param model the model to add the constructed triples to
+     *
+     * @throws HttpException if the endpoint could not be reached
+     */
+    void construct(Query query, Model model) throws HttpException;
+
+    /**
+     * Executes the {@code SELECT} query and passes every solution to the consumer. The solutions are only passed once the query succeeds, i.e. a failed attempt never leaks partial results.
+     *
+     * @param query    the {@code SELECT} query
+     * @param solution the consumer of the solutions
+     *
+     * @throws HttpException if the endpoint could not be reached
+     */
+    void select(Query query, Consumer<QuerySolution> solution) throws HttpException;
+}
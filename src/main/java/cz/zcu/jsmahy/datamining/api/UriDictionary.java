@@ -0,0 +1,226 @@
+package cz.zcu.jsmahy.datamining.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>Encodes the URIs to dense {@code int} IDs and back.</p>
+ * <p>Every URI is stored once, as UTF-8 bytes in large chunks rather than as a {@link String} object, and all the other structures only hold its ID -- an ID is cheap to store, to hash and to
+ * compare. The chunks are either on the heap or off it (direct buffers), the latter keeps large dictionaries out of the reach of the garbage collector.</p>
+ * <p>The dictionary is append-only, an ID stays valid for the lifetime of the dictionary. The IDs are not stable across runs.</p>
+ * <p>This class is thread-safe. The lookups share a read lock, only a URI new to the dictionary takes the write lock.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_URI_DICTIONARY_OFF_HEAP
+ * @since 1.0
+ */
+public class UriDictionary {
+    /**
+     * The ID returned by {@link #find(String)} if the URI is not in the dictionary.
+     */
+    public static final int NO_ID = -1;
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final float MAX_LOAD_FACTOR = 0.5f;
+
+    private final boolean offHeap;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    /**
+     * The address of every URI, the index of its chunk in the upper and the offset in the chunk in the lower half.
+     */
+    private long[] addresses = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    /**
+     * The open-addressing table of the IDs plus one, zero marks an empty slot.
+     */
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int size;
+
+    /**
+     * @param offHeap whether the URIs should be stored off the heap
+     */
+    public UriDictionary(final boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    private static int hash(final String uri) {
+        final int h = uri.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param uri the URI
+     *
+     * @return the ID of the URI, a new one if the URI is not in the dictionary yet
+     */
+    public int intern(final String uri) {
+        final byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        final int hash = hash(uri);
+        lock.readLock()
+            .lock();
+        try {
+            final int slot = slot(bytes, hash);
+            if (table[slot] != 0) {
+                return table[slot] - 1;
+            }
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+
+        lock.writeLock()
+            .lock();
+        try {
+            // the URI might have been added since the read lock was released
+            final int slot = slot(bytes, hash);
+            return table[slot] != 0 ? table[slot] - 1 : add(bytes, hash, slot);
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    private int add(final byte[] bytes, final int hash, final int slot) {
+        final int id = size++;
+        if (id == addresses.length) {
+            addresses = Arrays.copyOf(addresses, id * 2);
+            lengths = Arrays.copyOf(lengths, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        addresses[id] = store(bytes);
+        lengths[id] = bytes.length;
+        hashes[id] = hash;
+        table[slot] = id + 1;
+        if (size > table.length * MAX_LOAD_FACTOR) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * @param uri the URI
+     *
+     * @return the ID of the URI, or {@link #NO_ID} if the URI is not in the dictionary
+     */
+    public int find(final String uri) {
+        final byte[] bytes = uri.getBytes(StandardCharsets.UTF_8);
+        final int hash = hash(uri);
+        lock.readLock()
+            .lock();
+        try {
+            final int slot = slot(bytes, hash);
+            return table[slot] == 0 ? NO_ID : table[slot] - 1;
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * @return the slot of the URI in the table, or the empty slot the URI would be put to
+     */
+    private int slot(final byte[] bytes, final int hash) {
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            final int id = table[slot] - 1;
+            if (hashes[id] == hash && equals(id, bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @param id the ID
+     *
+     * @return the URI of the ID
+     *
+     * @throws IndexOutOfBoundsException if there is no URI with such ID
+     */
+    public String uri(final int id) throws IndexOutOfBoundsException {
+        final byte[] bytes;
+        lock.readLock()
+            .lock();
+        try {
+            if (id < 0 || id >= size) {
+                throw new IndexOutOfBoundsException("No URI with the ID " + id);
+            }
+            bytes = new byte[lengths[id]];
+            // an absolute get, the concurrent readers do not move the position of the chunk
+            chunk(id).get(offset(id), bytes);
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of URIs in the dictionary
+     */
+    public int size() {
+        lock.readLock()
+            .lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    private ByteBuffer chunk(final int id) {
+        return chunks.get((int) (addresses[id] >>> 32));
+    }
+
+    private int offset(final int id) {
+        return (int) addresses[id];
+    }
+
+    private boolean equals(final int id, final byte[] bytes) {
+        if (lengths[id] != bytes.length) {
+            return false;
+        }
+        final ByteBuffer chunk = chunk(id);
+        final int offset = offset(id);
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long store(final byte[] bytes) {
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.remaining() < bytes.length) {
+            // a URI longer than a chunk gets a chunk of its own
+            final int capacity = Math.max(CHUNK_SIZE, bytes.length);
+            chunk = offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            chunks.add(chunk);
+        }
+        final long address = ((long) (chunks.size() - 1) << 32) | chunk.position();
+        chunk.put(bytes);
+        return address;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        final int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import cz.zcu.jsmahy.datamining.Main;
 import cz.zcu.jsmahy.datamining.api.*;
 import cz.zcu.jsmahy.datamining.app.controller.cell.MetadataValueCellFactory;
 import cz.zcu.jsmahy.datamining.app.controller.cell.RDFNodeCellFactory;
-import cz.zcu.jsmahy.datamining.util.RDFNodeUtil;
 import cz.zcu.jsmahy.datamining.util.SearchDialog;
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
@@ -38,7 +37,6 @@ import javafx.scene.layout.VBox;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 import javafx.stage.FileChooser;
-import org.apache.jena.rdf.model.RDFNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -46,7 +44,6 @@ import java.io.*;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_RDF_NODE;
@@ -102,7 +99,7 @@ public class MainController implements Initializable, SparqlQueryServiceHolder {
                   final DataNode dataNode = nodeFactory.newRoot(lineName);
                   ontologyTreeView.getRoot()
                                   .getChildren()
-                                  .add(new TreeItem<>(dataNode));
+                                  .add(new LazyDataNodeTreeItem(dataNode));
               });
 
     };
@@ -372,20 +369,13 @@ public class MainController implements Initializable, SparqlQueryServiceHolder {
                         // At the end of import the ID_SEQ should be equal the max ID + 1.
                         final long currentIdSeq = DataNode.ID_SEQ.get();
                         final long seqToAdd = Math.max(0, currentIdSeq - deserializedRoot.getId());
-                        final AtomicLong maxId = new AtomicLong(Integer.MIN_VALUE);
-
-                        deserializedRoot.setId(deserializedRoot.getId() + seqToAdd);
-                        maxId.set(Math.max(maxId.get(), deserializedRoot.getId()));
+                        // the edges between the data nodes are shifted along with the IDs
+                        final long maxId = deserializedRoot.shiftIds(seqToAdd);
+                        // the tree items of the data nodes are created once their parents are expanded
                         progressListener.onCreateNewRoot(deserializedRoot);
-                        deserializedRoot.iterate((dataNode, integer) -> {
-                            dataNode.setId(dataNode.getId() + seqToAdd);
-                            maxId.set(Math.max(maxId.get(), dataNode.getId()));
-                            progressListener.onAddNewDataNodes(List.of(dataNode));
-                        });
 
                         // increment the ID to the next free ID
-                        maxId.incrementAndGet();
-                        DataNode.ID_SEQ.set(maxId.get());
+                        DataNode.ID_SEQ.set(maxId + 1);
                     } catch (JsonParseException ex) {
                         alertImportFailed(file, "Nepodařilo se importovat soubor '{0}' – soubor má špatný formát");
                         LOGGER.error(ex);
@@ -513,8 +503,8 @@ public class MainController implements Initializable, SparqlQueryServiceHolder {
         }
 
         final DataNode dataNode = selectedItem.getValue();
-        final RDFNode rdfNode = dataNode.getValueUnsafe(METADATA_KEY_RDF_NODE);
-        final String formattedItem = RDFNodeUtil.formatRDFNode(rdfNode);
+        // the search model only keeps the last few hops, so the label of the RDF node might be long gone -- use the name resolved when the node was created
+        final String formattedItem = dataNode.getValue(DataNode.METADATA_KEY_NAME, "");
         final String url = String.format(WIKI_URL, formattedItem);
         LOGGER.trace("Loading web page with URL {}", url);
         engine.load(url);
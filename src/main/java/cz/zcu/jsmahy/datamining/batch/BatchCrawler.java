@@ -0,0 +1,160 @@
+package cz.zcu.jsmahy.datamining.batch;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import cz.zcu.jsmahy.datamining.api.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Searches the lines of many subjects concurrently without any user interaction and exports each line to a file of its own.</p>
+ * <p>The searches are run by the {@link CrawlScheduler}, at most as many of them as there are threads are in progress at once so that the memory stays bounded.</p>
+ * <p>A subject whose search fails is logged and skipped, the rest of the subjects are searched regardless.</p>
+ *
+ * @see BatchMain
+ * @since 1.0
+ */
+public class BatchCrawler {
+    private static final Logger LOGGER = LogManager.getLogger(BatchCrawler.class);
+    private final BatchOptions options;
+    private final CrawlScheduler<?> scheduler;
+    private final DataNodeFactory dataNodeFactory;
+    private final DataNodeSerializer serializer;
+
+    /**
+     * Reason for the scheduler not having a generic parameter: {@link DataMiningModule}
+     *
+     * @param options         the options of the batch
+     * @param scheduler       the scheduler the searches are run by
+     * @param dataNodeFactory the factory of the roots of the searches
+     * @param serializer      the serializer the lines are exported with
+     *
+     * @see DataMiningModule
+     */
+    @Inject
+    @SuppressWarnings("rawtypes")
+    public BatchCrawler(final BatchOptions options,
+                        final CrawlScheduler scheduler,
+                        final DataNodeFactory dataNodeFactory,
+                        final @Named("batch") DataNodeSerializer serializer) {
+        this.options = requireNonNull(options);
+        this.scheduler = requireNonNull(scheduler);
+        this.dataNodeFactory = requireNonNull(dataNodeFactory);
+        this.serializer = requireNonNull(serializer);
+    }
+
+    /**
+     * Reads the subjects from the file. Blank lines and lines starting with {@code #} are skipped.
+     *
+     * @param inputFile the file
+     *
+     * @return the subjects
+     *
+     * @throws IOException if the file could not be read
+     */
+    public static List<String> readSubjects(final Path inputFile) throws IOException {
+        try (var lines = Files.lines(inputFile)) {
+            return lines.map(String::strip)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .distinct()
+                        .toList();
+        }
+    }
+
+    /**
+     * Turns the subject into a file name that's valid on every platform.
+     *
+     * @param subject the subject
+     *
+     * @return the file name without the extension
+     */
+    static String toFileName(final String subject) {
+        final String localName = subject.substring(subject.lastIndexOf('/') + 1);
+        return localName.replaceAll("[^\\p{L}\\p{N}._-]", "_");
+    }
+
+    /**
+     * Searches the lines of all the subjects and exports them to the output directory.
+     *
+     * @param subjects the subjects
+     *
+     * @return the number of subjects that failed
+     *
+     * @throws IOException          if the output directory could not be created
+     * @throws InterruptedException if interrupted while waiting for the searches
+     */
+    public int crawl(final List<String> subjects) throws IOException, InterruptedException {
+        Files.createDirectories(options.getOutputDirectory());
+        final AtomicInteger done = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final Semaphore inProgress = new Semaphore(options.getThreads());
+        final List<CompletableFuture<Void>> searches = new ArrayList<>(subjects.size());
+        for (final String subject : subjects) {
+            inProgress.acquire();
+            searches.add(crawl(subject).exceptionally(e -> {
+                                           LOGGER.error("Failed to export {}", subject, e);
+                                           return false;
+                                       })
+                                       .thenAccept(succeeded -> {
+                                           inProgress.release();
+                                           if (!succeeded) {
+                                               failed.incrementAndGet();
+                                           }
+                                           LOGGER.info("[{}/{}] {} {}", done.incrementAndGet(), subjects.size(), subject, succeeded ? "exported" : "failed");
+                                       }));
+        }
+        CompletableFuture.allOf(searches.toArray(CompletableFuture[]::new))
+                         .join();
+        return failed.get();
+    }
+
+    private CompletableFuture<Boolean> crawl(final String subject) {
+        final DataNode dataNodeRoot = dataNodeFactory.newRoot(subject);
+        final CompletableFuture<? extends SparqlEndpointTask<?>> search;
+        try {
+            search = scheduler.schedule(subject, dataNodeRoot);
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to search {}", subject, e);
+            return CompletableFuture.completedFuture(false);
+        }
+        // the scheduler logs the failed searches
+        return search.handle((task, e) -> {
+            if (e != null) {
+                return false;
+            }
+            if (task.getProgressListener() instanceof BatchProgressListener progressListener && progressListener.getInvalidQueryResult() != null) {
+                return false;
+            }
+            return export(subject, dataNodeRoot);
+        });
+    }
+
+    private boolean export(final String subject, final DataNode dataNodeRoot) {
+        final Path targetFile = options.getOutputDirectory()
+                                       .resolve(String.format(DataNodeSerializer.FILE_NAME_FORMAT, toFileName(subject), getFileExtension()));
+        try (OutputStream out = Files.newOutputStream(targetFile)) {
+            serializer.serialize(out, dataNodeRoot);
+        } catch (IOException e) {
+            LOGGER.error("Failed to export {} to {}", subject, targetFile, e);
+            return false;
+        }
+        return true;
+    }
+
+    private String getFileExtension() {
+        final String fileExtension = serializer.getFileExtension();
+        return fileExtension == null ? DataNodeSerializer.DEFAULT_FILE_EXTENSION : fileExtension;
+    }
+}
@@ -0,0 +1,65 @@
+package cz.zcu.jsmahy.datamining.batch;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+import cz.zcu.jsmahy.datamining.api.DataMiningModule;
+import cz.zcu.jsmahy.datamining.dbpedia.DBPediaModule;
+import cz.zcu.jsmahy.datamining.dbpedia.ResolverPolicy;
+import cz.zcu.jsmahy.datamining.offline.OfflineModule;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <p>The entry point of the headless batch mode. Searches the lines of all the subjects in the input file with the predicates passed on the command line and exports every line to a file of its
+ * own, no UI is involved.</p>
+ * <p>Exits with {@code 0} if every subject was exported, {@code 1} if some failed, and {@code 2} on invalid arguments.</p>
+ * <p>An example usage:</p>
+ * <pre>{@code
+ * batch -i monarchs.txt -p http://dbpedia.org/ontology/successor -s http://dbpedia.org/ontology/birthDate -e http://dbpedia.org/ontology/deathDate -t 8
+ * }</pre>
+ * <p>An interrupted search of a subject resumes from its journal the next time, with {@code --fresh} every subject is searched from the start.</p>
+ * <p>With {@code -d} the subjects are searched in a local dataset imported by the {@link cz.zcu.jsmahy.datamining.offline.ImportMain} rather than in the live DBPedia.</p>
+ *
+ * @see BatchOptions
+ * @since 1.0
+ */
+public class BatchMain {
+    private static final Logger LOGGER = LogManager.getLogger(BatchMain.class);
+
+    public static void main(String[] args) {
+        final BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            BatchOptions.printHelp();
+            System.exit(2);
+            return;
+        }
+
+        final Module batchModule = options.getDataset() == null ? new BatchModule(options) : Modules.combine(new BatchModule(options), new OfflineModule(options.getDataset()));
+        final Injector injector = Guice.createInjector(Modules.override(new DataMiningModule(), new DBPediaModule(ResolverPolicy.AUTOMATIC))
+                                                              .with(batchModule));
+        final BatchCrawler crawler = injector.getInstance(BatchCrawler.class);
+        try {
+            final List<String> subjects = BatchCrawler.readSubjects(options.getInputFile());
+            LOGGER.info("Searching {} subjects with {} threads", subjects.size(), options.getThreads());
+            final int failed = crawler.crawl(subjects);
+            LOGGER.info("Exported {} of {} subjects to {}", subjects.size() - failed, subjects.size(), options.getOutputDirectory());
+            System.exit(failed == 0 ? 0 : 1);
+        } catch (IOException e) {
+            LOGGER.error("Batch search failed", e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package cz.zcu.jsmahy.datamining.batch;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.DataNodeSerializer;
+import cz.zcu.jsmahy.datamining.api.DefaultApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.RequestProgressListener;
+import cz.zcu.jsmahy.datamining.api.ResponseResolver;
+import cz.zcu.jsmahy.datamining.api.SparqlQueryServiceHolder;
+import cz.zcu.jsmahy.datamining.dbpedia.DBPediaModule;
+import cz.zcu.jsmahy.datamining.dbpedia.ResolverPolicy;
+import cz.zcu.jsmahy.datamining.export.FialaBPSerializer;
+import cz.zcu.jsmahy.datamining.resolvers.PresetOntologyPathPredicateResolver;
+import cz.zcu.jsmahy.datamining.resolvers.PresetStartAndEndDateResolver;
+import org.apache.jena.rdf.model.ResourceFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_CHECKPOINT_RESUME;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Module for the headless batch mode. Meant to override the {@link DBPediaModule} with the {@link ResolverPolicy#AUTOMATIC automatic} resolvers -- the path and date predicates passed on the
+ * command line take precedence over the preferred ones from the configuration. Also unbinds the UI from the {@link cz.zcu.jsmahy.datamining.api.DataMiningModule}.</p>
+ * <p>The progress listener is deliberately not a singleton as every concurrently running search needs its own.</p>
+ *
+ * @see BatchMain
+ * @since 1.0
+ */
+public class BatchModule extends AbstractModule {
+    private final BatchOptions options;
+
+    public BatchModule(final BatchOptions options) {
+        this.options = requireNonNull(options);
+    }
+
+    @Override
+    protected void configure() {
+        bind(BatchOptions.class).toInstance(options);
+        bind(RequestProgressListener.class).to(BatchProgressListener.class);
+        // there is no UI the query services could be bound to
+        bind(SparqlQueryServiceHolder.class).toInstance(service -> {
+            throw new UnsupportedOperationException("Query services cannot be bound in the batch mode");
+        });
+    }
+
+    /**
+     * The searches started with {@code --fresh} do not resume from their journals.
+     *
+     * @return the configuration
+     */
+    @Provides
+    ApplicationConfiguration provideConfiguration() {
+        final ApplicationConfiguration config = new DefaultApplicationConfiguration();
+        if (options.isFresh()) {
+            config.addMetadata(CFG_KEY_CHECKPOINT_RESUME, false);
+        }
+        return config;
+    }
+
+    @Provides
+    @Singleton
+    @Named("ontologyPathPredicate")
+    @SuppressWarnings("rawtypes")
+    ResponseResolver provideOntologyPathPredicateResolver() {
+        return new PresetOntologyPathPredicateResolver(ResourceFactory.createProperty(options.getOntologyPathPredicate()));
+    }
+
+    @Provides
+    @Singleton
+    @Named("date")
+    @SuppressWarnings("rawtypes")
+    ResponseResolver provideStartAndEndDateResolver() {
+        final String endDatePredicate = options.getEndDatePredicate();
+        return new PresetStartAndEndDateResolver(ResourceFactory.createProperty(options.getStartDatePredicate()),
+                                                 endDatePredicate == null ? null : ResourceFactory.createProperty(endDatePredicate));
+    }
+
+    /**
+     * The searches run in as many threads as requested on the command line.
+     *
+     * @return the crawl pool
+     */
+    @Provides
+    @Singleton
+    @Named("crawlPool")
+    ExecutorService provideCrawlPool() {
+        return Executors.newFixedThreadPool(options.getThreads(),
+                                            new ThreadFactoryBuilder().setNameFormat("batch-crawler-%d")
+                                                                      .setDaemon(true)
+                                                                      .build());
+    }
+
+    @Provides
+    @Named("batch")
+    DataNodeSerializer provideSerializer(final @Named("builtin") DataNodeSerializer jsonSerializer, final Provider<FialaBPSerializer> fialaBPSerializer) {
+        return switch (options.getFormat()) {
+            case JSON -> jsonSerializer;
+            case FIALA -> fialaBPSerializer.get();
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package cz.zcu.jsmahy.datamining.batch;
+
+import lombok.Data;
+import org.apache.commons.cli.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * The command line options of the batch mode.
+ *
+ * @see BatchMain
+ * @since 1.0
+ */
+@Data
+public final class BatchOptions {
+    public static final int DEFAULT_THREADS = 4;
+    public static final String DEFAULT_OUTPUT_DIRECTORY = "export";
+    static final Options OPTIONS = new Options();
+
+    static {
+        OPTIONS.addOption(Option.builder("i")
+                                .longOpt("input")
+                                .hasArg()
+                                .argName("file")
+                                .required()
+                                .desc("the file with the subjects to search, one per line, lines starting with '#' are ignored")
+                                .build());
+        OPTIONS.addOption(Option.builder("p")
+                                .longOpt("path")
+                                .hasArg()
+                                .argName("uri")
+                                .required()
+                                .desc("the ontology path predicate, e.g. http://dbpedia.org/ontology/successor")
+                                .build());
+        OPTIONS.addOption(Option.builder("s")
+                                .longOpt("start-date")
+                                .hasArg()
+                                .argName("uri")
+                                .required()
+                                .desc("the start date predicate, e.g. http://dbpedia.org/ontology/birthDate")
+                                .build());
+        OPTIONS.addOption(Option.builder("e")
+                                .longOpt("end-date")
+                                .hasArg()
+                                .argName("uri")
+                                .desc("the end date predicate, e.g. http://dbpedia.org/ontology/deathDate")
+                                .build());
+        OPTIONS.addOption(Option.builder("o")
+                                .longOpt("output")
+                                .hasArg()
+                                .argName("directory")
+                                .desc("the directory to export the lines to (default: " + DEFAULT_OUTPUT_DIRECTORY + ")")
+                                .build());
+        OPTIONS.addOption(Option.builder("t")
+                                .longOpt("threads")
+                                .hasArg()
+                                .argName("count")
+                                .desc("the number of subjects searched concurrently (default: " + DEFAULT_THREADS + ")")
+                                .build());
+        OPTIONS.addOption(Option.builder("f")
+                                .longOpt("format")
+                                .hasArg()
+                                .argName("json|fiala")
+                                .desc("the export format (default: json)")
+                                .build());
+        OPTIONS.addOption(Option.builder("d")
+                                .longOpt("dataset")
+                                .hasArg()
+                                .argName("directory")
+                                .desc("the TDB2 dataset with an imported DBPedia dump to search offline instead of the live DBPedia")
+                                .build());
+        OPTIONS.addOption(Option.builder()
+                                .longOpt("fresh")
+                                .desc("search every subject from the start, discarding the journals of the interrupted searches")
+                                .build());
+    }
+
+    private final Path inputFile;
+    private final String ontologyPathPredicate;
+    private final String startDatePredicate;
+    @Nullable
+    private final String endDatePredicate;
+    private final Path outputDirectory;
+    private final int threads;
+    private final Format format;
+    @Nullable
+    private final Path dataset;
+    private final boolean fresh;
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @param args the arguments
+     *
+     * @return the parsed options
+     *
+     * @throws ParseException if the arguments are invalid
+     */
+    public static BatchOptions parse(final String[] args) throws ParseException {
+        final CommandLine cmd = new DefaultParser().parse(OPTIONS, args);
+        final int threads;
+        try {
+            threads = Integer.parseInt(cmd.getOptionValue("threads", String.valueOf(DEFAULT_THREADS)));
+        } catch (NumberFormatException e) {
+            throw new ParseException("Invalid number of threads: " + cmd.getOptionValue("threads"));
+        }
+        if (threads <= 0) {
+            throw new ParseException("The number of threads must be positive");
+        }
+        final Format format;
+        try {
+            format = Format.valueOf(cmd.getOptionValue("format", Format.JSON.name())
+                                       .toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ParseException("Invalid format: " + cmd.getOptionValue("format"));
+        }
+        return new BatchOptions(Paths.get(cmd.getOptionValue("input")),
+                                cmd.getOptionValue("path"),
+                                cmd.getOptionValue("start-date"),
+                                cmd.getOptionValue("end-date"),
+                                Paths.get(cmd.getOptionValue("output", DEFAULT_OUTPUT_DIRECTORY)),
+                                threads,
+                                format,
+                                cmd.hasOption("dataset") ? Paths.get(cmd.getOptionValue("dataset")) : null,
+                                cmd.hasOption("fresh"));
+    }
+
+    /**
+     * Prints the usage to the standard output.
+     */
+    public static void printHelp() {
+        new HelpFormatter().printHelp("batch", OPTIONS, true);
+    }
+
+    /**
+     * The export format of the lines.
+     */
+    public enum Format {
+        /**
+         * The builtin JSON format.
+         */
+        JSON,
+        /**
+         * The FialaBP format.
+         */
+        FIALA
+    }
+}
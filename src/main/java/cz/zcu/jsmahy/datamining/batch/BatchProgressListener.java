@@ -0,0 +1,111 @@
+package cz.zcu.jsmahy.datamining.batch;
+
+import cz.zcu.jsmahy.datamining.api.DataNode;
+import cz.zcu.jsmahy.datamining.api.InitialSearchResult;
+import cz.zcu.jsmahy.datamining.api.QueryData;
+import cz.zcu.jsmahy.datamining.api.RequestProgressListener;
+import cz.zcu.jsmahy.datamining.export.FialaBPRequestProgressListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.control.TreeItem;
+import javafx.scene.web.WebView;
+import lombok.Getter;
+import org.apache.jena.rdf.model.Property;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+
+import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_NAME;
+
+/**
+ * <p>A headless {@link RequestProgressListener}. It only builds the relationships between the data nodes and logs the progress, the data nodes are exported once the search is done.</p>
+ * <p>A new instance is created for every search so that the searches can run concurrently.</p>
+ *
+ * @see BatchModule
+ * @since 1.0
+ */
+public class BatchProgressListener implements RequestProgressListener {
+    private static final Logger LOGGER = LogManager.getLogger(BatchProgressListener.class);
+    private final ObjectProperty<Property> ontologyPathPredicate = new SimpleObjectProperty<>();
+    private final ObjectProperty<Property> startDate = new SimpleObjectProperty<>();
+    private final ObjectProperty<Property> endDate = new SimpleObjectProperty<>();
+    private final ObjectProperty<TreeItem<DataNode>> treeRoot = new SimpleObjectProperty<>();
+    private final ObjectProperty<QueryData> queryData = new SimpleObjectProperty<>();
+    /**
+     * The result of the search if the query was invalid, {@code null} otherwise.
+     */
+    @Getter
+    private InitialSearchResult invalidQueryResult = null;
+
+    @Override
+    public ObjectProperty<Property> ontologyPathPredicateProperty() {
+        return ontologyPathPredicate;
+    }
+
+    @Override
+    public ObjectProperty<Property> startDateProperty() {
+        return startDate;
+    }
+
+    @Override
+    public ObjectProperty<Property> endDateProperty() {
+        return endDate;
+    }
+
+    @Override
+    public ObjectProperty<TreeItem<DataNode>> treeRootProperty() {
+        return treeRoot;
+    }
+
+    @Override
+    public ObjectProperty<QueryData> queryDataProperty() {
+        return queryData;
+    }
+
+    @Override
+    public void onAddRelationship(final DataNode prev, final DataNode curr) {
+        FialaBPRequestProgressListener.addRelationship(prev,
+                                                       curr,
+                                                       queryData.get()
+                                                                .getOntologyPathPredicate());
+    }
+
+    @Override
+    public void onAddNewDataNodes(final List<DataNode> dataNodes) {
+        LOGGER.trace("Found {}", dataNodes);
+    }
+
+    @Override
+    public void onDeleteDataNodes(final Collection<DataNode> deletedNodes) {
+        // nothing is deleted in the batch mode
+    }
+
+    @Override
+    public void onAddMultipleDataNodes(final DataNode dataNodesParent, final List<DataNode> dataNodes) {
+        LOGGER.trace("Found multiple data nodes {} under {}", dataNodes, dataNodesParent);
+    }
+
+    @Override
+    public void onInvalidQuery(final String query, final InitialSearchResult result) {
+        LOGGER.warn("Invalid query {}: {}", query, result);
+        this.invalidQueryResult = result;
+    }
+
+    @Override
+    public void onSearchDone(final DataNode dataNodeRoot) {
+        LOGGER.info("Done searching {}", dataNodeRoot.getValue(METADATA_KEY_NAME, "<no name>"));
+    }
+
+    @Override
+    public void onCreateNewRoot(final DataNode newDataNodeRoot) {
+        // the roots are created by the batch crawler
+    }
+
+    @Override
+    public void onDisplayRequest(final DataNode dataNodeRoot, final WebView webView, final File topLevelFrontendDirectory) {
+        throw new UnsupportedOperationException("Nothing can be displayed in the batch mode");
+    }
+}
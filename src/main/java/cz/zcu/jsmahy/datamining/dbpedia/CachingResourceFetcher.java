@@ -0,0 +1,196 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>A {@link ResourceFetcher} that keeps a persistent, content-addressed copy of every dereferenced resource on the disk.</p>
+ * <p>Each resource is stored as an N-Triples file named by the SHA-256 hash of its URI. An entry is served from the disk until it's older than the configured TTL, after which it's fetched again
+ * via the delegate. If the delegate fails, a stale entry is served rather than failing the whole search. Once the size of the cache exceeds the configured maximum the least recently used entries
+ * are evicted.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_RESOURCE_CACHE_DIRECTORY
+ * @since 1.0
+ */
+public class CachingResourceFetcher implements ResourceFetcher {
+    private static final Logger LOGGER = LogManager.getLogger(CachingResourceFetcher.class);
+    private static final String ENTRY_SUFFIX = ".nt";
+    private static final String DEFAULT_DIRECTORY = "cache/resources";
+    private static final int DEFAULT_TTL_HOURS = 168;
+    private static final int DEFAULT_MAX_SIZE_MB = 512;
+
+    private final ResourceFetcher delegate;
+    private final boolean enabled;
+    private final Path directory;
+    private final long ttlMillis;
+    private final long maxSizeBytes;
+    /**
+     * The cache entries (hash to file size) in the access order -- the eldest entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalSize = 0;
+
+    @Inject
+    public CachingResourceFetcher(final ApplicationConfiguration config, final @Named("remote") ResourceFetcher delegate) {
+        this.delegate = requireNonNull(delegate);
+        this.enabled = config.getValue(CFG_KEY_RESOURCE_CACHE_ENABLED, true);
+        this.directory = Paths.get(config.getValue(CFG_KEY_RESOURCE_CACHE_DIRECTORY, DEFAULT_DIRECTORY));
+        this.ttlMillis = TimeUnit.HOURS.toMillis(config.<Number>getValue(CFG_KEY_RESOURCE_CACHE_TTL_HOURS, DEFAULT_TTL_HOURS)
+                                                       .longValue());
+        this.maxSizeBytes = config.<Number>getValue(CFG_KEY_RESOURCE_CACHE_MAX_SIZE_MB, DEFAULT_MAX_SIZE_MB)
+                                  .longValue() * 1024L * 1024L;
+        if (enabled) {
+            loadIndex();
+        }
+    }
+
+    static String hash(final String uri) {
+        return Hashing.sha256()
+                      .hashString(uri, StandardCharsets.UTF_8)
+                      .toString();
+    }
+
+    private Path entryPath(final String hash) {
+        // fan out the entries to subdirectories so that we don't end up with a directory with hundreds of thousands of files
+        return directory.resolve(hash.substring(0, 2))
+                        .resolve(hash.concat(ENTRY_SUFFIX));
+    }
+
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        // the access order is not persisted, the modification time is the closest approximation we have
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            final List<Path> cached = files.filter(path -> path.getFileName()
+                                                               .toString()
+                                                               .endsWith(ENTRY_SUFFIX))
+                                           .sorted(Comparator.comparingLong(path -> path.toFile()
+                                                                                        .lastModified()))
+                                           .toList();
+            synchronized (entries) {
+                for (final Path path : cached) {
+                    final String fileName = path.getFileName()
+                                                .toString();
+                    final long size = path.toFile()
+                                          .length();
+                    entries.put(fileName.substring(0, fileName.length() - ENTRY_SUFFIX.length()), size);
+                    totalSize += size;
+                }
+            }
+            LOGGER.info("Loaded {} cached resources ({} bytes) from {}", cached.size(), totalSize, directory);
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.error("Failed to load the resource cache index from {}", directory, e);
+        }
+    }
+
+    @Override
+    public void read(final Model model, final String uri) throws HttpException {
+        if (!enabled) {
+            delegate.read(model, uri);
+            return;
+        }
+
+        final String hash = hash(uri);
+        final Path path = entryPath(hash);
+        final boolean cached;
+        synchronized (entries) {
+            // this also marks the entry as recently used
+            cached = entries.get(hash) != null;
+        }
+        final boolean expired = cached && System.currentTimeMillis() - path.toFile()
+                                                                           .lastModified() > ttlMillis;
+        if (cached && !expired && readEntry(model, uri, path)) {
+            LOGGER.trace("Served {} from the cache", uri);
+            return;
+        }
+
+        final Model fetched = ModelFactory.createDefaultModel();
+        try {
+            delegate.read(fetched, uri);
+        } catch (HttpException e) {
+            if (cached && readEntry(model, uri, path)) {
+                LOGGER.warn("Failed to fetch {}, serving a stale copy from the cache. Reason: {}", uri, e.getMessage());
+                return;
+            }
+            throw e;
+        }
+        writeEntry(fetched, uri, hash, path);
+        model.add(fetched);
+    }
+
+    private boolean readEntry(final Model model, final String uri, final Path path) {
+        try {
+            RDFDataMgr.read(model, path.toString(), Lang.NTRIPLES);
+            return true;
+        } catch (RiotException | UncheckedIOException e) {
+            LOGGER.warn("Cache entry {} of {} is corrupted, fetching it again", path, uri, e);
+            return false;
+        }
+    }
+
+    private void writeEntry(final Model fetched, final String uri, final String hash, final Path path) {
+        try {
+            Files.createDirectories(path.getParent());
+            // write to a temporary file first so that other threads never read a half-written entry
+            final Path tmp = Files.createTempFile(path.getParent(), hash, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                RDFDataMgr.write(out, fetched, Lang.NTRIPLES);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            final long size = Files.size(path);
+            synchronized (entries) {
+                final Long previousSize = entries.put(hash, size);
+                totalSize += size - (previousSize == null ? 0 : previousSize);
+                evictIfNeeded();
+            }
+        } catch (IOException e) {
+            // the cache is just an optimization, don't fail the search because of it
+            LOGGER.error("Failed to cache {} to {}", uri, path, e);
+        }
+    }
+
+    private void evictIfNeeded() {
+        assert Thread.holdsLock(entries);
+        final Iterator<Map.Entry<String, Long>> it = entries.entrySet()
+                                                            .iterator();
+        while (totalSize > maxSizeBytes && it.hasNext()) {
+            final Map.Entry<String, Long> eldest = it.next();
+            try {
+                Files.deleteIfExists(entryPath(eldest.getKey()));
+            } catch (IOException e) {
+                LOGGER.error("Failed to evict cache entry {}", eldest.getKey(), e);
+                continue;
+            }
+            totalSize -= eldest.getValue();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_CHECKPOINT_DIRECTORY;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_CHECKPOINT_ENABLED;
+
+/**
+ * <p>Keeps the {@link CrawlJournal}s of the searches in a directory, one per query and data source.</p>
+ * <p>The journals of the searches of the live DBPedia and of a local dataset are kept apart as the two might not describe a subject the same. Two searches of the same query are kept apart by the
+ * lock of the journal, see {@link CrawlJournal#tryLock()}.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_CHECKPOINT_DIRECTORY
+ * @since 1.0
+ */
+public class CheckpointStore {
+    private static final String DEFAULT_DIRECTORY = "cache/checkpoints";
+    private static final String JOURNAL_SUFFIX = ".jsonl";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final String source;
+
+    /**
+     * Creates the store of the searches of the live DBPedia.
+     */
+    @Inject
+    public CheckpointStore(final ApplicationConfiguration config) {
+        this(config, null);
+    }
+
+    /**
+     * @param config the configuration
+     * @param source the data source the searches read, {@code null} for the live DBPedia
+     */
+    public CheckpointStore(final ApplicationConfiguration config, final @Nullable String source) {
+        this(config.getValue(CFG_KEY_CHECKPOINT_ENABLED, true), Paths.get(config.getValue(CFG_KEY_CHECKPOINT_DIRECTORY, DEFAULT_DIRECTORY)), source);
+    }
+
+    /**
+     * @param enabled   whether the searches should be journaled at all
+     * @param directory the directory of the journals
+     * @param source    the data source the searches read, {@code null} for the live DBPedia
+     */
+    public CheckpointStore(final boolean enabled, final Path directory, final @Nullable String source) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.source = source;
+    }
+
+    /**
+     * @param query the query of the search
+     *
+     * @return the journal of the search, empty if checkpointing is disabled
+     */
+    public Optional<CrawlJournal> journal(final String query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        final String key = source == null ? query : source + '\n' + query;
+        return Optional.of(new CrawlJournal(directory.resolve(CachingResourceFetcher.hash(key) + JOURNAL_SUFFIX)));
+    }
+}
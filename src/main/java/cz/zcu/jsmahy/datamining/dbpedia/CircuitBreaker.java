@@ -0,0 +1,91 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import java.util.function.LongSupplier;
+
+/**
+ * <p>A circuit breaker of a single host. After too many consecutive failures the circuit opens and the requests fail right away without reaching the host. Once the cool down passes, a single
+ * trial request is let through -- the circuit closes if it succeeds and opens again if it fails.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt;
+
+    /**
+     * @param failureThreshold the number of consecutive failures that open the circuit
+     * @param openMillis       how long the circuit stays open before a trial request is let through
+     */
+    public CircuitBreaker(final int failureThreshold, final long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param failureThreshold the number of consecutive failures that open the circuit
+     * @param openMillis       how long the circuit stays open before a trial request is let through
+     * @param clock            the clock in milliseconds
+     *
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public CircuitBreaker(final int failureThreshold, final long openMillis, final LongSupplier clock) throws IllegalArgumentException {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("The failure threshold must be positive.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return {@code true} if a request may be sent, {@code false} if it should fail right away
+     */
+    public synchronized boolean allowRequest() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (clock.getAsLong() - openedAt < openMillis) {
+                    yield false;
+                }
+                // let the trial request through
+                state = State.HALF_OPEN;
+                yield true;
+            }
+            // a trial request is already in progress
+            case HALF_OPEN -> false;
+        };
+    }
+
+    /**
+     * The host responded.
+     */
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * The host failed to respond.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,254 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>The append-only journal of a single search, one JSON record per line.</p>
+ * <p>The journal starts with a {@link RecordType#START} record holding the predicates chosen by the resolvers, followed by a {@link RecordType#VISIT} record for every visited subject. A visit
+ * record holds everything needed to rebuild the data nodes of the visit without reading the subject again, and the subjects the visit added to the frontier. The journal is deleted once the
+ * search is done, a journal left behind means the search was interrupted and can be resumed.</p>
+ * <p>Each record is flushed once written. A record cut short by a crash is ignored when the journal is read.</p>
+ * <p>A search locks the journal before it's used so that two searches of the same query (be it in this or another process) do not write to the same journal.</p>
+ *
+ * @see CheckpointStore
+ * @since 1.0
+ */
+public class CrawlJournal implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(CrawlJournal.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private BufferedWriter writer;
+    /**
+     * The channel holding the lock of the journal, {@code null} if the journal is not locked.
+     */
+    private FileChannel lockChannel;
+
+    /**
+     * @param file the file of the journal, does not need to exist
+     */
+    public CrawlJournal(final Path file) {
+        this.file = requireNonNull(file);
+    }
+
+    /**
+     * Reads the records of the journal. A record cut short is dropped from the journal so that the records appended later are readable.
+     *
+     * @return the records of the journal, empty if the journal does not exist
+     *
+     * @throws IOException if the journal could not be read
+     */
+    public synchronized List<Record> read() throws IOException {
+        final List<Record> records = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return records;
+        }
+        final List<String> lines = new ArrayList<>();
+        boolean corrupt = false;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    records.add(OBJECT_MAPPER.readValue(line, Record.class));
+                    lines.add(line);
+                } catch (JsonProcessingException e) {
+                    // the last record was being written when the search was interrupted
+                    LOGGER.warn("Ignoring a corrupt record in {}: {}", file, e.getOriginalMessage());
+                    corrupt = true;
+                    break;
+                }
+            }
+        }
+        if (corrupt) {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        }
+        return records;
+    }
+
+    /**
+     * Locks the journal until it's closed.
+     *
+     * @return {@code true} if the journal was locked, {@code false} if the journal is locked by another search
+     *
+     * @throws IOException if the journal could not be locked
+     */
+    public synchronized boolean tryLock() throws IOException {
+        if (lockChannel != null) {
+            return true;
+        }
+        createDirectories();
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            // a byte past the end of the journal -- a lock of the records themselves would keep them from being read and written on some platforms
+            if (channel.tryLock(Long.MAX_VALUE - 1, 1, false) != null) {
+                lockChannel = channel;
+                return true;
+            }
+        } catch (OverlappingFileLockException e) {
+            // locked by another search of this process
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.close();
+        return false;
+    }
+
+    /**
+     * Removes the records of the journal, the lock is kept.
+     *
+     * @throws IOException if the journal could not be cleared
+     */
+    public synchronized void clear() throws IOException {
+        closeWriter();
+        if (Files.isRegularFile(file)) {
+            Files.write(file, new byte[0]);
+        }
+    }
+
+    /**
+     * Appends the record to the journal.
+     *
+     * @param record the record
+     *
+     * @throws IOException if the record could not be written
+     */
+    public synchronized void append(final Record record) throws IOException {
+        if (writer == null) {
+            createDirectories();
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(OBJECT_MAPPER.writeValueAsString(record));
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Closes and deletes the journal.
+     *
+     * @throws IOException if the journal could not be deleted
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Closes the journal and releases its lock.
+     *
+     * @throws IOException if the journal could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            closeWriter();
+        } finally {
+            if (lockChannel != null) {
+                lockChannel.close();
+                lockChannel = null;
+            }
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void createDirectories() throws IOException {
+        final Path parent = file.toAbsolutePath()
+                                .getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    public enum RecordType {
+        /**
+         * The search started, the predicates were chosen.
+         */
+        START,
+        /**
+         * A subject was visited.
+         */
+        VISIT
+    }
+
+    /**
+     * A record of the journal. Only the fields of the record type are set.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Record {
+        private RecordType type;
+        /**
+         * The URI of the initial subject ({@link RecordType#START}) or the visited subject ({@link RecordType#VISIT}).
+         */
+        private String subject;
+        private String pathPredicate;
+        private String startDatePredicate;
+        private String endDatePredicate;
+        /**
+         * The index of the visit the visited subject was found from, {@code null} for the initial subject.
+         */
+        private Integer previous;
+        /**
+         * The statements the data nodes of the visit are built from, in N-Triples.
+         */
+        private String statements;
+        /**
+         * The children the user chose the next subject from, as N-Triples terms.
+         */
+        private List<String> children;
+        /**
+         * The subjects the visit added to the frontier.
+         */
+        private List<Next> next;
+
+        public static Record start(final String subject, final String pathPredicate, final String startDatePredicate, final String endDatePredicate) {
+            return new Record(RecordType.START, subject, pathPredicate, startDatePredicate, endDatePredicate, null, null, null, null);
+        }
+
+        public static Record visit(final String subject, final Integer previous, final String statements, final List<String> children, final List<Next> next) {
+            return new Record(RecordType.VISIT, subject, null, null, null, previous, statements, children, next);
+        }
+    }
+
+    /**
+     * A subject added to the frontier. The properties of the older journals that are not used anymore are ignored.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Next {
+        private String subject;
+    }
+}
@@ -6,22 +6,40 @@ import cz.zcu.jsmahy.datamining.api.*;
 import cz.zcu.jsmahy.datamining.resolvers.OntologyPathPredicateResolver;
 import org.apache.jena.atlas.web.HttpException;
 import org.apache.jena.datatypes.RDFDatatype;
-import org.apache.jena.datatypes.xsd.XSDDateTime;
-import org.apache.jena.datatypes.xsd.XSDDuration;
-import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+import org.apache.jena.vocabulary.RDFS;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_CHECKPOINT_RESUME;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_FETCH_MODE;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_MODEL_WINDOW_HOPS;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_URI_DICTIONARY_OFF_HEAP;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_VISITED_SET;
 import static cz.zcu.jsmahy.datamining.api.DataNode.*;
 import static cz.zcu.jsmahy.datamining.resolvers.MultipleItemChoiceResolver.RESULT_KEY_CHOSEN_RDF_NODE;
 import static cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver.RESULT_KEY_END_DATE_PREDICATE;
 import static cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver.RESULT_KEY_START_DATE_PREDICATE;
 import static cz.zcu.jsmahy.datamining.util.Alerts.alertConnectionProblems;
 import static cz.zcu.jsmahy.datamining.util.RDFNodeUtil.setDataNodeNameFromRDFNode;
+import static cz.zcu.jsmahy.datamining.util.RDFNodeUtil.toCalendar;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -32,6 +50,7 @@ import static java.util.Objects.requireNonNull;
  */
 public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
     public static final int MAX_REDIRECTS = 20;
+    private static final int DEFAULT_MODEL_WINDOW_HOPS = 3;
     private static final Logger LOGGER = LogManager.getLogger(DBPediaEndpointTask.class);
     /**
      * <p>This comparator ensures the URI resources are placed first over literal resources.</p>
@@ -42,12 +61,38 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
                                                                                                 y.getObject()
                                                                                                  .isURIResource());
     private static final Property PROPERTY_DBO_ABSTRACT = ResourceFactory.createProperty("https://dbpedia.org/ontology/abstract");
-    private static final Property PROPERTY_REDIRECT = ResourceFactory.createProperty("http://dbpedia.org/ontology/wikiPageRedirects");
     private final DataNodeFactory dataNodeFactory;
     private final ResponseResolver<Collection<Statement>> ambiguousResultResolver;
     private final ResponseResolver<Collection<Statement>> ontologyPathPredicateResolver;
     private final ResponseResolver<Collection<Statement>> startAndEndDateResolver;
-    private final Collection<String> usedURIs = new HashSet<>();
+    private final ResourceFetcher resourceFetcher;
+    private final ExecutorService fetchPool;
+    private final ExecutorService crawlPool;
+    private final ProjectingResourceFetcher projectingResourceFetcher;
+    private final RedirectResolver redirectResolver;
+    private final PathExpander pathExpander;
+    private final CheckpointStore checkpointStore;
+    private final boolean resume;
+    private final FetchMode fetchMode;
+    private final int modelWindowHops;
+    private final VisitedSet usedURIs;
+    private HopWindow hopWindow;
+    /**
+     * The whole line read by the {@link PathExpander}, {@code null} if the line is read hop by hop.
+     */
+    private Model expandedLine;
+    /**
+     * The journal of the search, {@code null} if the search is not checkpointed.
+     */
+    private CrawlJournal journal;
+    /**
+     * The indices of the visits journaled so far by their data nodes.
+     */
+    private final Map<DataNode, Integer> visitIndices = new IdentityHashMap<>();
+    /**
+     * Set once the search is cancelled, the search then stops before visiting the next subject.
+     */
+    private volatile boolean cancelled;
 
     @Inject
     @SuppressWarnings("unchecked, rawtypes")
@@ -58,12 +103,32 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
                                final DataNodeFactory dataNodeFactory,
                                final @Named("userAssisted") ResponseResolver ambiguousResultResolver,
                                final @Named("ontologyPathPredicate") ResponseResolver ontologyPathPredicateResolver,
-                               final @Named("date") ResponseResolver startAndEndDateResolver) {
+                               final @Named("date") ResponseResolver startAndEndDateResolver,
+                               final ResourceFetcher resourceFetcher,
+                               final @Named("fetchPool") ExecutorService fetchPool,
+                               final @Named("crawlPool") ExecutorService crawlPool,
+                               final ProjectingResourceFetcher projectingResourceFetcher,
+                               final RedirectResolver redirectResolver,
+                               final PathExpander pathExpander,
+                               final CheckpointStore checkpointStore) {
         super(query, dataNodeRoot, config, progressListener);
         this.dataNodeFactory = requireNonNull(dataNodeFactory);
         this.ambiguousResultResolver = requireNonNull(ambiguousResultResolver);
         this.ontologyPathPredicateResolver = requireNonNull(ontologyPathPredicateResolver);
         this.startAndEndDateResolver = requireNonNull(startAndEndDateResolver);
+        this.resourceFetcher = requireNonNull(resourceFetcher);
+        this.fetchPool = requireNonNull(fetchPool);
+        this.crawlPool = requireNonNull(crawlPool);
+        this.projectingResourceFetcher = requireNonNull(projectingResourceFetcher);
+        this.redirectResolver = requireNonNull(redirectResolver);
+        this.pathExpander = requireNonNull(pathExpander);
+        this.checkpointStore = requireNonNull(checkpointStore);
+        this.resume = config.getValue(CFG_KEY_CHECKPOINT_RESUME, true);
+        this.fetchMode = FetchMode.fromName(config.getValue(CFG_KEY_FETCH_MODE, FetchMode.DEREFERENCE.name()));
+        this.usedURIs = VisitedSetType.fromName(config.getValue(CFG_KEY_VISITED_SET, VisitedSetType.FINGERPRINT.name()))
+                                      .create(config.getValue(CFG_KEY_URI_DICTIONARY_OFF_HEAP, false));
+        this.modelWindowHops = config.<Number>getValue(CFG_KEY_MODEL_WINDOW_HOPS, DEFAULT_MODEL_WINDOW_HOPS)
+                                     .intValue();
     }
 
     private void addDatesToNode(final Model model, final DataNode curr, final Property dateProperty, final Resource subject, final boolean isStartDate) {
@@ -82,23 +147,9 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
                 LOGGER.error("The {} date property is a URI. This should be a literal! S: {}, P: {}, O: {}", isStartDate ? "start" : "end", subject, dateProperty, object);
                 return;
             }
-            final Object value = object.asLiteral()
-                                       .getValue();
-            final Calendar calendar;
-            if (value instanceof XSDDateTime dateTime) {
-                calendar = dateTime.asCalendar();
-            } else if (value instanceof XSDDuration duration) {
-                final long millis = duration.getFullSeconds() * 1000L;
-                calendar = new GregorianCalendar();
-                calendar.setTimeInMillis(millis);
-            } else if (value instanceof Integer integer) {
-                final long millis = integer * 1000L;
-                calendar = new GregorianCalendar();
-                calendar.setTimeInMillis(millis);
-            } else {
-                throw new ClassCastException("Inner date type is of unknown value: " + value);
-            }
-            LOGGER.trace("Setting {} date (inner type: {}, actual date: {}) to {}", isStartDate ? "start" : "end", value, calendar, curr.getValue(METADATA_KEY_NAME, "<no name>"));
+            final Literal literal = object.asLiteral();
+            final Calendar calendar = toCalendar(literal);
+            LOGGER.trace("Setting {} date (inner type: {}, actual date: {}) to {}", isStartDate ? "start" : "end", literal.getValue(), calendar, curr.getValue(METADATA_KEY_NAME, "<no name>"));
             if (isStartDate) {
                 curr.addMetadata(METADATA_KEY_START_DATE, calendar);
             } else {
@@ -113,65 +164,363 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
         }
     }
 
+    /**
+     * <p>Runs the {@link #crawl()} and waits for it to finish. Meant for the UI where the task runs in a service thread of its own.</p>
+     * <p>If the waiting thread is interrupted (the service is cancelled), the search running in the crawl pool is cancelled as well.</p>
+     *
+     * @return {@code null}
+     *
+     * @throws Exception the exception the search failed with
+     */
     @Override
-    public synchronized R call() {
+    public R call() throws Exception {
+        final CompletableFuture<Void> crawl = crawl();
+        try {
+            crawl.get();
+        } catch (InterruptedException e) {
+            cancelled = true;
+            crawl.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return null;
+    }
+
+    /**
+     * <p>Searches the line of the query in the crawl pool.</p>
+     * <p>The search is split into steps continued once the resolvers respond. No thread is held while waiting for the response (e.g. for the user to pick a node in a dialog), thus many searches
+     * can share a small pool.</p>
+     * <p>If the previous search of the query was interrupted, the search resumes from its {@link CrawlJournal} instead, unless resuming is disabled. The journal of a cancelled search is
+     * discarded.</p>
+     *
+     * @return the future completed once the search is done, or completed exceptionally if the search failed
+     */
+    @Override
+    public CompletableFuture<Void> crawl() {
+        cancelled = false;
+        return CompletableFuture.supplyAsync(this::openJournal, crawlPool)
+                                .thenCompose(records -> records.isEmpty() ? search() : resume(records))
+                                .whenComplete((ignored, e) -> closeJournal(e == null || cancelled));
+    }
+
+    /**
+     * Searches the line of the query from the start.
+     *
+     * @return the future completed once the search is done
+     */
+    private CompletableFuture<Void> search() {
+        return CompletableFuture.supplyAsync(this::readInitialSubject, crawlPool)
+                                .thenCompose(inputMetadata -> initialSearch(inputMetadata).thenComposeAsync(result -> {
+                                    if (result != InitialSearchResult.OK) {
+                                        LOGGER.info("Search result of '{}' was not {}. Initial search result: {}", query, InitialSearchResult.OK, result);
+                                        progressListener.onInvalidQuery(originalQuery, result);
+                                        return CompletableFuture.completedFuture(null);
+                                    }
+
+                                    progressListener.queryDataProperty()
+                                                    .set(inputMetadata);
+                                    checkpoint(CrawlJournal.Record.start(inputMetadata.getInitialSubject()
+                                                                                      .getURI(),
+                                                                         inputMetadata.getOntologyPathPredicate()
+                                                                                      .getURI(),
+                                                                         inputMetadata.getStartDateProperty()
+                                                                                      .getURI(),
+                                                                         inputMetadata.getEndDateProperty() == null ?
+                                                                         null :
+                                                                         inputMetadata.getEndDateProperty()
+                                                                                      .getURI()));
+                                    expandLine(inputMetadata);
+                                    LOGGER.info("Start searching");
+                                    final Frontier frontier = new Frontier();
+                                    final Resource initialSubject = inputMetadata.getInitialSubject();
+                                    usedURIs.add(initialSubject.getURI());
+                                    frontier.add(initialSubject, null);
+                                    return traverse(inputMetadata, frontier);
+                                }, crawlPool));
+    }
+
+    /**
+     * Resets the state of the task and reads the journal of the previous search of the query.
+     *
+     * @return the records of the journal if the previous search was interrupted and resuming is enabled, otherwise empty
+     */
+    private List<CrawlJournal.Record> openJournal() {
         this.usedURIs.clear();
-        final Model model = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
+        this.visitIndices.clear();
+        this.hopWindow = new HopWindow(modelWindowHops);
+        this.expandedLine = null;
+        this.journal = checkpointStore.journal(query)
+                                      .orElse(null);
+        if (journal == null) {
+            return List.of();
+        }
+        try {
+            if (!journal.tryLock()) {
+                LOGGER.warn("The journal of '{}' is used by another search, the search will not be checkpointed", query);
+                journal = null;
+                return List.of();
+            }
+            if (!resume) {
+                journal.clear();
+                return List.of();
+            }
+            final List<CrawlJournal.Record> records = journal.read();
+            if (!records.isEmpty() && records.get(0)
+                                             .getType() == CrawlJournal.RecordType.START) {
+                return records;
+            }
+            // the previous search did not get past the initial search, there is nothing to resume
+            journal.clear();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to open the journal of '{}', the search will not be checkpointed: {}", query, e.getMessage());
+            closeJournal(false);
+        }
+        return List.of();
+    }
+
+    /**
+     * Closes the journal. The journal of a search that is done or cancelled is deleted, the journal of a failed search is kept so that the search can be resumed.
+     *
+     * @param done whether the search is done or cancelled
+     */
+    private void closeJournal(final boolean done) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (done) {
+                journal.delete();
+            } else {
+                journal.close();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to close the journal of '{}': {}", query, e.getMessage());
+        }
+        journal = null;
+    }
+
+    /**
+     * Appends the record to the journal. If the record fails to be written, the journal is dropped and the search continues without checkpoints.
+     *
+     * @param record the record
+     */
+    private void checkpoint(final CrawlJournal.Record record) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write the journal of '{}', the search will not be checkpointed: {}", query, e.getMessage());
+            try {
+                journal.delete();
+            } catch (IOException ex) {
+                LOGGER.warn("Failed to delete the journal of '{}': {}", query, ex.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    /**
+     * Journals a visit.
+     *
+     * @param inputMetadata the query data
+     * @param entry         the visited subject
+     * @param curr          the data node of the visited subject
+     * @param children      the children the next subject was chosen from, empty if there was no choice
+     * @param next          the subject the visit added to the frontier, {@code null} if none
+     */
+    private void checkpointVisit(final QueryData inputMetadata,
+                                 final Frontier.Entry entry,
+                                 final DataNode curr,
+                                 final Collection<RDFNode> children,
+                                 final @Nullable Frontier.Entry next) {
+        if (journal == null) {
+            return;
+        }
+        // the statements the data nodes are initialized from
+        final Model model = inputMetadata.getCurrentModel();
+        final Resource subject = entry.getSubject();
+        final Model snapshot = ModelFactory.createDefaultModel();
+        addLabels(snapshot, model, subject);
+        for (final Property predicate : Arrays.asList(PROPERTY_DBO_ABSTRACT, inputMetadata.getStartDateProperty(), inputMetadata.getEndDateProperty())) {
+            if (predicate != null) {
+                snapshot.add(model.listStatements(subject, predicate, (RDFNode) null));
+            }
+        }
+        final List<String> childTerms = new ArrayList<>();
+        for (final RDFNode child : children) {
+            if (child.isURIResource()) {
+                addLabels(snapshot, model, child.asResource());
+            }
+            childTerms.add(NodeFmtLib.strNT(child.asNode()));
+        }
+        final StringWriter statements = new StringWriter();
+        RDFDataMgr.write(statements, snapshot, Lang.NTRIPLES);
+
+        final Integer previous = entry.getPrevious() == null ? null : visitIndices.get(entry.getPrevious());
+        visitIndices.put(curr, visitIndices.size());
+        checkpoint(CrawlJournal.Record.visit(subject.getURI(),
+                                             previous,
+                                             statements.toString(),
+                                             childTerms.isEmpty() ? null : childTerms,
+                                             next == null ?
+                                             null :
+                                             List.of(new CrawlJournal.Next(next.getSubject()
+                                                                               .getURI()))));
+    }
+
+    private static void addLabels(final Model snapshot, final Model model, final Resource subject) {
+        final StmtIterator labels = model.listStatements(new SimpleSelector(subject, RDFS.label, null, "en"));
+        snapshot.add(labels);
+    }
+
+    /**
+     * <p>Resumes the search of the query from its journal.</p>
+     * <p>The journaled visits are replayed to the tree without reading the visited subjects again, the subjects they added to the frontier that were not visited yet are visited as usual.</p>
+     *
+     * @param records the records of the journal
+     *
+     * @return the future completed once the search is done
+     */
+    private CompletableFuture<Void> resume(final List<CrawlJournal.Record> records) {
+        final CrawlJournal.Record start = records.get(0);
+        final Model model = hopWindow.getModel();
+        final QueryData inputMetadata = new QueryData();
+        inputMetadata.setCurrentModel(model);
+        inputMetadata.setInitialSubject(model.createResource(start.getSubject()));
+        inputMetadata.setRestrictions(new ArrayList<>());
+        inputMetadata.setOntologyPathPredicate(model.createProperty(start.getPathPredicate()));
+        inputMetadata.setStartDateProperty(model.createProperty(start.getStartDatePredicate()));
+        inputMetadata.setEndDateProperty(start.getEndDatePredicate() == null ? null : model.createProperty(start.getEndDatePredicate()));
+        progressListener.ontologyPathPredicateProperty()
+                        .set(inputMetadata.getOntologyPathPredicate());
+        progressListener.startDateProperty()
+                        .set(inputMetadata.getStartDateProperty());
+        progressListener.endDateProperty()
+                        .set(inputMetadata.getEndDateProperty());
+        progressListener.queryDataProperty()
+                        .set(inputMetadata);
+
+        final Frontier frontier = replay(inputMetadata, records.subList(1, records.size()));
+        LOGGER.info("Resuming the search of '{}' after {} visits, {} subjects left in the frontier", query, visitIndices.size(), frontier.size());
+        expandLine(inputMetadata);
+        return traverse(inputMetadata, frontier);
+    }
+
+    /**
+     * Replays the journaled visits to the tree.
+     *
+     * @param inputMetadata the query data
+     * @param visits        the visit records
+     *
+     * @return the frontier as it was after the last journaled visit
+     */
+    private Frontier replay(final QueryData inputMetadata, final List<CrawlJournal.Record> visits) {
+        final Model model = inputMetadata.getCurrentModel();
+        final List<DataNode> dataNodes = new ArrayList<>();
+        // the subjects added to the frontier and not visited yet, in the order they were added
+        final Map<String, Frontier.Entry> pending = new LinkedHashMap<>();
+        final Resource initialSubject = inputMetadata.getInitialSubject();
+        usedURIs.add(initialSubject.getURI());
+        pending.put(initialSubject.getURI(), new Frontier.Entry(initialSubject, null));
+        for (final CrawlJournal.Record visit : visits) {
+            // a hop per visit so that the replayed statements are evicted just like the fetched ones
+            hopWindow.nextHop();
+            RDFDataMgr.read(model, new StringReader(visit.getStatements()), null, Lang.NTRIPLES);
+            final Resource subject = model.createResource(visit.getSubject());
+            final DataNode prev = visit.getPrevious() == null ? null : dataNodes.get(visit.getPrevious());
+            final DataNode curr = dataNodeFactory.newNode(dataNodeRoot);
+            initializeDataNode(curr, subject, inputMetadata);
+            progressListener.onAddRelationship(prev, curr);
+            progressListener.onAddNewDataNodes(List.of(curr));
+            if (visit.getChildren() != null) {
+                addChildren(curr,
+                            visit.getChildren()
+                                 .stream()
+                                 .map(term -> model.asRDFNode(NodeFactoryExtra.parseNode(term)))
+                                 .toList());
+            }
+
+            usedURIs.add(subject.getURI());
+            pending.remove(subject.getURI());
+            if (visit.getNext() != null) {
+                for (final CrawlJournal.Next next : visit.getNext()) {
+                    usedURIs.add(next.getSubject());
+                    pending.put(next.getSubject(), new Frontier.Entry(model.createResource(next.getSubject()), curr));
+                }
+            }
+            visitIndices.put(curr, dataNodes.size());
+            dataNodes.add(curr);
+        }
+
+        final Frontier frontier = new Frontier();
+        for (final Frontier.Entry entry : pending.values()) {
+            frontier.add(entry.getSubject(), entry.getPrevious());
+        }
+        return frontier;
+    }
+
+    /**
+     * Reads the canonical subject of the query to a fresh model.
+     *
+     * @return the query data, the initial subject is not set if the subject was not found
+     *
+     * @throws HttpException if the subject failed to be fetched
+     */
+    private QueryData readInitialSubject() throws HttpException {
+        final Model model = hopWindow.getModel();
         final QueryData inputMetadata = new QueryData();
+        final String subjectUri = redirectResolver.resolve(List.of(query))
+                                                  .getOrDefault(query, query);
         try {
-            LOGGER.info("Requesting {} for initial information.", query);
+            LOGGER.info("Requesting {} for initial information.", subjectUri);
             long start = System.currentTimeMillis();
-            LOGGER.trace("Querying {}", query);
-            model.read(query);
+            LOGGER.trace("Querying {}", subjectUri);
+            resourceFetcher.read(model, subjectUri);
             long end = System.currentTimeMillis() - start;
-            LOGGER.trace("Querying {} took {}ms", query, end);
+            LOGGER.trace("Querying {} took {}ms", subjectUri, end);
             inputMetadata.setCurrentModel(model);
         } catch (HttpException e) {
             alertConnectionProblems(e);
             throw LOGGER.throwing(e);
         }
 
-        final InitialSearchResult result;
         final boolean subjectFound = model.listStatements()
                                           .hasNext();
-        if (!subjectFound) {
-            result = InitialSearchResult.SUBJECT_NOT_FOUND;
-        } else {
+        if (subjectFound) {
             // get the initial data such as start date, end date etc
-            final Resource subject = model.createResource(query);
-            inputMetadata.setInitialSubject(redirectIfPossible(subject, model));
+            final Resource subject = model.createResource(subjectUri);
+            inputMetadata.setInitialSubject(redirectIfPossible(subject, inputMetadata));
             inputMetadata.setRestrictions(new ArrayList<>());
-            result = initialSearch(inputMetadata);
-        }
-        if (result != InitialSearchResult.OK) {
-            LOGGER.info("Search result of '{}' was not {}. Initial search result: {}", query, InitialSearchResult.OK, result);
-            progressListener.onInvalidQuery(originalQuery, result);
-            return null;
         }
-
-        progressListener.queryDataProperty()
-                        .set(inputMetadata);
-        final Selector selector = new SimpleSelector(inputMetadata.getInitialSubject(), inputMetadata.getOntologyPathPredicate(), (RDFNode) null);
-        LOGGER.info("Start searching");
-        search(inputMetadata, selector, null);
-        LOGGER.info("Done searching");
-//            dataNodeRoot.iterate(((dataNode, integer) -> System.out.println(dataNode)));
-        progressListener.onSearchDone(dataNodeRoot);
-
-        return null;
-
+        return inputMetadata;
     }
 
-    private Resource redirectIfPossible(final Resource subject, final Model model) {
-        return redirectIfPossible(subject, model, MAX_REDIRECTS);
+    /**
+     * Follows the redirects found in the model. The redirects are normally resolved beforehand by the {@link RedirectResolver}, this is a fallback for when the SPARQL endpoint failed to resolve
+     * them.
+     *
+     * @param subject       the subject
+     * @param inputMetadata the query data
+     *
+     * @return the subject the given one redirects to, or the given subject if it does not redirect
+     */
+    private Resource redirectIfPossible(final Resource subject, final QueryData inputMetadata) {
+        return redirectIfPossible(subject, inputMetadata, MAX_REDIRECTS);
     }
 
-    private Resource redirectIfPossible(final Resource subject, final Model model, final int maxRedirects) {
+    private Resource redirectIfPossible(final Resource subject, final QueryData inputMetadata, final int maxRedirects) {
         if (maxRedirects <= 0 || maxRedirects > MAX_REDIRECTS) {
             return subject;
         }
         // DBPEDIA SPECIFIC
-        final StmtIterator stmts = model.listStatements(subject, PROPERTY_REDIRECT, (RDFNode) null);
+        final Model model = inputMetadata.getCurrentModel();
+        final StmtIterator stmts = model.listStatements(subject, RedirectResolver.PROPERTY_REDIRECT, (RDFNode) null);
         if (!stmts.hasNext()) {
             LOGGER.trace("No redirects found for {}.", subject);
             return subject;
@@ -185,8 +534,8 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
         // continue redirecting
         final Resource newSubject = object.asResource();
         LOGGER.debug("Redirecting to {}.", newSubject);
-        model.read(newSubject.getURI());
-        return redirectIfPossible(newSubject, model, maxRedirects - 1);
+        fetch(inputMetadata, List.of(newSubject.getURI()));
+        return redirectIfPossible(newSubject, inputMetadata, maxRedirects - 1);
     }
 
     /**
@@ -194,25 +543,22 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
      *
      * @see InitialSearchResult
      */
-    private InitialSearchResult initialSearch(final QueryData inputMetadata) {
-        LOGGER.debug("Initiating search on subject {}", inputMetadata.getInitialSubject());
-
-        final InitialSearchResult pathPredicateResult = requestOntologyPathPredicate(inputMetadata);
-        if (pathPredicateResult != InitialSearchResult.OK) {
-            return pathPredicateResult;
-        }
-        LOGGER.debug("Found ontology path predicate.");
-
-        final InitialSearchResult startAndEndDateResult = requestStartAndEndDatePredicate(inputMetadata);
-        if (startAndEndDateResult != InitialSearchResult.OK) {
-            return startAndEndDateResult;
+    private CompletableFuture<InitialSearchResult> initialSearch(final QueryData inputMetadata) {
+        if (inputMetadata.getInitialSubject() == null) {
+            return CompletableFuture.completedFuture(InitialSearchResult.SUBJECT_NOT_FOUND);
         }
-        LOGGER.debug("Found start and end date.");
+        LOGGER.debug("Initiating search on subject {}", inputMetadata.getInitialSubject());
 
-        return InitialSearchResult.OK;
+        return requestOntologyPathPredicate(inputMetadata).thenCompose(pathPredicateResult -> {
+            if (pathPredicateResult != InitialSearchResult.OK) {
+                return CompletableFuture.completedFuture(pathPredicateResult);
+            }
+            LOGGER.debug("Found ontology path predicate.");
+            return requestStartAndEndDatePredicate(inputMetadata);
+        });
     }
 
-    private InitialSearchResult requestStartAndEndDatePredicate(final QueryData inputMetadata) {
+    private CompletableFuture<InitialSearchResult> requestStartAndEndDatePredicate(final QueryData inputMetadata) {
         final Selector selector = createSelector(inputMetadata.getInitialSubject(), stmt -> {
             final RDFNode object = stmt.getObject();
             if (!object.isLiteral()) {
@@ -245,41 +591,35 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
         final StmtIterator statements = model.listStatements(selector);
         if (!statements.hasNext()) {
             LOGGER.info("No date found for input {}", inputMetadata);
-            return InitialSearchResult.SUBJECT_NOT_FOUND;
+            return CompletableFuture.completedFuture(InitialSearchResult.SUBJECT_NOT_FOUND);
         }
 
-        startAndEndDateResolver.resolve(Collections.unmodifiableCollection(statements.toList()), this);
-        while (!startAndEndDateResolver.hasResponseReady()) {
-            try {
-                wait(5000L);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        final ArbitraryDataHolder ref = startAndEndDateResolver.getResponse();
-        if (ref == null) {
-            LOGGER.error("Internal error occurred when resolving request for date input. Selector: {}", selector);
-            return InitialSearchResult.UNKNOWN;
-        }
+        return startAndEndDateResolver.resolve(Collections.unmodifiableCollection(statements.toList()), this)
+                                      .thenApplyAsync(ref -> {
+                                          if (ref == null) {
+                                              LOGGER.error("Internal error occurred when resolving request for date input. Selector: {}", selector);
+                                              return InitialSearchResult.UNKNOWN;
+                                          }
 
-        final Optional<Property> startDatePropertyOpt = ref.getValue(RESULT_KEY_START_DATE_PREDICATE);
-        final Property endDateProperty = ref.getValue(RESULT_KEY_END_DATE_PREDICATE, null);
-        if (startDatePropertyOpt.isEmpty()) {
-            return InitialSearchResult.START_DATE_NOT_SELECTED;
-        }
+                                          final Optional<Property> startDatePropertyOpt = ref.getValue(RESULT_KEY_START_DATE_PREDICATE);
+                                          final Property endDateProperty = ref.getValue(RESULT_KEY_END_DATE_PREDICATE, null);
+                                          if (startDatePropertyOpt.isEmpty()) {
+                                              return InitialSearchResult.START_DATE_NOT_SELECTED;
+                                          }
 
-        inputMetadata.setStartDateProperty(startDatePropertyOpt.get());
-        // the end date does need to be specified
-        inputMetadata.setEndDateProperty(endDateProperty);
-        progressListener.startDateProperty()
-                        .set(startDatePropertyOpt.get());
-        progressListener.endDateProperty()
-                        .set(endDateProperty);
-        return InitialSearchResult.OK;
+                                          inputMetadata.setStartDateProperty(startDatePropertyOpt.get());
+                                          // the end date does need to be specified
+                                          inputMetadata.setEndDateProperty(endDateProperty);
+                                          progressListener.startDateProperty()
+                                                          .set(startDatePropertyOpt.get());
+                                          progressListener.endDateProperty()
+                                                          .set(endDateProperty);
+                                          LOGGER.debug("Found start and end date.");
+                                          return InitialSearchResult.OK;
+                                      }, crawlPool);
     }
 
-    private InitialSearchResult requestOntologyPathPredicate(final QueryData inputMetadata) {
+    private CompletableFuture<InitialSearchResult> requestOntologyPathPredicate(final QueryData inputMetadata) {
         final Selector selector = createSelector(inputMetadata.getInitialSubject(), stmt -> {
             if (!stmt.getObject()
                      .isURIResource()) {
@@ -297,29 +637,23 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
 
         final StmtIterator statements = model.listStatements(selector);
         if (!statements.hasNext()) {
-            return InitialSearchResult.SUBJECT_NOT_FOUND;
-        }
-        ontologyPathPredicateResolver.resolve(Collections.unmodifiableList(statements.toList()), this);
-        while (!ontologyPathPredicateResolver.hasResponseReady()) {
-            try {
-                wait(5000L);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        final ArbitraryDataHolder ref = ontologyPathPredicateResolver.getResponse();
-        if (ref == null) {
-            return InitialSearchResult.UNKNOWN;
-        }
-        final Optional<Property> ontologyPathPredicateOpt = ref.getValue(OntologyPathPredicateResolver.RESULT_KEY_ONTOLOGY_PATH_PREDICATE);
-        if (ontologyPathPredicateOpt.isEmpty()) {
-            return InitialSearchResult.PATH_NOT_SELECTED;
+            return CompletableFuture.completedFuture(InitialSearchResult.SUBJECT_NOT_FOUND);
         }
+        return ontologyPathPredicateResolver.resolve(Collections.unmodifiableList(statements.toList()), this)
+                                            .thenApplyAsync(ref -> {
+                                                if (ref == null) {
+                                                    return InitialSearchResult.UNKNOWN;
+                                                }
+                                                final Optional<Property> ontologyPathPredicateOpt = ref.getValue(OntologyPathPredicateResolver.RESULT_KEY_ONTOLOGY_PATH_PREDICATE);
+                                                if (ontologyPathPredicateOpt.isEmpty()) {
+                                                    return InitialSearchResult.PATH_NOT_SELECTED;
+                                                }
 
-        inputMetadata.setOntologyPathPredicate(ontologyPathPredicateOpt.get());
-        progressListener.ontologyPathPredicateProperty()
-                        .set(ontologyPathPredicateOpt.get());
-        return InitialSearchResult.OK;
+                                                inputMetadata.setOntologyPathPredicate(ontologyPathPredicateOpt.get());
+                                                progressListener.ontologyPathPredicateProperty()
+                                                                .set(ontologyPathPredicateOpt.get());
+                                                return InitialSearchResult.OK;
+                                            }, crawlPool);
     }
 
     private Selector createSelector(final Resource initialSubject, final Predicate<Statement> selectorSelects) {
@@ -348,15 +682,84 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
     }
 
     /**
-     * Recursively searches based on the given model, selector, and a previous link. Adds the subject of the selector to the tree.
+     * Searches the line from the subjects in the frontier. The subjects found are visited via the {@link Frontier} rather than recursively.
      *
-     * @param selector the selector
+     * @param frontier the frontier
+     *
+     * @return the future completed once the line is searched
      */
-    private void search(final QueryData inputMetadata, final Selector selector, final DataNode prev) {
-        // create a new node and add it to the model
+    private CompletableFuture<Void> traverse(final QueryData inputMetadata, final Frontier frontier) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        drain(inputMetadata, frontier, done);
+        return done.thenRun(() -> {
+            LOGGER.info("Done searching");
+            progressListener.onSearchDone(dataNodeRoot);
+        });
+    }
+
+    /**
+     * <p>Visits the subjects of the frontier until it's empty.</p>
+     * <p>The visits that complete right away are looped over. A visit waiting for a resolver ends the loop, and the loop is started again in the crawl pool once the resolver responds. Either way
+     * the stack does not grow with the length of the line.</p>
+     * <p>Once the search is cancelled, the loop stops and the future is completed with a {@link CancellationException}.</p>
+     *
+     * @param frontier the frontier
+     * @param done     the future to complete once the frontier is empty
+     */
+    private void drain(final QueryData inputMetadata, final Frontier frontier, final CompletableFuture<Void> done) {
+        try {
+            Frontier.Entry entry;
+            while ((entry = frontier.poll()) != null) {
+                if (cancelled) {
+                    done.completeExceptionally(new CancellationException("The search of '" + query + "' was cancelled"));
+                    return;
+                }
+                final CompletableFuture<Void> visit = visit(inputMetadata, entry, frontier);
+                if (!visit.isDone()) {
+                    visit.whenCompleteAsync((ignored, e) -> {
+                        if (e != null) {
+                            done.completeExceptionally(e);
+                        } else {
+                            drain(inputMetadata, frontier, done);
+                        }
+                    }, crawlPool);
+                    return;
+                }
+                visit.join();
+            }
+            done.complete(null);
+        } catch (CompletionException e) {
+            done.completeExceptionally(e.getCause() == null ? e : e.getCause());
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Visits a subject of the frontier. Adds the subject to the tree and the subjects it leads to to the frontier.
+     *
+     * @param entry    the subject to visit
+     * @param frontier the frontier
+     *
+     * @return the future completed once the subjects the subject leads to are in the frontier
+     */
+    private CompletableFuture<Void> visit(final QueryData inputMetadata, final Frontier.Entry entry, final Frontier frontier) {
         final Model model = inputMetadata.getCurrentModel();
+        final Resource subject = entry.getSubject();
+        // the resource has likely been prefetched along with its siblings
+        if (!model.listStatements(subject, null, (RDFNode) null)
+                  .hasNext()) {
+            long start = System.currentTimeMillis();
+            LOGGER.trace("Querying {}", subject.getURI());
+            fetchSubject(inputMetadata, subject.getURI());
+            long end = System.currentTimeMillis() - start;
+            LOGGER.trace("Querying {} took {}ms", subject.getURI(), end);
+        }
+
+        // create a new node and add it to the model
+        final Selector selector = new SimpleSelector(subject, inputMetadata.getOntologyPathPredicate(), (RDFNode) null);
+        final DataNode prev = entry.getPrevious();
         final DataNode curr = dataNodeFactory.newNode(dataNodeRoot);
-        final Resource subject = selector.getSubject();
         initializeDataNode(curr, subject, inputMetadata);
         progressListener.onAddRelationship(prev, curr);
         progressListener.onAddNewDataNodes(List.of(curr));
@@ -366,31 +769,37 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
                                                 .toList();
         statements.sort(STATEMENT_COMPARATOR);
         final List<Statement> foundDataList = new ArrayList<>();
-        // for each child: read the child into the model if it's a URI
-        // redirect if possible
+        // resolve the redirects of all the URI children at once (usually without a request at all as they are memoized)
+        // and read the canonical resources into the model at once, each hop gets its own graph so that the old ones can be evicted
+        final Map<String, String> canonicalUris = redirectResolver.resolve(statements.stream()
+                                                                                     .map(Statement::getObject)
+                                                                                     .filter(RDFNode::isURIResource)
+                                                                                     .map(object -> object.asResource()
+                                                                                                          .getURI())
+                                                                                     .distinct()
+                                                                                     .toList());
+        hopWindow.nextHop();
+        fetch(inputMetadata,
+              canonicalUris.values()
+                           .stream()
+                           .distinct()
+                           .toList());
+        // for each child: redirect if possible
         // check for requirements of the child
         // if the requirements are ok, continue to the next child
         for (Statement stmt : statements) {
             RDFNode object = stmt.getObject();
             if (object.isURIResource()) {
-                // Log the query time of the object
-                LOGGER.trace("Object is a URI resource, querying the resource");
-                long start = System.currentTimeMillis();
-                final String uri = object.asResource()
-                                         .getURI();
-                LOGGER.trace("Querying {}", uri);
-                model.read(uri);
-                long end = System.currentTimeMillis() - start;
-                LOGGER.trace("Querying {} took {}ms", uri, end);
-
                 // Log the redirect time of the object
                 final RDFNode priorToRedirect = object;
-                start = System.currentTimeMillis();
-                object = redirectIfPossible(object.asResource(), model);
-                end = System.currentTimeMillis() - start;
+                final long start = System.currentTimeMillis();
+                final String uri = object.asResource()
+                                         .getURI();
+                object = redirectIfPossible(model.createResource(canonicalUris.getOrDefault(uri, uri)), inputMetadata);
+                final long end = System.currentTimeMillis() - start;
 
                 // If the objects do not equal we redirected, log that too
-                if (priorToRedirect != object) {
+                if (!priorToRedirect.equals(object)) {
                     final String actualUri = object.isURIResource() ?
                                              " to " + object.asResource()
                                                             .getURI() :
@@ -413,85 +822,262 @@ public class DBPediaEndpointTask<R> extends DefaultSparqlEndpointTask<R> {
 
         // no nodes found, stop searching
         if (foundDataList.isEmpty()) {
-            return;
+            checkpointVisit(inputMetadata, entry, curr, List.of(), null);
+            return CompletableFuture.completedFuture(null);
         }
 
         // only one found, that means it's going linearly
         // we can continue searching
         if (foundDataList.size() == 1) {
             final Statement first = foundDataList.get(0);
-            searchFurther(inputMetadata, first.getObject(), curr);
-            return;
+            final Frontier.Entry next = enqueue(inputMetadata, frontier, first.getObject(), curr);
+            checkpointVisit(inputMetadata, entry, curr, List.of(), next);
+            return CompletableFuture.completedFuture(null);
         }
 
         // multiple children found, that means we need to branch out
-        // the ambiguity solver might pop up a dialogue where it could wait
-        // for the response of the user
-        // the dialogue is then responsible for notifying the monitor of this object
-        // to free this thread via #unlockDialogPane method
-        // the thread will wait up to 5 seconds and check for the result if the
-        // dialogue fails to notify the monitor
-        // the dialogue also has to be marked as finished
+        // the ambiguity solver might pop up a dialogue and wait for the response of the user
+        // we do not wait for it here -- the search continues in the crawl pool once the
+        // resolver completes the response, no thread is held in the meantime
         // --------------
-        // the reference can either be non-blocking or blocking, depending on the implementation
-        // usually when user input is required it's blocking
+        // the response can either be completed right away or later, depending on the implementation
+        // usually when user input is required it's completed later
         LOGGER.debug("Found multiple nodes, asking user to clarify...");
-        ambiguousResultResolver.resolve(foundDataList, this);
-        while (!ambiguousResultResolver.hasResponseReady()) {
-            try {
-                wait(5000);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        final ArbitraryDataHolder response = ambiguousResultResolver.getResponse();
-        final Optional<RDFNode> chosenNextRDFNodeOpt = response.getValue(RESULT_KEY_CHOSEN_RDF_NODE);
-        if (chosenNextRDFNodeOpt.isEmpty()) {
-            LOGGER.debug("Received no response");
-            return;
-        }
-        final RDFNode chosenNextRDFNode = chosenNextRDFNodeOpt.get();
-        LOGGER.debug("User chosen node: {}", chosenNextRDFNode);
+        return ambiguousResultResolver.resolve(foundDataList, this)
+                                      .thenAcceptAsync(response -> {
+                                          final Optional<RDFNode> chosenNextRDFNodeOpt = response.getValue(RESULT_KEY_CHOSEN_RDF_NODE);
+                                          if (chosenNextRDFNodeOpt.isEmpty()) {
+                                              LOGGER.debug("Received no response");
+                                              checkpointVisit(inputMetadata, entry, curr, List.of(), null);
+                                              return;
+                                          }
+                                          final RDFNode chosenNextRDFNode = chosenNextRDFNodeOpt.get();
+                                          LOGGER.debug("User chosen node: {}", chosenNextRDFNode);
 
+                                          final List<RDFNode> children = foundDataList.stream()
+                                                                                      .map(Statement::getObject)
+                                                                                      .toList();
+                                          addChildren(curr, children);
+                                          final Frontier.Entry next = enqueue(inputMetadata, frontier, chosenNextRDFNode, curr);
+                                          checkpointVisit(inputMetadata, entry, curr, children, next);
+                                      }, crawlPool);
+    }
+
+    /**
+     * Adds the children the next subject was chosen from to the data node.
+     *
+     * @param curr     the data node
+     * @param children the children
+     */
+    private void addChildren(final DataNode curr, final Collection<RDFNode> children) {
         final List<DataNode> currDataNodeChildren = new ArrayList<>();
         // WARN: Deleted handling for multiple references as it might not even be in the final version.
-        for (final Statement stmt : foundDataList) {
-            final RDFNode object = stmt.getObject();
+        for (final RDFNode object : children) {
             final DataNode child = dataNodeFactory.newNode(curr);
             child.addMetadata(METADATA_KEY_RDF_NODE, object);
             setDataNodeNameFromRDFNode(child, object);
             currDataNodeChildren.add(child);
         }
         progressListener.onAddNewDataNodes(currDataNodeChildren);
-        searchFurther(inputMetadata, chosenNextRDFNode, curr);
     }
 
-    private void searchFurther(final QueryData inputMetadata, final RDFNode next, final DataNode curr) {
-        // attempts to search further down the line if the given data is a URI resource
-        // if it's not a URI resource the searching terminates
-        // if it's a URI resource we first check if we've been here already - we don't want to be stuck in a cycle,
-        // that's what usedURIs is for
-        // otherwise build a selector and continue searching down the line
-        if (next == null) {
+    /**
+     * Reads the whole line of the initial subject via the {@link PathExpander} so that the hops of the search need no further requests. Only done in the {@link FetchMode#SPARQL} mode as the line is
+     * projected to the same predicates.
+     *
+     * @param inputMetadata the query data
+     */
+    private void expandLine(final QueryData inputMetadata) {
+        if (fetchMode != FetchMode.SPARQL) {
             return;
         }
-        if (!next.isURIResource()) {
+        final Resource initialSubject = inputMetadata.getInitialSubject();
+        try {
+            expandedLine = pathExpander.expand(initialSubject.getURI(), inputMetadata.getOntologyPathPredicate(), projectedPredicates(inputMetadata))
+                                       .orElse(null);
+        } catch (HttpException e) {
+            LOGGER.warn("Failed to expand the line of {}, it will be read hop by hop: {}", initialSubject, e.getMessage());
             return;
         }
+        if (expandedLine != null) {
+            // the edges found via the aliases of the initial subject
+            inputMetadata.getCurrentModel()
+                         .add(expandedLine.listStatements(initialSubject, null, (RDFNode) null));
+        }
+    }
+
+    /**
+     * <p>Reads the visited subject to the current model according to the {@link FetchMode}.</p>
+     * <p>Unlike the resources the subject leads to, a subject that fails to be fetched fails the visit, and thus the search. Its journal is kept so that the search can be resumed from the subject
+     * once the endpoint is back.</p>
+     *
+     * @param inputMetadata the query data
+     * @param uri           the URI of the subject
+     *
+     * @throws HttpException if the subject failed to be fetched
+     */
+    private void fetchSubject(final QueryData inputMetadata, final String uri) throws HttpException {
+        final Model model = inputMetadata.getCurrentModel();
+        try {
+            if (fetchMode != FetchMode.SPARQL || inputMetadata.getOntologyPathPredicate() == null) {
+                resourceFetcher.read(model, uri);
+            } else if (!readExpanded(model, uri)) {
+                project(inputMetadata, List.of(uri));
+            }
+        } catch (HttpException e) {
+            LOGGER.error("Failed to fetch {}, the search of '{}' stops and can be resumed later: {}", uri, query, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Reads the resources to the current model according to the {@link FetchMode}.</p>
+     * <p>The resources are always dereferenced until the user chooses the ontology path predicate as there is nothing to project yet.</p>
+     * <p>The resources that fail to be fetched (even after the retries of the fetcher) are skipped rather than failing the whole search -- a skipped resource simply has no statements. Should the
+     * search visit a skipped resource, it's fetched again via {@link #fetchSubject(QueryData, String)}.</p>
+     *
+     * @param inputMetadata the query data
+     * @param uris          the URIs of the resources to fetch
+     */
+    private void fetch(final QueryData inputMetadata, final Collection<String> uris) {
         final Model model = inputMetadata.getCurrentModel();
-        final Resource resource = (Resource) next;
+        if (fetchMode == FetchMode.SPARQL && inputMetadata.getOntologyPathPredicate() != null) {
+            // the resources of the expanded line are already read
+            final Collection<String> remaining = new ArrayList<>();
+            for (final String uri : uris) {
+                if (!readExpanded(model, uri)) {
+                    remaining.add(uri);
+                }
+            }
+            if (!remaining.isEmpty()) {
+                try {
+                    project(inputMetadata, remaining);
+                } catch (HttpException e) {
+                    LOGGER.warn("Skipping {} resources that failed to be fetched: {}", remaining.size(), e.getMessage());
+                }
+            }
+        } else {
+            prefetch(model, uris);
+        }
+    }
+
+    /**
+     * Reads the projected predicates of the resources, and the edges found via the aliases of the ontology path predicate, to the current model.
+     *
+     * @param inputMetadata the query data
+     * @param uris          the URIs of the resources
+     *
+     * @throws HttpException if the resources failed to be fetched
+     */
+    private void project(final QueryData inputMetadata, final Collection<String> uris) throws HttpException {
+        final Property pathPredicate = inputMetadata.getOntologyPathPredicate();
+        projectingResourceFetcher.read(inputMetadata.getCurrentModel(), uris, projectedPredicates(inputMetadata), pathPredicate, pathExpander.aliases(pathPredicate));
+    }
+
+    /**
+     * Reads the resource from the expanded line to the model.
+     *
+     * @param model the model
+     * @param uri   the URI of the resource
+     *
+     * @return {@code true} if the resource is in the expanded line
+     */
+    private boolean readExpanded(final Model model, final String uri) {
+        final Resource resource = ResourceFactory.createResource(uri);
+        if (expandedLine == null || !expandedLine.contains(resource, null)) {
+            return false;
+        }
+        model.add(expandedLine.listStatements(resource, null, (RDFNode) null));
+        return true;
+    }
+
+    /**
+     * @param inputMetadata the query data
+     *
+     * @return the predicates the search reads from the resources down the line
+     */
+    private Collection<Property> projectedPredicates(final QueryData inputMetadata) {
+        final Collection<Property> predicates = new LinkedHashSet<>();
+        predicates.add(inputMetadata.getOntologyPathPredicate());
+        predicates.add(RedirectResolver.PROPERTY_REDIRECT);
+        if (inputMetadata.getStartDateProperty() != null) {
+            predicates.add(inputMetadata.getStartDateProperty());
+        }
+        if (inputMetadata.getEndDateProperty() != null) {
+            predicates.add(inputMetadata.getEndDateProperty());
+        }
+        for (final Restriction restriction : inputMetadata.getRestrictions()) {
+            predicates.add(ResourceFactory.createProperty(restriction.getNamespace(), restriction.getLink()));
+        }
+        return predicates;
+    }
 
-        long start = System.currentTimeMillis();
-        LOGGER.trace("Querying {}", resource.getURI());
-        model.read(resource.getURI());
-        long end = System.currentTimeMillis() - start;
-        LOGGER.trace("Querying {} took {}ms", resource.getURI(), end);
+    /**
+     * <p>Fetches the resources concurrently via the fetch pool, each to its own model, and then merges them to the given model.</p>
+     * <p>The merging is done on the calling thread because Jena models are not thread-safe. The resources that failed to be fetched are skipped.</p>
+     *
+     * @param model the model to merge the fetched resources to
+     * @param uris  the URIs of the resources to fetch
+     */
+    private void prefetch(final Model model, final Collection<String> uris) {
+        if (uris.isEmpty()) {
+            return;
+        }
+        LOGGER.trace("Prefetching {} resources", uris.size());
+        final long start = System.currentTimeMillis();
+        final Map<String, Future<Model>> fetchedModels = new LinkedHashMap<>();
+        for (final String uri : uris) {
+            fetchedModels.put(uri, fetchPool.submit(() -> {
+                final Model fetchedModel = ModelFactory.createDefaultModel();
+                resourceFetcher.read(fetchedModel, uri);
+                return fetchedModel;
+            }));
+        }
+        try {
+            for (final Map.Entry<String, Future<Model>> fetchedModel : fetchedModels.entrySet()) {
+                try {
+                    model.add(fetchedModel.getValue()
+                                          .get());
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof HttpException httpException)) {
+                        fetchedModels.values()
+                                     .forEach(future -> future.cancel(true));
+                        throw new RuntimeException(e.getCause());
+                    }
+                    LOGGER.warn("Skipping {}, it failed to be fetched: {}", fetchedModel.getKey(), httpException.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            fetchedModels.values()
+                         .forEach(future -> future.cancel(true));
+            Thread.currentThread()
+                  .interrupt();
+            throw new RuntimeException(e);
+        }
+        LOGGER.trace("Prefetching {} resources took {}ms", uris.size(), System.currentTimeMillis() - start);
+    }
 
+    /**
+     * Adds the next subject of the line to the frontier, unless it's a literal or has been visited already.
+     *
+     * @param frontier the frontier
+     * @param next     the next subject
+     * @param curr     the data node of the subject the next subject was found from
+     *
+     * @return the entry of the next subject, or {@code null} if it was not added
+     */
+    private @Nullable Frontier.Entry enqueue(final QueryData inputMetadata, final Frontier frontier, final RDFNode next, final DataNode curr) {
+        // a literal ends the line
+        // a URI resource we've been to already would make us stuck in a cycle, that's what usedURIs is for
+        if (next == null || !next.isURIResource()) {
+            return null;
+        }
+        final Resource resource = next.asResource();
         final boolean hasBeenVisited = !usedURIs.add(resource.getURI());
-        if (!hasBeenVisited) {
-            final Selector sel = new SimpleSelector(resource, inputMetadata.getOntologyPathPredicate(), (RDFNode) null);
-            search(inputMetadata, sel, curr);
+        if (hasBeenVisited) {
+            return null;
         }
+        return frontier.add(resource, curr);
     }
 
     /**
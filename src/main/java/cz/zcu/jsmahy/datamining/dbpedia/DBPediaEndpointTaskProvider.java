@@ -1,38 +1,81 @@
 package cz.zcu.jsmahy.datamining.dbpedia;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.name.Named;
 import cz.zcu.jsmahy.datamining.api.*;
 
+import java.util.concurrent.ExecutorService;
+
 import static java.util.Objects.requireNonNull;
 
+/**
+ * <p>Provides {@link DBPediaEndpointTask}s.</p>
+ * <p>The progress listener and the resolvers are requested from their providers for every new task. Whether the tasks share them is thus up to the scope they are bound in -- the UI binds them as
+ * singletons, whereas the headless batch mode needs a fresh instance per task as the tasks run concurrently.</p>
+ */
+@SuppressWarnings("rawtypes")
 public class DBPediaEndpointTaskProvider<R> implements SparqlEndpointTaskProvider<R> {
 
     private final ApplicationConfiguration config;
-    private final RequestProgressListener progressListener;
+    private final Provider<RequestProgressListener> progressListener;
     private final DataNodeFactory dataNodeFactory;
-    private final ResponseResolver<?> ambiguousResultResolver;
-    private final ResponseResolver<?> ontologyPathPredicateResolver;
-    private final ResponseResolver<?> startAndEndDateResolver;
+    private final Provider<ResponseResolver> ambiguousResultResolver;
+    private final Provider<ResponseResolver> ontologyPathPredicateResolver;
+    private final Provider<ResponseResolver> startAndEndDateResolver;
+    private final ResourceFetcher resourceFetcher;
+    private final ExecutorService fetchPool;
+    private final ExecutorService crawlPool;
+    private final ProjectingResourceFetcher projectingResourceFetcher;
+    private final RedirectResolver redirectResolver;
+    private final PathExpander pathExpander;
+    private final CheckpointStore checkpointStore;
 
     @Inject
-    @SuppressWarnings("rawtypes")
     public DBPediaEndpointTaskProvider(final ApplicationConfiguration config,
-                                       final RequestProgressListener progressListener,
+                                       final Provider<RequestProgressListener> progressListener,
                                        final DataNodeFactory dataNodeFactory,
-                                       final @Named("userAssisted") ResponseResolver ambiguousResultResolver,
-                                       final @Named("ontologyPathPredicate") ResponseResolver ontologyPathPredicateResolver,
-                                       final @Named("date") ResponseResolver startAndEndDateResolver) {
+                                       final @Named("userAssisted") Provider<ResponseResolver> ambiguousResultResolver,
+                                       final @Named("ontologyPathPredicate") Provider<ResponseResolver> ontologyPathPredicateResolver,
+                                       final @Named("date") Provider<ResponseResolver> startAndEndDateResolver,
+                                       final ResourceFetcher resourceFetcher,
+                                       final @Named("fetchPool") ExecutorService fetchPool,
+                                       final @Named("crawlPool") ExecutorService crawlPool,
+                                       final ProjectingResourceFetcher projectingResourceFetcher,
+                                       final RedirectResolver redirectResolver,
+                                       final PathExpander pathExpander,
+                                       final CheckpointStore checkpointStore) {
         this.config = requireNonNull(config);
         this.progressListener = requireNonNull(progressListener);
         this.dataNodeFactory = requireNonNull(dataNodeFactory);
         this.ambiguousResultResolver = requireNonNull(ambiguousResultResolver);
         this.ontologyPathPredicateResolver = requireNonNull(ontologyPathPredicateResolver);
         this.startAndEndDateResolver = requireNonNull(startAndEndDateResolver);
+        this.resourceFetcher = requireNonNull(resourceFetcher);
+        this.fetchPool = requireNonNull(fetchPool);
+        this.crawlPool = requireNonNull(crawlPool);
+        this.projectingResourceFetcher = requireNonNull(projectingResourceFetcher);
+        this.redirectResolver = requireNonNull(redirectResolver);
+        this.pathExpander = requireNonNull(pathExpander);
+        this.checkpointStore = requireNonNull(checkpointStore);
     }
 
     @Override
     public SparqlEndpointTask<R> newTask(final String query, final DataNode dataNodeRoot) {
-        return new DBPediaEndpointTask<>(query, dataNodeRoot, config, progressListener, dataNodeFactory, ambiguousResultResolver, ontologyPathPredicateResolver, startAndEndDateResolver);
+        return new DBPediaEndpointTask<>(query,
+                                         dataNodeRoot,
+                                         config,
+                                         progressListener.get(),
+                                         dataNodeFactory,
+                                         ambiguousResultResolver.get(),
+                                         ontologyPathPredicateResolver.get(),
+                                         startAndEndDateResolver.get(),
+                                         resourceFetcher,
+                                         fetchPool,
+                                         crawlPool,
+                                         projectingResourceFetcher,
+                                         redirectResolver,
+                                         pathExpander,
+                                         checkpointStore);
     }
 }
@@ -1,15 +1,28 @@
 package cz.zcu.jsmahy.datamining.dbpedia;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import com.google.inject.name.Names;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
 import cz.zcu.jsmahy.datamining.api.DataMiningModule;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
 import cz.zcu.jsmahy.datamining.api.ResponseResolver;
 import cz.zcu.jsmahy.datamining.api.SparqlEndpointTaskProvider;
-import cz.zcu.jsmahy.datamining.resolvers.MultipleItemChoiceResolver;
-import cz.zcu.jsmahy.datamining.resolvers.OntologyPathPredicateResolver;
-import cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import cz.zcu.jsmahy.datamining.resolvers.*;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.google.inject.Scopes.SINGLETON;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*;
+import static java.util.Objects.requireNonNull;
 
 /**
  * <p>Module for <a href="https://www.dbpedia.org/">DBPedia</a> SPARQL queries</p>
@@ -19,19 +32,133 @@ import static com.google.inject.Scopes.SINGLETON;
  * @since 1.0
  */
 public class DBPediaModule extends AbstractModule {
+    private static final int DEFAULT_FETCH_POOL_SIZE = 8;
+    private static final int DEFAULT_CRAWL_POOL_SIZE = 4;
+    private static final int DEFAULT_HTTP_CONNECT_TIMEOUT_MS = 10_000;
+    private final ResolverPolicy resolverPolicy;
+
+    /**
+     * Creates the module with the {@link ResolverPolicy#USER_ASSISTED} resolver policy.
+     */
+    public DBPediaModule() {
+        this(ResolverPolicy.USER_ASSISTED);
+    }
+
+    /**
+     * @param resolverPolicy the resolvers to bind
+     */
+    public DBPediaModule(final ResolverPolicy resolverPolicy) {
+        this.resolverPolicy = requireNonNull(resolverPolicy);
+    }
+
     protected void configure() {
         // the main request handler with its progress listener
         bind(SparqlEndpointTaskProvider.class).to(DBPediaEndpointTaskProvider.class)
                                               .in(SINGLETON);
+        // resource fetching -- the HTTP fetcher is limited per host, throttled, and hidden behind the on-disk cache
+        bind(ResourceFetcher.class).annotatedWith(Names.named("http"))
+                                   .to(HttpResourceFetcher.class)
+                                   .in(SINGLETON);
+        bind(ResourceFetcher.class).annotatedWith(Names.named("limited"))
+                                   .to(HostLimitingResourceFetcher.class)
+                                   .in(SINGLETON);
+        bind(ResourceFetcher.class).annotatedWith(Names.named("remote"))
+                                   .to(ThrottlingResourceFetcher.class)
+                                   .in(SINGLETON);
+        bind(RequestThrottle.class).in(SINGLETON);
+        bind(ResourceFetcher.class).to(CachingResourceFetcher.class)
+                                   .in(SINGLETON);
+        bind(SparqlService.class).to(RemoteSparqlService.class)
+                                 .in(SINGLETON);
+        bind(ProjectingResourceFetcher.class).in(SINGLETON);
+        bind(RedirectResolver.class).in(SINGLETON);
+        bind(PredicateFilter.class).in(SINGLETON);
+        bind(PathExpander.class).in(SINGLETON);
+        bind(CheckpointStore.class).in(SINGLETON);
         // ambiguous input resolvers
-        bind(ResponseResolver.class).annotatedWith(Names.named("userAssisted"))
-                                    .to(MultipleItemChoiceResolver.class)
-                                    .in(SINGLETON);
-        bind(ResponseResolver.class).annotatedWith(Names.named("ontologyPathPredicate"))
-                                    .to(OntologyPathPredicateResolver.class)
-                                    .in(SINGLETON);
-        bind(ResponseResolver.class).annotatedWith(Names.named("date"))
-                                    .to(StartAndEndDateResolver.class)
-                                    .in(SINGLETON);
+        switch (resolverPolicy) {
+            case USER_ASSISTED -> {
+                bind(ResponseResolver.class).annotatedWith(Names.named("userAssisted"))
+                                            .to(MultipleItemChoiceResolver.class)
+                                            .in(SINGLETON);
+                bind(ResponseResolver.class).annotatedWith(Names.named("ontologyPathPredicate"))
+                                            .to(OntologyPathPredicateResolver.class)
+                                            .in(SINGLETON);
+                bind(ResponseResolver.class).annotatedWith(Names.named("date"))
+                                            .to(StartAndEndDateResolver.class)
+                                            .in(SINGLETON);
+            }
+            // the automatic resolvers are cheap and answer on the calling thread
+            case AUTOMATIC -> {
+                bind(ResponseResolver.class).annotatedWith(Names.named("userAssisted"))
+                                            .to(ClosestDateResolver.class)
+                                            .in(SINGLETON);
+                bind(ResponseResolver.class).annotatedWith(Names.named("ontologyPathPredicate"))
+                                            .to(PreferredOntologyPathPredicateResolver.class)
+                                            .in(SINGLETON);
+                bind(ResponseResolver.class).annotatedWith(Names.named("date"))
+                                            .to(PreferredStartAndEndDateResolver.class)
+                                            .in(SINGLETON);
+            }
+        }
+    }
+
+    /**
+     * The pool the resources are fetched in. Shared by all the tasks so that the number of concurrent requests stays bounded.
+     *
+     * @param config the application configuration
+     *
+     * @return the fetch pool
+     */
+    @Provides
+    @Singleton
+    @Named("fetchPool")
+    ExecutorService provideFetchPool(final ApplicationConfiguration config) {
+        final int poolSize = config.<Number>getValue(CFG_KEY_FETCH_POOL_SIZE, DEFAULT_FETCH_POOL_SIZE)
+                                   .intValue();
+        return Executors.newFixedThreadPool(poolSize,
+                                            new ThreadFactoryBuilder().setNameFormat("resource-fetcher-%d")
+                                                                      .setDaemon(true)
+                                                                      .build());
+    }
+
+    /**
+     * The HTTP client all the requests go through. A single client is shared so that the connections to a host are pooled and kept alive across the requests of all the tasks.
+     *
+     * @param config the application configuration
+     *
+     * @return the HTTP client
+     */
+    @Provides
+    @Singleton
+    HttpClient provideHttpClient(final ApplicationConfiguration config) {
+        final HttpClient.Version version = HttpClient.Version.valueOf(config.getValue(CFG_KEY_HTTP_VERSION, HttpClient.Version.HTTP_2.name())
+                                                                            .toUpperCase(Locale.ROOT));
+        final long connectTimeout = config.<Number>getValue(CFG_KEY_HTTP_CONNECT_TIMEOUT_MS, DEFAULT_HTTP_CONNECT_TIMEOUT_MS)
+                                          .longValue();
+        return HttpClient.newBuilder()
+                         .version(version)
+                         .followRedirects(HttpClient.Redirect.NORMAL)
+                         .connectTimeout(Duration.ofMillis(connectTimeout))
+                         .build();
+    }
+
+    /**
+     * The pool the searches run in. Shared by all the tasks -- a task only occupies a thread while it's actually searching, not while it's waiting for a response of a resolver.
+     *
+     * @param config the application configuration
+     *
+     * @return the crawl pool
+     */
+    @Provides
+    @Singleton
+    @Named("crawlPool")
+    ExecutorService provideCrawlPool(final ApplicationConfiguration config) {
+        final int poolSize = config.<Number>getValue(CFG_KEY_CRAWL_POOL_SIZE, DEFAULT_CRAWL_POOL_SIZE)
+                                   .intValue();
+        return Executors.newFixedThreadPool(poolSize,
+                                            new ThreadFactoryBuilder().setNameFormat("crawler-%d")
+                                                                      .setDaemon(true)
+                                                                      .build());
     }
 }
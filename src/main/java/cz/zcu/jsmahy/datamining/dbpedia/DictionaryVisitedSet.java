@@ -0,0 +1,47 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.UriDictionary;
+import cz.zcu.jsmahy.datamining.util.LongHashSet;
+
+/**
+ * <p>The exact {@link VisitedSet} holding the IDs of the URIs in a {@link UriDictionary} of its own.</p>
+ * <p>The dictionary is append-only, thus it's replaced by an empty one once the set is cleared -- the URIs of a search are released along with the search.</p>
+ *
+ * @see VisitedSetType#DICTIONARY
+ * @since 1.0
+ */
+public class DictionaryVisitedSet implements VisitedSet {
+    private final boolean offHeap;
+    private final LongHashSet ids = new LongHashSet();
+    private UriDictionary uriDictionary;
+
+    /**
+     * @param offHeap whether the dictionary keeps the URIs off the heap
+     */
+    public DictionaryVisitedSet(final boolean offHeap) {
+        this.offHeap = offHeap;
+        this.uriDictionary = new UriDictionary(offHeap);
+    }
+
+    @Override
+    public boolean add(final String uri) {
+        return ids.add(uriDictionary.intern(uri));
+    }
+
+    @Override
+    public boolean contains(final String uri) {
+        final int id = uriDictionary.find(uri);
+        return id != UriDictionary.NO_ID && ids.contains(id);
+    }
+
+    @Override
+    public int size() {
+        return ids.size();
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+        uriDictionary = new UriDictionary(offHeap);
+    }
+}
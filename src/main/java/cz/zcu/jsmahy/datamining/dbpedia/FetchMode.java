@@ -0,0 +1,33 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+
+import java.util.Locale;
+
+/**
+ * The way the {@link DBPediaEndpointTask} fetches the resources down the line.
+ *
+ * @see ApplicationConfiguration#CFG_KEY_FETCH_MODE
+ * @since 1.0
+ */
+public enum FetchMode {
+    /**
+     * Dereferences the whole resources via the {@link cz.zcu.jsmahy.datamining.api.ResourceFetcher}.
+     */
+    DEREFERENCE,
+    /**
+     * Fetches only the predicates the search needs via the {@link ProjectingResourceFetcher}. The very first resource is always dereferenced as the user picks the predicates from it.
+     */
+    SPARQL;
+
+    /**
+     * @param name the name of the mode, case-insensitive
+     *
+     * @return the fetch mode
+     *
+     * @throws IllegalArgumentException if there is no mode with such name
+     */
+    public static FetchMode fromName(final String name) throws IllegalArgumentException {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,48 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import cz.zcu.jsmahy.datamining.util.LongHashSet;
+
+/**
+ * <p>The {@link VisitedSet} holding the 64-bit fingerprints of the URIs in a primitive set rather than the URIs themselves.</p>
+ * <p>The set is not exact in theory: two URIs sharing a fingerprint would be seen as one. The chance of that is below one in a billion even for a hundred thousand URIs.</p>
+ *
+ * @see VisitedSetType#FINGERPRINT
+ * @since 1.0
+ */
+public class FingerprintVisitedSet implements VisitedSet {
+    private static final HashFunction FINGERPRINT = Hashing.farmHashFingerprint64();
+
+    private final LongHashSet fingerprints = new LongHashSet();
+
+    /**
+     * @param uri the URI
+     *
+     * @return the fingerprint of the URI, stable across runs
+     */
+    static long fingerprint(final String uri) {
+        return FINGERPRINT.hashUnencodedChars(uri)
+                          .asLong();
+    }
+
+    @Override
+    public boolean add(final String uri) {
+        return fingerprints.add(fingerprint(uri));
+    }
+
+    @Override
+    public boolean contains(final String uri) {
+        return fingerprints.contains(fingerprint(uri));
+    }
+
+    @Override
+    public int size() {
+        return fingerprints.size();
+    }
+
+    @Override
+    public void clear() {
+        fingerprints.clear();
+    }
+}
@@ -0,0 +1,64 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.DataNode;
+import lombok.Value;
+import org.apache.jena.rdf.model.Resource;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * <p>The subjects found by a search that are waiting to be visited.</p>
+ * <p>The search takes a subject from the frontier, visits it, and adds the subject it leads to back to the frontier until the frontier is empty. A search follows a single line, so the
+ * frontier holds at most the next subject of the line (the initial subjects aside) and they are taken in the order they were added. Unlike a recursion, the frontier does not grow the stack with
+ * the length of the line.</p>
+ * <p>Not thread-safe, a frontier belongs to a single search.</p>
+ *
+ * @since 1.0
+ */
+public class Frontier {
+    private final Deque<Entry> deque = new ArrayDeque<>();
+
+    /**
+     * Adds a subject to the frontier.
+     *
+     * @param subject  the subject
+     * @param previous the data node of the subject the subject was found from, {@code null} if it's the initial subject
+     *
+     * @return the entry of the subject
+     */
+    public Entry add(final Resource subject, final @Nullable DataNode previous) {
+        final Entry entry = new Entry(subject, previous);
+        deque.addLast(entry);
+        return entry;
+    }
+
+    /**
+     * @return the next subject to visit, or {@code null} if the frontier is empty
+     */
+    public @Nullable Entry poll() {
+        return deque.pollFirst();
+    }
+
+    public boolean isEmpty() {
+        return deque.isEmpty();
+    }
+
+    public int size() {
+        return deque.size();
+    }
+
+    /**
+     * A subject waiting to be visited.
+     */
+    @Value
+    public static class Entry {
+        Resource subject;
+        /**
+         * The data node of the subject the subject was found from, {@code null} if it's the initial subject.
+         */
+        @Nullable
+        DataNode previous;
+    }
+}
@@ -0,0 +1,34 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The exact {@link VisitedSet} holding the URIs as they are.
+ *
+ * @see VisitedSetType#HASH
+ * @since 1.0
+ */
+public class HashVisitedSet implements VisitedSet {
+    private final Set<String> uris = new HashSet<>();
+
+    @Override
+    public boolean add(final String uri) {
+        return uris.add(uri);
+    }
+
+    @Override
+    public boolean contains(final String uri) {
+        return uris.contains(uri);
+    }
+
+    @Override
+    public int size() {
+        return uris.size();
+    }
+
+    @Override
+    public void clear() {
+        uris.clear();
+    }
+}
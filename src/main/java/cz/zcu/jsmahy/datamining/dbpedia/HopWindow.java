@@ -0,0 +1,72 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import org.apache.jena.graph.Factory;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * <p>The working model of a search that only remembers the last few hops.</p>
+ * <p>Every hop of the search reads its resources to a graph of its own. The {@link #getModel() model} is a union of these graphs where the newest graph receives all the writes. Once there are more
+ * hops than the window allows the oldest graph is dropped, so the memory and the cost of {@link Model#listStatements()} stay bounded regardless of how long the line is.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_MODEL_WINDOW_HOPS
+ * @since 1.0
+ */
+public class HopWindow {
+    /**
+     * The search reads the data of the current subject from the previous hop, so there must always be at least two hops.
+     */
+    public static final int MIN_HOPS = 2;
+    private static final Logger LOGGER = LogManager.getLogger(HopWindow.class);
+
+    private final int maxHops;
+    private final MultiUnion union = new MultiUnion();
+    private final Deque<Graph> hops = new ArrayDeque<>();
+    private final Model model = ModelFactory.createModelForGraph(union);
+
+    /**
+     * @param maxHops the maximum number of hops kept in the model, at least {@link #MIN_HOPS}
+     */
+    public HopWindow(final int maxHops) {
+        this.maxHops = Math.max(MIN_HOPS, maxHops);
+        nextHop();
+    }
+
+    /**
+     * @return the model of the whole window
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * @return the number of hops currently in the window
+     */
+    public int getHopCount() {
+        return hops.size();
+    }
+
+    /**
+     * Starts a new hop. All further writes to the {@link #getModel() model} go to the new hop. Drops the oldest hop if the window is full.
+     */
+    public void nextHop() {
+        final Graph hop = Factory.createDefaultGraph();
+        union.addGraph(hop);
+        union.setBaseGraph(hop);
+        hops.addLast(hop);
+        while (hops.size() > maxHops) {
+            final Graph eldest = hops.removeFirst();
+            union.removeGraph(eldest);
+            LOGGER.trace("Evicted a hop with {} triples", eldest.size());
+            eldest.close();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import cz.zcu.jsmahy.datamining.api.HostRequestLimiter;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.rdf.model.Model;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ResourceFetcher} that waits for the {@link HostRequestLimiter} before every request of the delegate.
+ *
+ * @since 1.0
+ */
+public class HostLimitingResourceFetcher implements ResourceFetcher {
+    private final ResourceFetcher delegate;
+    private final HostRequestLimiter limiter;
+
+    @Inject
+    public HostLimitingResourceFetcher(final @Named("http") ResourceFetcher delegate, final HostRequestLimiter limiter) {
+        this.delegate = requireNonNull(delegate);
+        this.limiter = requireNonNull(limiter);
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    public void read(final Model model, final String uri) throws HttpException {
+        try (HostRequestLimiter.Permit permit = limiter.acquire(uri)) {
+            delegate.read(model, uri);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new HttpException("Interrupted while waiting to fetch " + uri, e);
+        }
+    }
+}
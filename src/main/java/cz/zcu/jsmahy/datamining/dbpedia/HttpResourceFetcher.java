@@ -0,0 +1,125 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
+import org.apache.jena.atlas.web.ContentType;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_HTTP_REQUEST_TIMEOUT_MS;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>A {@link ResourceFetcher} that dereferences the resources via the shared {@link HttpClient} (see {@link DBPediaModule}) rather than via Jena's default HTTP handling.</p>
+ * <p>The client keeps the connections alive and reuses them, and talks HTTP/2 wherever the server does. The responses are requested gzipped and in the most compact RDF format the server
+ * offers. The triples are filtered by the {@link PredicateFilter} as they are parsed.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_HTTP_REQUEST_TIMEOUT_MS
+ * @since 1.0
+ */
+public class HttpResourceFetcher implements ResourceFetcher {
+    /**
+     * The formats in the order of preference. The line based N-Triples stream well and are cheap to parse, the XML is the last resort.
+     */
+    static final String ACCEPT = "application/rdf+thrift, application/n-triples;q=0.9, text/turtle;q=0.8, application/ld+json;q=0.5, application/rdf+xml;q=0.3, */*;q=0.1";
+    private static final Logger LOGGER = LogManager.getLogger(HttpResourceFetcher.class);
+    private static final int DEFAULT_REQUEST_TIMEOUT_MS = 30_000;
+
+    private final HttpClient httpClient;
+    private final PredicateFilter predicateFilter;
+    private final Duration requestTimeout;
+
+    @Inject
+    public HttpResourceFetcher(final ApplicationConfiguration config, final HttpClient httpClient, final PredicateFilter predicateFilter) {
+        this.httpClient = requireNonNull(httpClient);
+        this.predicateFilter = requireNonNull(predicateFilter);
+        this.requestTimeout = Duration.ofMillis(config.<Number>getValue(CFG_KEY_HTTP_REQUEST_TIMEOUT_MS, DEFAULT_REQUEST_TIMEOUT_MS)
+                                                      .longValue());
+    }
+
+    /**
+     * @param contentType the content type of the response, possibly with parameters
+     * @param uri         the URI of the resource
+     *
+     * @return the language of the content type, guessed from the URI if the content type is not an RDF one
+     */
+    static Lang toLang(final String contentType, final String uri) {
+        final Lang lang = contentType == null ? null : RDFLanguages.contentTypeToLang(ContentType.create(contentType)
+                                                                                                 .getContentTypeStr());
+        return lang != null ? lang : RDFLanguages.filenameToLang(uri, Lang.RDFXML);
+    }
+
+    @Override
+    public void read(final Model model, final String uri) throws HttpException {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri));
+        if (uri.startsWith("http:")) {
+            // HTTP/2 over plain HTTP means an h2c upgrade attempt on every request, the HTTPS requests negotiate HTTP/2 via ALPN instead
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+        final HttpRequest request = builder.timeout(requestTimeout)
+                                           .header("Accept", ACCEPT)
+                                           .header("Accept-Encoding", "gzip")
+                                           .GET()
+                                           .build();
+        try {
+            final HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            // the status is checked before the body is decoded, the body of an error is only closed so that the connection can be reused
+            try (InputStream raw = response.body()) {
+                if (ThrottledException.isThrottled(response.statusCode())) {
+                    final String retryAfter = response.headers()
+                                                      .firstValue("Retry-After")
+                                                      .orElse(null);
+                    throw new ThrottledException(response.statusCode(), "Throttled when fetching " + uri, ThrottledException.parseRetryAfter(retryAfter, ZonedDateTime.now()));
+                }
+                if (response.statusCode() >= 400) {
+                    throw new HttpException(response.statusCode(), "Failed to fetch " + uri);
+                }
+                final String contentType = response.headers()
+                                                   .firstValue("Content-Type")
+                                                   .orElse(null);
+                final Lang lang = toLang(contentType, response.uri()
+                                                              .toString());
+                LOGGER.trace("Reading {} as {} ({})", uri, lang.getName(), response.version());
+                try (InputStream body = decode(response, raw)) {
+                    // the triples the search never queries are dropped before they reach the graph
+                    RDFParser.source(body)
+                             .lang(lang)
+                             .base(uri)
+                             .parse(predicateFilter.filter(StreamRDFLib.graph(model.getGraph())));
+                }
+            }
+        } catch (IOException | RiotException e) {
+            throw new HttpException("Failed to fetch " + uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new HttpException("Interrupted while fetching " + uri, e);
+        }
+    }
+
+    private static InputStream decode(final HttpResponse<InputStream> response, final InputStream body) throws IOException {
+        final boolean gzipped = response.headers()
+                                        .firstValue("Content-Encoding")
+                                        .map("gzip"::equalsIgnoreCase)
+                                        .orElse(false);
+        return gzipped ? new GZIPInputStream(body) : body;
+    }
+}
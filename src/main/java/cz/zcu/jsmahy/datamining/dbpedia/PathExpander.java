@@ -0,0 +1,188 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Reads the whole line of a subject in a single SPARQL query instead of one query per hop.</p>
+ * <p>The line is followed via a property path made of the ontology path predicate and its configured aliases. An alias is either another predicate meaning the same (e.g. {@code dbp:successor} for
+ * {@code dbo:successor}) or an inverse one prefixed with {@code ^} (e.g. {@code ^dbo:predecessor}), just like in the SPARQL property paths. Every edge found via an alias is normalized to the
+ * ontology path predicate, so the search sees the line as if the subjects only ever used the ontology path predicate. Along with the edges, the projected predicates and the English label of every
+ * subject of the line are read.</p>
+ * <p>The query is limited to a number of solutions. If the line is too large to fit, it's not expanded at all -- a partially read line would look like it ended early. The line is then read
+ * hop by hop by the {@link ProjectingResourceFetcher} with the same {@link #aliases(Property) aliases}.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_PATH_ALIASES
+ * @since 1.0
+ */
+public class PathExpander {
+    private static final Logger LOGGER = LogManager.getLogger(PathExpander.class);
+    private static final String INVERSE = "^";
+    private static final int DEFAULT_LIMIT = 10_000;
+
+    private final SparqlService sparqlService;
+    private final boolean enabled;
+    private final int limit;
+    private final Map<String, List<String>> aliases;
+
+    @Inject
+    public PathExpander(final ApplicationConfiguration config, final SparqlService sparqlService) {
+        this(sparqlService,
+             config.getValue(CFG_KEY_PATH_EXPANSION_ENABLED, true),
+             config.<Number>getValue(CFG_KEY_PATH_EXPANSION_LIMIT, DEFAULT_LIMIT)
+                   .intValue(),
+             config.<Map<String, List<String>>>getValue(CFG_KEY_PATH_ALIASES, Map.of()));
+    }
+
+    /**
+     * @param sparqlService the SPARQL service to query the lines with
+     * @param enabled       whether the lines should be expanded at all
+     * @param limit         the maximum number of solutions of a single query
+     * @param aliases       the ontology path predicates to their aliases, the inverse aliases are prefixed with {@code ^}
+     */
+    public PathExpander(final SparqlService sparqlService, final boolean enabled, final int limit, final Map<String, List<String>> aliases) {
+        this.sparqlService = requireNonNull(sparqlService);
+        this.enabled = enabled;
+        this.limit = limit;
+        this.aliases = Map.copyOf(aliases);
+    }
+
+    /**
+     * Builds the property path of the steps, e.g. {@code (<successor>|^<predecessor>)}.
+     *
+     * @param steps the predicates of the steps, the inverse ones prefixed with {@code ^}
+     *
+     * @return the property path
+     */
+    static String createPath(final Collection<String> steps) {
+        final StringJoiner path = new StringJoiner("|", "(", ")");
+        for (final String step : steps) {
+            if (step.startsWith(INVERSE)) {
+                path.add(INVERSE + NodeFmtLib.strNT(NodeFactory.createURI(step.substring(INVERSE.length()))));
+            } else {
+                path.add(NodeFmtLib.strNT(NodeFactory.createURI(step)));
+            }
+        }
+        return path.toString();
+    }
+
+    /**
+     * Builds the {@code SELECT} query reading the line of the seed. Binds {@code ?node ?p ?o} to the triples of the line.
+     *
+     * @param seedUri             the URI of the seed subject
+     * @param pathPredicate       the ontology path predicate
+     * @param steps               the predicates of the steps, the inverse ones prefixed with {@code ^}
+     * @param projectedPredicates the predicates to read from every subject of the line
+     * @param limit               the maximum number of solutions
+     *
+     * @return the query
+     */
+    static Query createQuery(final String seedUri, final Property pathPredicate, final Collection<String> steps, final Collection<Property> projectedPredicates, final int limit) {
+        final String path = createPath(steps);
+        final StringBuilder sb = new StringBuilder("SELECT ?node ?p ?o WHERE {\n");
+        sb.append("  ")
+          .append(NodeFmtLib.strNT(NodeFactory.createURI(seedUri)))
+          .append(' ')
+          .append(path)
+          .append("* ?node .\n");
+        // some of the aliases are literals at times (e.g. dbp:successor "Wenceslaus IV"), these are the ends of the line
+        sb.append("  FILTER(isIRI(?node))\n");
+        sb.append("  {\n");
+        sb.append("    ?node ")
+          .append(path)
+          .append(" ?o .\n");
+        sb.append("    BIND(")
+          .append(NodeFmtLib.strNT(pathPredicate.asNode()))
+          .append(" AS ?p)\n");
+        sb.append("  } UNION {\n");
+        sb.append("    VALUES ?p {");
+        for (final Property predicate : projectedPredicates) {
+            sb.append(' ')
+              .append(NodeFmtLib.strNT(predicate.asNode()));
+        }
+        sb.append(" }\n");
+        sb.append("    ?node ?p ?o .\n");
+        sb.append("  } UNION {\n");
+        sb.append("    ?node ")
+          .append(NodeFmtLib.strNT(RDFS.label.asNode()))
+          .append(" ?o .\n");
+        sb.append("    FILTER(langMatches(lang(?o), \"en\"))\n");
+        sb.append("    BIND(")
+          .append(NodeFmtLib.strNT(RDFS.label.asNode()))
+          .append(" AS ?p)\n");
+        sb.append("  }\n");
+        sb.append("}\n");
+        sb.append("LIMIT ")
+          .append(limit);
+        return QueryFactory.create(sb.toString());
+    }
+
+    /**
+     * @param pathPredicate the ontology path predicate
+     *
+     * @return the aliases of the ontology path predicate, the inverse ones prefixed with {@code ^}
+     */
+    List<String> aliases(final Property pathPredicate) {
+        return aliases.getOrDefault(pathPredicate.getURI(), List.of());
+    }
+
+    /**
+     * @param pathPredicate the ontology path predicate
+     *
+     * @return the ontology path predicate followed by its aliases
+     */
+    List<String> steps(final Property pathPredicate) {
+        final List<String> steps = new ArrayList<>();
+        steps.add(pathPredicate.getURI());
+        steps.addAll(aliases(pathPredicate));
+        return steps;
+    }
+
+    /**
+     * Reads the line of the seed.
+     *
+     * @param seedUri             the URI of the seed subject
+     * @param pathPredicate       the ontology path predicate
+     * @param projectedPredicates the predicates to read from every subject of the line
+     *
+     * @return the model of the line, or empty if the expansion is disabled or the line is too large
+     *
+     * @throws HttpException if the SPARQL endpoint could not be reached
+     */
+    public Optional<Model> expand(final String seedUri, final Property pathPredicate, final Collection<Property> projectedPredicates) throws HttpException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        final long start = System.currentTimeMillis();
+        final Model line = ModelFactory.createDefaultModel();
+        final int[] solutions = {0};
+        sparqlService.select(createQuery(seedUri, pathPredicate, steps(pathPredicate), projectedPredicates, limit), solution -> {
+            line.add(solution.getResource("node"), line.createProperty(solution.getResource("p")
+                                                                               .getURI()), solution.get("o"));
+            solutions[0]++;
+        });
+        if (solutions[0] >= limit) {
+            LOGGER.info("The line of {} has more than {} triples, it will be read hop by hop", seedUri, limit);
+            return Optional.empty();
+        }
+        LOGGER.debug("Expanded the line of {} to {} triples in {}ms", seedUri, line.size(), System.currentTimeMillis() - start);
+        return Optional.of(line);
+    }
+}
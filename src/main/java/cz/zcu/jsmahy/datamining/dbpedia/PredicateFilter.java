@@ -0,0 +1,99 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDFS;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_PARSE_DROPPED_PREDICATES;
+
+/**
+ * <p>Drops the triples the search never queries while they are being parsed, i.e. before they are materialized in a graph.</p>
+ * <p>A triple is dropped if its predicate is one of the {@link ApplicationConfiguration#CFG_KEY_PARSE_DROPPED_PREDICATES dropped predicates}, or if its object is a literal tagged with a language
+ * other than English. The English {@code rdfs:label} is always kept as it's used to name the data nodes.</p>
+ * <p>The filter works on the parser's nodes, a quad is not turned into a triple to be tested.</p>
+ *
+ * @since 1.0
+ */
+public class PredicateFilter {
+    private final Set<Node> droppedPredicates = new HashSet<>();
+
+    @Inject
+    public PredicateFilter(final ApplicationConfiguration config) {
+        this(config.<List<String>>getValue(CFG_KEY_PARSE_DROPPED_PREDICATES, List.of()));
+    }
+
+    /**
+     * @param droppedPredicates the URIs of the predicates to drop
+     */
+    public PredicateFilter(final Collection<String> droppedPredicates) {
+        for (final String droppedPredicate : droppedPredicates) {
+            this.droppedPredicates.add(NodeFactory.createURI(droppedPredicate));
+        }
+    }
+
+    private static boolean isEnglish(final String lang) {
+        return lang.equalsIgnoreCase("en") || lang.regionMatches(true, 0, "en-", 0, 3);
+    }
+
+    /**
+     * @param triple the triple
+     *
+     * @return {@code true} if the triple should be kept
+     */
+    public boolean test(final Triple triple) {
+        return test(triple.getPredicate(), triple.getObject());
+    }
+
+    /**
+     * @param quad the quad
+     *
+     * @return {@code true} if the quad should be kept
+     */
+    public boolean test(final Quad quad) {
+        return test(quad.getPredicate(), quad.getObject());
+    }
+
+    private boolean test(final Node predicate, final Node object) {
+        if (object.isLiteral()) {
+            final String lang = object.getLiteralLanguage();
+            if (!lang.isEmpty() && !isEnglish(lang)) {
+                return false;
+            }
+        }
+        return predicate.equals(RDFS.Nodes.label) || !droppedPredicates.contains(predicate);
+    }
+
+    /**
+     * @param destination the stream to send the kept triples to
+     *
+     * @return a stream that sends only the kept triples to the destination
+     */
+    public StreamRDF filter(final StreamRDF destination) {
+        return new StreamRDFWrapper(destination) {
+            @Override
+            public void triple(final Triple triple) {
+                if (test(triple)) {
+                    super.triple(triple);
+                }
+            }
+
+            @Override
+            public void quad(final Quad quad) {
+                if (test(quad)) {
+                    super.quad(quad);
+                }
+            }
+        };
+    }
+}
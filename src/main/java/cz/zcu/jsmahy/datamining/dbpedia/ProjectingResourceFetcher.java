@@ -0,0 +1,141 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.common.collect.Iterables;
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_SPARQL_BATCH_SIZE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Fetches only the given predicates of resources via {@code CONSTRUCT} queries rather than dereferencing the whole resources.</p>
+ * <p>The subjects are batched with a {@code VALUES} clause so that a whole hop of the search is usually a single request. The English {@code rdfs:label} is always projected as it's used to name
+ * the data nodes.</p>
+ * <p>The edges found via the aliases of the ontology path predicate are normalized to the ontology path predicate, the same way the {@link PathExpander} does, so that a line read hop by hop is the
+ * same as an expanded one.</p>
+ *
+ * @see FetchMode#SPARQL
+ * @since 1.0
+ */
+public class ProjectingResourceFetcher {
+    private static final Logger LOGGER = LogManager.getLogger(ProjectingResourceFetcher.class);
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final SparqlService sparqlService;
+    private final int batchSize;
+
+    @Inject
+    public ProjectingResourceFetcher(final ApplicationConfiguration config, final SparqlService sparqlService) {
+        this.sparqlService = requireNonNull(sparqlService);
+        this.batchSize = config.<Number>getValue(CFG_KEY_SPARQL_BATCH_SIZE, DEFAULT_BATCH_SIZE)
+                               .intValue();
+    }
+
+    /**
+     * Builds the {@code CONSTRUCT} query projecting the predicates of the subjects.
+     *
+     * @param uris       the URIs of the subjects
+     * @param predicates the predicates to project
+     *
+     * @return the query
+     */
+    static Query createQuery(final Collection<String> uris, final Collection<Property> predicates) {
+        return createQuery(uris, predicates, null, List.of());
+    }
+
+    /**
+     * Builds the {@code CONSTRUCT} query projecting the predicates of the subjects and the edges found via the aliases of the ontology path predicate.
+     *
+     * @param uris          the URIs of the subjects
+     * @param predicates    the predicates to project
+     * @param pathPredicate the ontology path predicate the edges found via the aliases are normalized to, {@code null} if there are no aliases
+     * @param aliases       the aliases of the ontology path predicate, the inverse ones prefixed with {@code ^}
+     *
+     * @return the query
+     */
+    static Query createQuery(final Collection<String> uris, final Collection<Property> predicates, final Property pathPredicate, final Collection<String> aliases) {
+        final StringBuilder sb = new StringBuilder("CONSTRUCT { ?s ?p ?o } WHERE {\n");
+        sb.append("  VALUES ?s {");
+        for (final String uri : uris) {
+            sb.append(' ')
+              .append(NodeFmtLib.strNT(NodeFactory.createURI(uri)));
+        }
+        sb.append(" }\n");
+        sb.append("  {\n");
+        sb.append("    VALUES ?p {");
+        for (final Property predicate : predicates) {
+            sb.append(' ')
+              .append(NodeFmtLib.strNT(predicate.asNode()));
+        }
+        sb.append(" }\n");
+        sb.append("    ?s ?p ?o .\n");
+        if (pathPredicate != null && !aliases.isEmpty()) {
+            sb.append("  } UNION {\n");
+            sb.append("    ?s ")
+              .append(PathExpander.createPath(aliases))
+              .append(" ?o .\n");
+            sb.append("    BIND(")
+              .append(NodeFmtLib.strNT(pathPredicate.asNode()))
+              .append(" AS ?p)\n");
+        }
+        sb.append("  } UNION {\n");
+        sb.append("    ?s ")
+          .append(NodeFmtLib.strNT(RDFS.label.asNode()))
+          .append(" ?o .\n");
+        sb.append("    FILTER(langMatches(lang(?o), \"en\"))\n");
+        sb.append("    BIND(")
+          .append(NodeFmtLib.strNT(RDFS.label.asNode()))
+          .append(" AS ?p)\n");
+        sb.append("  }\n");
+        sb.append('}');
+        return QueryFactory.create(sb.toString());
+    }
+
+    /**
+     * Reads the projected predicates of the resources to the model.
+     *
+     * @param model      the model to read to
+     * @param uris       the URIs of the resources
+     * @param predicates the predicates to project
+     *
+     * @throws HttpException if the SPARQL endpoint could not be reached
+     */
+    public void read(final Model model, final Collection<String> uris, final Collection<Property> predicates) throws HttpException {
+        read(model, uris, predicates, null, List.of());
+    }
+
+    /**
+     * Reads the projected predicates of the resources and the edges found via the aliases of the ontology path predicate to the model.
+     *
+     * @param model         the model to read to
+     * @param uris          the URIs of the resources
+     * @param predicates    the predicates to project
+     * @param pathPredicate the ontology path predicate the edges found via the aliases are normalized to, {@code null} if there are no aliases
+     * @param aliases       the aliases of the ontology path predicate, the inverse ones prefixed with {@code ^}
+     *
+     * @throws HttpException if the SPARQL endpoint could not be reached
+     */
+    public void read(final Model model, final Collection<String> uris, final Collection<Property> predicates, final Property pathPredicate, final Collection<String> aliases)
+            throws HttpException {
+        for (final List<String> batch : Iterables.partition(uris, batchSize)) {
+            final long start = System.currentTimeMillis();
+            sparqlService.construct(createQuery(batch, predicates, pathPredicate, aliases), model);
+            LOGGER.trace("Constructing {} resources took {}ms", batch.size(), System.currentTimeMillis() - start);
+        }
+    }
+}
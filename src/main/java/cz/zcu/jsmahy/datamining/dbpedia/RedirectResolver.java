@@ -0,0 +1,242 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Resolves the {@code dbo:wikiPageRedirects} chains of many resources at once and remembers the canonical URIs.</p>
+ * <p>The unknown URIs are looked up in batches, each batch being a single {@code SELECT} query that follows the whole chain via a property path. Every resolved URI is memoized, including the
+ * ones that do not redirect at all, so a URI costs a request only the first time it's seen. The memo is a bounded cache evicting the least recently used URIs, it's appended to a file and primed
+ * from it on the next start. A URI that does not redirect is held once as both the key and the value. The memo is read without a lock shared by the searches.</p>
+ * <p>If the SPARQL endpoint fails, the URIs are considered canonical but are not memoized so that they are looked up again next time.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_REDIRECT_CACHE_FILE
+ * @since 1.0
+ */
+public class RedirectResolver {
+    public static final Property PROPERTY_REDIRECT = ResourceFactory.createProperty("http://dbpedia.org/ontology/wikiPageRedirects");
+    private static final Logger LOGGER = LogManager.getLogger(RedirectResolver.class);
+    private static final String DEFAULT_CACHE_FILE = "cache/redirects.tsv";
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final char SEPARATOR = '\t';
+
+    private final SparqlService sparqlService;
+    private final Path cacheFile;
+    private final int batchSize;
+    /**
+     * The URIs to their canonical URIs.
+     */
+    private final Cache<String, String> canonicalUris;
+    private final Object cacheWriterLock = new Object();
+    /**
+     * The writer of the file, {@code null} until the first write.
+     */
+    private BufferedWriter cacheWriter;
+
+    @Inject
+    public RedirectResolver(final ApplicationConfiguration config, final SparqlService sparqlService) {
+        this(sparqlService,
+             config.getValue(CFG_KEY_REDIRECT_CACHE_FILE, DEFAULT_CACHE_FILE),
+             config.<Number>getValue(CFG_KEY_REDIRECT_CACHE_MAX_ENTRIES, DEFAULT_MAX_ENTRIES)
+                   .intValue(),
+             config.<Number>getValue(CFG_KEY_SPARQL_BATCH_SIZE, DEFAULT_BATCH_SIZE)
+                   .intValue());
+    }
+
+    /**
+     * @param sparqlService the SPARQL service to look the redirects up with
+     * @param cacheFile     the file the resolved redirects are persisted to, {@code null} or empty to only keep them in memory
+     * @param maxEntries    the maximum number of remembered URIs
+     * @param batchSize     the maximum number of URIs looked up in a single query
+     */
+    public RedirectResolver(final SparqlService sparqlService, final String cacheFile, final int maxEntries, final int batchSize) {
+        this.sparqlService = requireNonNull(sparqlService);
+        this.cacheFile = cacheFile == null || cacheFile.isEmpty() ? null : Paths.get(cacheFile);
+        this.batchSize = batchSize;
+        this.canonicalUris = CacheBuilder.newBuilder()
+                                         .maximumSize(maxEntries)
+                                         .build();
+        if (this.cacheFile != null) {
+            loadCache();
+        }
+    }
+
+    /**
+     * Builds the {@code SELECT} query binding {@code ?s} to the subjects that redirect and {@code ?target} to the ends of their redirect chains.
+     *
+     * @param uris the URIs of the subjects
+     *
+     * @return the query
+     */
+    static Query createQuery(final Collection<String> uris) {
+        final String redirect = NodeFmtLib.strNT(PROPERTY_REDIRECT.asNode());
+        final StringBuilder sb = new StringBuilder("SELECT ?s ?target WHERE {\n");
+        sb.append("  VALUES ?s {");
+        for (final String uri : uris) {
+            sb.append(' ')
+              .append(NodeFmtLib.strNT(NodeFactory.createURI(uri)));
+        }
+        sb.append(" }\n");
+        sb.append("  ?s ")
+          .append(redirect)
+          .append("+ ?target .\n");
+        // only the end of the chain, a cycle has no end and thus no target
+        sb.append("  FILTER NOT EXISTS { ?target ")
+          .append(redirect)
+          .append(" ?next }\n");
+        sb.append('}');
+        return QueryFactory.create(sb.toString());
+    }
+
+    private void loadCache() {
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+        int lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int separator = line.indexOf(SEPARATOR);
+                if (separator <= 0) {
+                    continue;
+                }
+                remember(line.substring(0, separator), line.substring(separator + 1));
+                lines++;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to load the redirects from {}", cacheFile, e);
+            return;
+        }
+        LOGGER.info("Loaded {} redirects from {}", canonicalUris.size(), cacheFile);
+        // the file is append-only, compact it once it's mostly made of stale or evicted entries
+        if (lines > 2 * canonicalUris.size()) {
+            compactCache();
+        }
+    }
+
+    private void compactCache() {
+        final Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            for (final Map.Entry<String, String> entry : canonicalUris.asMap()
+                                                                      .entrySet()) {
+                writeEntry(writer, entry.getKey(), entry.getValue());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to compact the redirects in {}", cacheFile, e);
+            return;
+        }
+        try {
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.error("Failed to compact the redirects in {}", cacheFile, e);
+        }
+    }
+
+    private static void writeEntry(final BufferedWriter writer, final String uri, final String canonicalUri) throws IOException {
+        writer.write(uri);
+        writer.write(SEPARATOR);
+        writer.write(canonicalUri);
+        writer.newLine();
+    }
+
+    /**
+     * Resolves the canonical URIs of the given URIs. Only the URIs that have not been resolved before are looked up.
+     *
+     * @param uris the URIs
+     *
+     * @return the canonical URI of every given URI, the URIs that do not redirect map to themselves
+     */
+    public Map<String, String> resolve(final Collection<String> uris) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        final Collection<String> unknown = new LinkedHashSet<>();
+        for (final String uri : uris) {
+            final String canonicalUri = canonicalUris.getIfPresent(uri);
+            if (canonicalUri != null) {
+                result.put(uri, canonicalUri);
+            } else {
+                unknown.add(uri);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return result;
+        }
+
+        for (final List<String> batch : Iterables.partition(unknown, batchSize)) {
+            final Map<String, String> resolved = new LinkedHashMap<>();
+            batch.forEach(uri -> resolved.put(uri, uri));
+            try {
+                final long start = System.currentTimeMillis();
+                sparqlService.select(createQuery(batch), solution -> resolved.put(solution.getResource("s")
+                                                                                          .getURI(),
+                                                                                  solution.getResource("target")
+                                                                                          .getURI()));
+                LOGGER.trace("Resolving redirects of {} resources took {}ms", batch.size(), System.currentTimeMillis() - start);
+            } catch (HttpException e) {
+                LOGGER.warn("Failed to resolve redirects of {} resources: {}", batch.size(), e.getMessage());
+                result.putAll(resolved);
+                continue;
+            }
+            remember(resolved);
+            result.putAll(resolved);
+        }
+        return result;
+    }
+
+    private void remember(final String uri, final String canonicalUri) {
+        // a single string for the URIs that do not redirect
+        canonicalUris.put(uri, uri.equals(canonicalUri) ? uri : canonicalUri);
+    }
+
+    private void remember(final Map<String, String> resolved) {
+        resolved.forEach(this::remember);
+        if (cacheFile == null) {
+            return;
+        }
+        synchronized (cacheWriterLock) {
+            try {
+                if (cacheWriter == null) {
+                    final Path parent = cacheFile.toAbsolutePath()
+                                                 .getParent();
+                    if (parent != null) {
+                        Files.createDirectories(parent);
+                    }
+                    cacheWriter = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                for (final Map.Entry<String, String> entry : resolved.entrySet()) {
+                    writeEntry(cacheWriter, entry.getKey(), entry.getValue());
+                }
+                cacheWriter.flush();
+            } catch (IOException e) {
+                LOGGER.error("Failed to persist the redirects to {}", cacheFile, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.HostRequestLimiter;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.engine.http.QueryExceptionHTTP;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_HTTP_REQUEST_TIMEOUT_MS;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_SPARQL_ENDPOINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link SparqlService} that sends the queries to a remote SPARQL endpoint over the shared {@link HttpClient}. The queries go through the {@link RequestThrottle} and wait for the
+ * {@link HostRequestLimiter} just like the dereferenced resources.
+ *
+ * @see ApplicationConfiguration#CFG_KEY_SPARQL_ENDPOINT
+ * @since 1.0
+ */
+public class RemoteSparqlService implements SparqlService {
+    private static final String DEFAULT_ENDPOINT = "https://dbpedia.org/sparql";
+    private static final int DEFAULT_REQUEST_TIMEOUT_MS = 30_000;
+
+    private final String endpoint;
+    private final long requestTimeout;
+    private final HostRequestLimiter limiter;
+    private final HttpClient httpClient;
+    private final RequestThrottle throttle;
+
+    @Inject
+    public RemoteSparqlService(final ApplicationConfiguration config, final HostRequestLimiter limiter, final HttpClient httpClient, final RequestThrottle throttle) {
+        this.endpoint = config.getValue(CFG_KEY_SPARQL_ENDPOINT, DEFAULT_ENDPOINT);
+        this.requestTimeout = config.<Number>getValue(CFG_KEY_HTTP_REQUEST_TIMEOUT_MS, DEFAULT_REQUEST_TIMEOUT_MS)
+                                    .longValue();
+        this.limiter = requireNonNull(limiter);
+        this.httpClient = requireNonNull(httpClient);
+        this.throttle = requireNonNull(throttle);
+    }
+
+    @Override
+    public void construct(final Query query, final Model model) throws HttpException {
+        final Model constructed = ModelFactory.createDefaultModel();
+        throttle.execute(endpoint, () -> {
+            constructed.removeAll();
+            sendQuery(query, qe -> qe.execConstruct(constructed));
+        });
+        model.add(constructed);
+    }
+
+    @Override
+    public void select(final Query query, final Consumer<QuerySolution> solution) throws HttpException {
+        final List<QuerySolution> solutions = new ArrayList<>();
+        throttle.execute(endpoint, () -> {
+            solutions.clear();
+            sendQuery(query, qe -> {
+                final ResultSet resultSet = qe.execSelect();
+                while (resultSet.hasNext()) {
+                    solutions.add(resultSet.next());
+                }
+            });
+        });
+        solutions.forEach(solution);
+    }
+
+    @SuppressWarnings("try")
+    private void sendQuery(final Query query, final Consumer<QueryExecution> execution) throws HttpException {
+        try (HostRequestLimiter.Permit permit = limiter.acquire(endpoint);
+             QueryExecution qe = QueryExecution.service(endpoint)
+                                               .httpClient(httpClient)
+                                               .timeout(requestTimeout, TimeUnit.MILLISECONDS)
+                                               .query(query)
+                                               .build()) {
+            execution.accept(qe);
+        } catch (QueryExceptionHTTP e) {
+            if (ThrottledException.isThrottled(e.getStatusCode())) {
+                throw new ThrottledException(e.getStatusCode(), "Throttled when querying " + endpoint, null);
+            }
+            if (e.getStatusCode() <= 0) {
+                // no response at all, keep the cause so that the I/O errors are retried
+                throw new HttpException("Failed to query " + endpoint, e.getCause() == null ? e : e.getCause());
+            }
+            throw new HttpException(e.getStatusCode(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new HttpException("Interrupted while waiting to query " + endpoint, e);
+        }
+    }
+}
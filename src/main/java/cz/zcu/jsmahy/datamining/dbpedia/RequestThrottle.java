@@ -0,0 +1,231 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.HostRequestLimiter;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*;
+
+/**
+ * <p>Keeps the requests to every host within the rate the host tolerates. Every host gets its own {@link TokenBucket} and {@link CircuitBreaker}.</p>
+ * <p>A request that fails transiently (throttled, a 5xx gateway error, or an I/O error) is retried with an exponential backoff with full jitter. If the server sent a {@code Retry-After}, the
+ * request waits at least as long as it asked.</p>
+ * <p>An example usage:</p>
+ * <pre>{@code
+ * throttle.execute(uri, () -> model.read(uri));
+ * }</pre>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_RATE_LIMIT_REQUESTS_PER_SECOND
+ * @see ApplicationConfiguration#CFG_KEY_RETRY_MAX_ATTEMPTS
+ * @see ApplicationConfiguration#CFG_KEY_CIRCUIT_BREAKER_FAILURE_THRESHOLD
+ * @since 1.0
+ */
+public class RequestThrottle {
+    private static final Logger LOGGER = LogManager.getLogger(RequestThrottle.class);
+    private static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+    private static final int DEFAULT_BURST = 20;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long DEFAULT_BASE_DELAY_MS = 500;
+    private static final long DEFAULT_MAX_DELAY_MS = 30_000;
+    private static final int DEFAULT_FAILURE_THRESHOLD = 10;
+    private static final long DEFAULT_OPEN_MS = 30_000;
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+
+    @Inject
+    public RequestThrottle(final ApplicationConfiguration config) {
+        this(config.<Number>getValue(CFG_KEY_RATE_LIMIT_REQUESTS_PER_SECOND, DEFAULT_REQUESTS_PER_SECOND)
+                   .doubleValue(),
+             config.<Number>getValue(CFG_KEY_RATE_LIMIT_BURST, DEFAULT_BURST)
+                   .intValue(),
+             config.<Number>getValue(CFG_KEY_RETRY_MAX_ATTEMPTS, DEFAULT_MAX_ATTEMPTS)
+                   .intValue(),
+             config.<Number>getValue(CFG_KEY_RETRY_BASE_DELAY_MS, DEFAULT_BASE_DELAY_MS)
+                   .longValue(),
+             config.<Number>getValue(CFG_KEY_RETRY_MAX_DELAY_MS, DEFAULT_MAX_DELAY_MS)
+                   .longValue(),
+             config.<Number>getValue(CFG_KEY_CIRCUIT_BREAKER_FAILURE_THRESHOLD, DEFAULT_FAILURE_THRESHOLD)
+                   .intValue(),
+             config.<Number>getValue(CFG_KEY_CIRCUIT_BREAKER_OPEN_MS, DEFAULT_OPEN_MS)
+                   .longValue());
+    }
+
+    /**
+     * @param requestsPerSecond the maximum number of requests per second to a single host
+     * @param burst             the maximum number of requests in a burst to a single host
+     * @param maxAttempts       the maximum number of attempts of a single request
+     * @param baseDelayMillis   the delay before the first retry, doubled with every other retry
+     * @param maxDelayMillis    the maximum delay before a retry
+     * @param failureThreshold  the number of consecutive failures that open the circuit of the host
+     * @param openMillis        how long the circuit of the host stays open
+     */
+    public RequestThrottle(final double requestsPerSecond,
+                           final int burst,
+                           final int maxAttempts,
+                           final long baseDelayMillis,
+                           final long maxDelayMillis,
+                           final int failureThreshold,
+                           final long openMillis) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("The maximum number of attempts must be positive.");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @param e the exception the request failed with
+     *
+     * @return {@code true} if the request might succeed when repeated
+     */
+    static boolean isTransient(final HttpException e) {
+        if (e instanceof ThrottledException) {
+            return true;
+        }
+        final int statusCode = e.getStatusCode();
+        return statusCode == 500 || statusCode == 502 || statusCode == 503 || statusCode == 504 || (statusCode == -1 && e.getCause() instanceof IOException);
+    }
+
+    /**
+     * Sends the request, waiting for the rate limit of its host and retrying it if it fails transiently.
+     *
+     * @param uri     the URI the request is sent to
+     * @param request the request
+     *
+     * @throws HttpException if the request failed for good, the circuit of the host is open, or the thread was interrupted
+     */
+    public void execute(final String uri, final Request request) throws HttpException {
+        final String hostName = HostRequestLimiter.hostOf(uri);
+        final Host host = hosts.computeIfAbsent(hostName, name -> new Host());
+        for (int attempt = 1; ; attempt++) {
+            if (!host.circuitBreaker.allowRequest()) {
+                throw new HttpException("The circuit of " + hostName + " is open, not requesting " + uri);
+            }
+            try {
+                attempt(host, request);
+                return;
+            } catch (HttpException e) {
+                if (!isTransient(e)) {
+                    throw e;
+                }
+                if (e instanceof ThrottledException) {
+                    host.tokenBucket.onThrottled();
+                }
+                if (attempt >= maxAttempts) {
+                    LOGGER.warn("Giving up on {} after {} attempts", uri, attempt);
+                    throw e;
+                }
+                final long delay = delayMillis(attempt, e);
+                LOGGER.debug("Request to {} failed ({}), retrying in {}ms", uri, e.getMessage(), delay);
+                sleep(delay, uri);
+            } catch (InterruptedException e) {
+                throw interrupted(uri, e);
+            }
+        }
+    }
+
+    /**
+     * @param uri the URI of the host
+     *
+     * @return the state of the circuit of the host, {@link CircuitBreaker.State#CLOSED} if nothing was requested from the host yet
+     */
+    public CircuitBreaker.State getCircuitState(final String uri) {
+        final Host host = hosts.get(HostRequestLimiter.hostOf(uri));
+        return host == null ? CircuitBreaker.State.CLOSED : host.circuitBreaker.getState();
+    }
+
+    /**
+     * Sends the request once and reports the outcome to the circuit breaker of the host.
+     */
+    private void attempt(final Host host, final Request request) throws HttpException, InterruptedException {
+        boolean responded = false;
+        try {
+            host.tokenBucket.acquire();
+            request.send();
+            responded = true;
+        } catch (HttpException e) {
+            // the host did respond if the error is not transient, it's the request that's wrong
+            responded = !isTransient(e);
+            throw e;
+        } finally {
+            // anything else -- an interrupt or an unchecked exception included -- counts as a failure, otherwise a half-open circuit would wait for its trial forever
+            if (responded) {
+                host.circuitBreaker.onSuccess();
+            } else {
+                host.circuitBreaker.onFailure();
+            }
+        }
+        host.tokenBucket.onSuccess();
+    }
+
+    /**
+     * @param attempt the attempt that failed, starting at {@code 1}
+     * @param e       the exception the attempt failed with
+     *
+     * @return how long to wait before the next attempt
+     */
+    long delayMillis(final int attempt, final HttpException e) {
+        final long backoff = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        // full jitter -- spreads the retries of the concurrent requests
+        final long jittered = ThreadLocalRandom.current()
+                                               .nextLong(backoff + 1);
+        final long retryAfter = e instanceof ThrottledException throttled ?
+                                throttled.getRetryAfter()
+                                         .map(Duration::toMillis)
+                                         .orElse(0L) :
+                                0L;
+        return Math.max(jittered, retryAfter);
+    }
+
+    private void sleep(final long delayMillis, final String uri) throws HttpException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            throw interrupted(uri, e);
+        }
+    }
+
+    private HttpException interrupted(final String uri, final InterruptedException e) {
+        Thread.currentThread()
+              .interrupt();
+        return new HttpException("Interrupted while requesting " + uri, e);
+    }
+
+    /**
+     * A request to a host.
+     */
+    @FunctionalInterface
+    public interface Request {
+        /**
+         * @throws HttpException if the request failed
+         */
+        void send() throws HttpException;
+    }
+
+    private final class Host {
+        private final TokenBucket tokenBucket = new TokenBucket(requestsPerSecond, burst);
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    }
+}
@@ -0,0 +1,19 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.ResponseResolver;
+
+/**
+ * The {@link ResponseResolver}s the {@link DBPediaModule} binds.
+ *
+ * @since 1.0
+ */
+public enum ResolverPolicy {
+    /**
+     * The user chooses from dialogs. The search waits for the user.
+     */
+    USER_ASSISTED,
+    /**
+     * The resolvers answer immediately: the path and date predicates are chosen by the preferences in the configuration, and the line continues with the candidate of the closest date.
+     */
+    AUTOMATIC
+}
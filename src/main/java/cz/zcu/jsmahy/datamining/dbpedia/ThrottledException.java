@@ -0,0 +1,71 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import org.apache.jena.atlas.web.HttpException;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Thrown when the server asks us to slow down, i.e. responds with {@code 429 Too Many Requests} or {@code 503 Service Unavailable}.
+ *
+ * @since 1.0
+ */
+public class ThrottledException extends HttpException {
+    private static final long serialVersionUID = 1L;
+    private final Duration retryAfter;
+
+    /**
+     * @param statusCode the status code
+     * @param message    the message
+     * @param retryAfter how long the server asked us to wait, {@code null} if it did not say
+     */
+    public ThrottledException(final int statusCode, final String message, final @Nullable Duration retryAfter) {
+        super(statusCode, message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @param statusCode the status code
+     *
+     * @return {@code true} if the status code means the server throttles us
+     */
+    public static boolean isThrottled(final int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    /**
+     * Parses the {@code Retry-After} header -- either the number of seconds or an HTTP date.
+     *
+     * @param retryAfter the header value
+     * @param now        the current time
+     *
+     * @return how long to wait, {@code null} if the header is missing or invalid
+     */
+    public static @Nullable Duration parseRetryAfter(final @Nullable String retryAfter, final ZonedDateTime now) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.strip())));
+        } catch (NumberFormatException ignored) {
+            // not seconds, try the date
+        }
+        try {
+            final Duration duration = Duration.between(now, ZonedDateTime.parse(retryAfter.strip(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return how long the server asked us to wait
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -0,0 +1,37 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
+import org.apache.jena.atlas.web.HttpException;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ResourceFetcher} that sends the requests of the delegate through the {@link RequestThrottle}. Every attempt reads to a model of its own so that a failed attempt does not leave a partial
+ * description in the target model.
+ *
+ * @since 1.0
+ */
+public class ThrottlingResourceFetcher implements ResourceFetcher {
+    private final ResourceFetcher delegate;
+    private final RequestThrottle throttle;
+
+    @Inject
+    public ThrottlingResourceFetcher(final @Named("limited") ResourceFetcher delegate, final RequestThrottle throttle) {
+        this.delegate = requireNonNull(delegate);
+        this.throttle = requireNonNull(throttle);
+    }
+
+    @Override
+    public void read(final Model model, final String uri) throws HttpException {
+        final Model fetched = ModelFactory.createDefaultModel();
+        throttle.execute(uri, () -> {
+            fetched.removeAll();
+            delegate.read(fetched, uri);
+        });
+        model.add(fetched);
+    }
+}
@@ -0,0 +1,100 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>An adaptive token bucket rate limiter. The bucket refills at the current rate up to its capacity, every request takes a token and waits until there is one.</p>
+ * <p>The rate adapts to the server: it's halved every time the server throttles us and it recovers additively with every successful request up to the configured rate (AIMD). This keeps the
+ * sustained throughput just under the limit of the server rather than oscillating around it.</p>
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public class TokenBucket {
+    /**
+     * The fraction of the maximum rate the rate recovers by with every successful request.
+     */
+    private static final double RECOVERY_STEP = 0.05;
+    private final double maxRate;
+    private final double minRate;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param maxRate  the maximum number of requests per second
+     * @param capacity the maximum number of requests in a burst
+     */
+    public TokenBucket(final double maxRate, final double capacity) {
+        this(maxRate, capacity, System::nanoTime);
+    }
+
+    /**
+     * @param maxRate   the maximum number of requests per second
+     * @param capacity  the maximum number of requests in a burst
+     * @param nanoClock the clock in nanoseconds
+     *
+     * @throws IllegalArgumentException if the rate or the capacity is not positive
+     */
+    public TokenBucket(final double maxRate, final double capacity, final LongSupplier nanoClock) throws IllegalArgumentException {
+        if (maxRate <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("The rate and the capacity must be positive.");
+        }
+        this.maxRate = maxRate;
+        this.minRate = maxRate / 100;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.rate = maxRate;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token, possibly going into debt -- the debt is what makes the waiting requests fair.
+     *
+     * @return how long to wait in nanoseconds before the request can be sent
+     */
+    public synchronized long reserve() {
+        final long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Waits until a request can be sent.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Halves the rate, the server asked us to slow down.
+     */
+    public synchronized void onThrottled() {
+        rate = Math.max(minRate, rate / 2);
+    }
+
+    /**
+     * Recovers the rate a bit.
+     */
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + maxRate * RECOVERY_STEP);
+    }
+
+    /**
+     * @return the current number of requests per second
+     */
+    public synchronized double getRate() {
+        return rate;
+    }
+}
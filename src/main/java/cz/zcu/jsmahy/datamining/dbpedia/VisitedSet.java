@@ -0,0 +1,38 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+
+/**
+ * <p>The URIs of the subjects a search has visited (or added to its {@link Frontier}), used to avoid getting stuck in a cycle.</p>
+ * <p>The implementations trade exactness for memory, see {@link VisitedSetType}.</p>
+ *
+ * @see ApplicationConfiguration#CFG_KEY_VISITED_SET
+ * @since 1.0
+ */
+public interface VisitedSet {
+    /**
+     * Marks the URI as visited.
+     *
+     * @param uri the URI
+     *
+     * @return {@code true} if the URI has not been visited yet
+     */
+    boolean add(String uri);
+
+    /**
+     * @param uri the URI
+     *
+     * @return whether the URI has been visited
+     */
+    boolean contains(String uri);
+
+    /**
+     * @return the number of the visited URIs
+     */
+    int size();
+
+    /**
+     * Forgets all the visited URIs.
+     */
+    void clear();
+}
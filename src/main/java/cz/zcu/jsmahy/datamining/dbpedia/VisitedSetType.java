@@ -0,0 +1,51 @@
+package cz.zcu.jsmahy.datamining.dbpedia;
+
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+
+import java.util.Locale;
+
+/**
+ * The implementations of the {@link VisitedSet}.
+ *
+ * @see ApplicationConfiguration#CFG_KEY_VISITED_SET
+ * @since 1.0
+ */
+public enum VisitedSetType {
+    /**
+     * The URIs as they are. Exact, but a URI costs a hundred bytes or more.
+     */
+    HASH,
+    /**
+     * The IDs of the URIs in a dictionary of the set in a primitive set. Exact, a URI costs its UTF-8 bytes and a few bytes on top of them.
+     */
+    DICTIONARY,
+    /**
+     * The 64-bit fingerprints of the URIs in a primitive set, about a dozen bytes per URI. Two URIs sharing a fingerprint are practically impossible even for billions of URIs.
+     */
+    FINGERPRINT;
+
+    /**
+     * @param name the name of the type, case-insensitive
+     *
+     * @return the type
+     *
+     * @throws IllegalArgumentException if there is no type with such name
+     */
+    public static VisitedSetType fromName(final String name) throws IllegalArgumentException {
+        return valueOf(name.toUpperCase(Locale.ROOT)
+                           .replace('-', '_'));
+    }
+
+    /**
+     * @param offHeap whether the dictionary of the {@link #DICTIONARY} set keeps the URIs off the heap, ignored by the other types
+     *
+     * @return a new empty visited set of this type
+     */
+    public VisitedSet create(final boolean offHeap) {
+        return switch (this) {
+            case HASH -> new HashVisitedSet();
+            case DICTIONARY -> new DictionaryVisitedSet(offHeap);
+            case FINGERPRINT -> new FingerprintVisitedSet();
+        };
+    }
+}
@@ -2,16 +2,12 @@ package cz.zcu.jsmahy.datamining.export;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.zcu.jsmahy.datamining.api.*;
+import cz.zcu.jsmahy.datamining.util.LongObjectHashMap;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-
-import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_RELATIONSHIPS;
 
 @Deprecated
 public class FialaBPDeserializer {
@@ -65,33 +61,18 @@ public class FialaBPDeserializer {
             }
         }
 
-        final Field[] edgeFields = FialaBPExportEdgeFormat.class.getDeclaredFields();
-        for (Field field : edgeFields) {
-            field.trySetAccessible();
+        // the edges point to the IDs in the file, the data nodes have new ones
+        final LongObjectHashMap<DataNode> dataNodes = new LongObjectHashMap<>(root.getChildren()
+                                                                                  .size());
+        for (final DataNode dataNode : root.getChildren()) {
+            dataNodes.put(dataNode.getValue("id", -1L), dataNode);
         }
+        final EdgeTable edges = root.getEdges();
         for (final FialaBPExportEdgeFormat edge : bpFormatRoot.getEdges()) {
-            final Optional<? extends DataNode> targetNode = root.getChildren()
-                                                                .stream()
-                                                                .filter(x -> x.getValue("id", -1) == edge.getFrom())
-                                                                .findAny();
-            assert targetNode.isPresent(); // if it's not present some implementation changed
-
-            final DataNode dataNode = targetNode.get();
-            final List<ArbitraryDataHolder> relationships = dataNode.getValue(METADATA_KEY_RELATIONSHIPS, new ArrayList<>());
-
-            final ArbitraryDataHolder relationship = new DefaultArbitraryDataHolder();
-            for (final Field field : edgeFields) {
-                try {
-                    relationship.addMetadata(field.getName(), field.get(edge));
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-            relationships.add(relationship);
-
-            if (!dataNode.hasMetadataKey(METADATA_KEY_RELATIONSHIPS)) {
-                dataNode.addMetadata(METADATA_KEY_RELATIONSHIPS, relationships);
-            }
+            final DataNode from = dataNodes.get(edge.getFrom());
+            assert from != null; // if it's not present some implementation changed
+            final DataNode to = dataNodes.get(edge.getTo());
+            edges.add(from.getId(), to == null ? edge.getTo() : to.getId(), edge.getName(), edge.getStereotype());
         }
         return root;
     }
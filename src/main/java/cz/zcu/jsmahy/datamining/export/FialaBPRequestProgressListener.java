@@ -3,6 +3,7 @@ package cz.zcu.jsmahy.datamining.export;
 import com.google.inject.Inject;
 import cz.zcu.jsmahy.datamining.Main;
 import cz.zcu.jsmahy.datamining.api.*;
+import cz.zcu.jsmahy.datamining.util.FxUpdateCoalescer;
 import cz.zcu.jsmahy.datamining.util.SearchDialog;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
@@ -22,10 +23,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 
-import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_NAME;
-import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_RELATIONSHIPS;
 import static cz.zcu.jsmahy.datamining.export.FialaBPMetadataKeys.*;
 import static java.util.Objects.requireNonNull;
 
@@ -40,56 +38,32 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
     private final ObjectProperty<Property> endDate = new SimpleObjectProperty<>();
     private final ObjectProperty<TreeItem<DataNode>> treeRoot = new SimpleObjectProperty<>();
     private final ObjectProperty<QueryData> queryData = new SimpleObjectProperty<>();
+    private final DataNodeTreeItemIndex treeItemIndex = new DataNodeTreeItemIndex();
+    /**
+     * The tree updates of a search, a fast search adds thousands of data nodes per second.
+     */
+    private final FxUpdateCoalescer treeUpdates = new FxUpdateCoalescer();
 
     @Inject
     private SparqlEndpointAgent<?> sparqlEndpointAgent;
     @Inject
     private SparqlQueryServiceHolder serviceHolder;
 
-    private void findTreeItem(DataNode dataNode, TreeItem<DataNode> currTreeItem, AtomicReference<TreeItem<DataNode>> ref) {
-        for (final TreeItem<DataNode> child : currTreeItem.getChildren()) {
-            final long childId = child.getValue()
-                                      .getId();
-            if (childId == dataNode.getId()) {
-                ref.set(child);
-                return;
-            }
-            if (!child.getChildren()
-                      .isEmpty()) {
-                findTreeItem(dataNode, child, ref);
-            }
-        }
+    public FialaBPRequestProgressListener() {
+        treeRoot.addListener((observable, oldTreeRoot, newTreeRoot) -> treeItemIndex.setTreeRoot(newTreeRoot));
     }
 
-    // TODO: test this method!
-    public TreeItem<DataNode> findTreeItem(final DataNode dataNode) {
+    /**
+     * @param dataNode the data node
+     *
+     * @return the tree item of the data node
+     *
+     * @throws NoSuchElementException if the data node has no tree item, e.g. because its parent is collapsed
+     */
+    public TreeItem<DataNode> findTreeItem(final DataNode dataNode) throws NoSuchElementException {
         requireNonNull(dataNode);
         requireNonNull(treeRoot.get());
-
-        // first iterate over all of root's children, then recursively check for the children of each node
-        // if we don't find anything after the last element of the root's children no such tree item was found
-        // this might look duplicate in the helper method, but we need to ensure that the inner children don't throw an exception in the
-        // inner loops because they aren't required to have the tree item present, whereas the root is
-        // thus the check at the end of this loop and no check in the helper recursive method (i.e. if we threw the exception in the
-        // inner loop the search would terminate prematurely; we need to terminate after the last of root's children is checked)
-        final AtomicReference<TreeItem<DataNode>> ref = new AtomicReference<>();
-        for (final TreeItem<DataNode> child : treeRoot.get()
-                                                      .getChildren()) {
-            if (ref.get() != null) {
-                break;
-            }
-            final long childId = child.getValue()
-                                      .getId();
-            if (childId == dataNode.getId()) {
-                ref.set(child);
-                break;
-            }
-            if (!child.getChildren()
-                      .isEmpty()) {
-                findTreeItem(dataNode, child, ref);
-            }
-        }
-        final TreeItem<DataNode> treeItem = ref.get();
+        final TreeItem<DataNode> treeItem = treeItemIndex.get(dataNode);
         if (treeItem == null) {
             throw new NoSuchElementException(String.format("Data node %s not found.", dataNode));
         }
@@ -123,6 +97,20 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
 
     @Override
     public void onAddRelationship(final DataNode prev, final DataNode curr) {
+        addRelationship(prev,
+                        curr,
+                        queryData.get()
+                                 .getOntologyPathPredicate());
+    }
+
+    /**
+     * Adds the default FialaBP metadata to the current data node and a relationship pointing to the previous data node, if there is one.
+     *
+     * @param prev                  the previous data node, may be {@code null}
+     * @param curr                  the current data node
+     * @param ontologyPathPredicate the predicate the relationship is named after
+     */
+    public static void addRelationship(final DataNode prev, final DataNode curr, final Property ontologyPathPredicate) {
         // TODO: Let user set this stereotype, but default to person
         curr.addMetadata(METADATA_KEY_STEREOTYPE, METADATA_DEFAULT_STEREOTYPE);
         // TODO: Let user choose the date type, but default to day
@@ -133,23 +121,11 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
             return;
         }
 
-        final List<ArbitraryDataHolder> relationships = curr.getValue(METADATA_KEY_RELATIONSHIPS, new ArrayList<>());
         // TODO: Relationship can go the opposite way
         // For now leave it like this
-        final ArbitraryDataHolder relationship = new DefaultArbitraryDataHolder();
-        relationship.addMetadata(METADATA_KEY_FROM, curr.getId());
-        relationship.addMetadata(METADATA_KEY_TO, prev.getId());
-        relationship.addMetadata(METADATA_KEY_NAME,
-                                 queryData.get()
-                                          .getOntologyPathPredicate()
-                                          .getLocalName());
-
-        // TODO: User input
-        relationship.addMetadata(METADATA_KEY_STEREOTYPE, DEFAULT_STEREOTYPE);
-        relationships.add(relationship);
-        if (!curr.hasMetadataKey(METADATA_KEY_RELATIONSHIPS)) {
-            curr.addMetadata(METADATA_KEY_RELATIONSHIPS, relationships);
-        }
+        // TODO: User input for the stereotype
+        curr.getEdges()
+            .add(curr.getId(), prev.getId(), ontologyPathPredicate.getLocalName(), DEFAULT_STEREOTYPE);
     }
 
     @Override
@@ -165,14 +141,7 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
 
         LOGGER.trace("Adding multiple data nodes '{}' under '{}'", newDataNodes, parent);
 
-        Platform.runLater(() -> {
-            final TreeItem<DataNode> treeItem = findTreeItem(parent);
-            treeItem.getChildren()
-                    .addAll(newDataNodes.stream()
-                                        .map(TreeItem::new)
-                                        .toList());
-            treeItem.setExpanded(true);
-        });
+        postChildren(parent, newDataNodes);
     }
 
     @Override
@@ -188,14 +157,42 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
     @Override
     public void onAddMultipleDataNodes(final DataNode dataNodesParent, final List<DataNode> dataNodes) {
         LOGGER.trace("Adding multiple data nodes '{}' under '{}'", dataNodes, dataNodesParent);
-        Platform.runLater(() -> {
-            final TreeItem<DataNode> treeItem = findTreeItem(dataNodesParent);
+        postChildren(dataNodesParent, dataNodes);
+    }
+
+    /**
+     * Posts the new children to be shown in the next frame, along with all the other children of the parent added until then.
+     *
+     * @param parent    the parent of the new children
+     * @param dataNodes the new children
+     */
+    private void postChildren(final DataNode parent, final List<DataNode> dataNodes) {
+        for (final DataNode dataNode : dataNodes) {
+            treeUpdates.postBatched(parent.getId(), dataNode, batch -> showChildren(parent, batch));
+        }
+    }
+
+    /**
+     * Shows the new children under the tree item of the parent and expands it. The items of the children of a {@link LazyDataNodeTreeItem} are created from its data node once it expands.
+     *
+     * @param parent    the parent of the new children
+     * @param dataNodes the new children
+     */
+    private void showChildren(final DataNode parent, final List<DataNode> dataNodes) {
+        final TreeItem<DataNode> treeItem = treeItemIndex.get(parent);
+        if (treeItem == null) {
+            // the parent is under a collapsed item, the children are shown once it expands
+            return;
+        }
+        if (treeItem instanceof LazyDataNodeTreeItem lazyTreeItem) {
+            lazyTreeItem.refresh();
+        } else {
             treeItem.getChildren()
                     .addAll(dataNodes.stream()
-                                     .map(TreeItem::new)
+                                     .map(LazyDataNodeTreeItem::new)
                                      .toList());
-            treeItem.setExpanded(true);
-        });
+        }
+        treeItem.setExpanded(true);
     }
 
     @Override
@@ -270,7 +267,7 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
         assert newDataNodeRoot.isRoot(); // the data node should really be a root
         assert treeRoot != null;         // and the tree root should be set
         treeRoot.getChildren()
-                .add(new TreeItem<>(newDataNodeRoot));
+                .add(new LazyDataNodeTreeItem(newDataNodeRoot));
     }
 
     @Override
@@ -298,13 +295,10 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
     }
 
     private void deleteDataNode(final DataNode dataNode) {
-        Platform.runLater(() -> {
-            try {
-                final TreeItem<DataNode> treeItem = findTreeItem(dataNode);
-                treeItem.getParent()
-                        .getChildren()
-                        .remove(treeItem);
-            } catch (NoSuchElementException ignored) {
+        // in the order of the pending additions
+        treeUpdates.post(() -> {
+            final TreeItem<DataNode> treeItem = treeItemIndex.get(dataNode);
+            if (treeItem == null) {
                 // the tree item could be removed and the link to the data node removed, thus it's possible we fail to find a tree item with that node
                 // graphical representation:
                 //  R
@@ -317,37 +311,20 @@ public class FialaBPRequestProgressListener implements RequestProgressListener {
                 //  │   └── G
                 //  └── H
                 // if we delete node B or F, the nodes C, D, E or G are no longer reachable by the parent
+                return;
             }
+            treeItem.getParent()
+                    .getChildren()
+                    .remove(treeItem);
         });
-        // delete all relationships pointing to this datanode
-        // we start from root and then check for all the data nodes
-        // TODO: this could definitely be optimized, but it should not be that expensive anyways
-        // also yes, we could use the ifPresent(Consumer) methods, but I found that unreadable
-        final long id = dataNode.getId();
+        // delete all relationships going from or to this data node, only the edges of this data node are visited
         final Optional<? extends DataNode> rootOpt = dataNode.findRoot();
         if (rootOpt.isEmpty()) {
+            // the root itself is deleted along with its edges
             return;
         }
-
-        // now iterate through all the items of the root, and for each check if it has a relationship
-        // if it has a relationship, check if the "to" value points to this data node
-        // if it does, remove the relationship
-        final DataNode root = rootOpt.get();
-        root.iterate((child, depth) -> {
-            if (!child.hasMetadataKey(METADATA_KEY_RELATIONSHIPS)) {
-                return;
-            }
-            if (child.getValueUnsafe(METADATA_KEY_RELATIONSHIPS) instanceof List<?> relationships) {
-                final Iterator<?> it = relationships.iterator();
-                while (it.hasNext()) {
-                    Object obj = it.next();
-                    if (obj instanceof ArbitraryDataHolder relationship) {
-                        if (relationship.getValue(METADATA_KEY_TO, Long.MIN_VALUE) == id) {
-                            it.remove();
-                        }
-                    }
-                }
-            }
-        });
+        rootOpt.get()
+               .getEdges()
+               .removeDataNode(dataNode.getId());
     }
 }
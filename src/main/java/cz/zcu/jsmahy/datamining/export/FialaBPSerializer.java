@@ -3,6 +3,7 @@ package cz.zcu.jsmahy.datamining.export;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import cz.zcu.jsmahy.datamining.api.*;
+import cz.zcu.jsmahy.datamining.util.LongHashSet;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Service;
 import org.apache.logging.log4j.LogManager;
@@ -19,8 +20,6 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static cz.zcu.jsmahy.datamining.Main.TOP_LEVEL_FRONTEND_DIRECTORY_NAME;
-import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_NAME;
-import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_RELATIONSHIPS;
 import static cz.zcu.jsmahy.datamining.export.FialaBPMetadataKeys.*;
 import static cz.zcu.jsmahy.datamining.util.Alerts.alertFileExists;
 
@@ -71,7 +70,7 @@ public class FialaBPSerializer implements DataNodeSerializer {
     public void serialize(final OutputStream out, final DataNode root) throws IOException {
         final List<? extends DataNode> dataNodes = root.getChildren();
         final List<FialaBPExportNodeFormat> nodes = getNodes(dataNodes);
-        final List<FialaBPExportEdgeFormat> edges = getEdges(dataNodes);
+        final List<FialaBPExportEdgeFormat> edges = getEdges(root, dataNodes);
         final FialaBPExportFormatRoot exportRoot = new FialaBPExportFormatRoot(nodes, edges);
         serialize(out, exportRoot);
     }
@@ -90,22 +89,19 @@ public class FialaBPSerializer implements DataNodeSerializer {
         }
     }
 
-    private List<FialaBPExportEdgeFormat> getEdges(final List<? extends DataNode> dataNodes) {
-        final List<FialaBPExportEdgeFormat> edges = new ArrayList<>();
-        long id = 1;
-        for (DataNode dataNode : dataNodes) {
-            final Optional<List<ArbitraryDataHolder>> opt = dataNode.getValue(METADATA_KEY_RELATIONSHIPS);
-            if (opt.isEmpty()) {
-                continue;
-            }
-            for (final ArbitraryDataHolder relationship : opt.get()) {
-                final String stereotype = relationship.getValue(METADATA_KEY_STEREOTYPE, "");
-                final Long from = relationship.getValue(METADATA_KEY_FROM, -1L);
-                final Long to = relationship.getValue(METADATA_KEY_TO, -1L);
-                final String name = relationship.getValue(METADATA_KEY_NAME, "");
-                edges.add(new FialaBPExportEdgeFormat(id++, stereotype, from, to, name));
-            }
+    private List<FialaBPExportEdgeFormat> getEdges(final DataNode root, final List<? extends DataNode> dataNodes) {
+        // only the exported nodes have their edges exported
+        final LongHashSet ids = new LongHashSet(dataNodes.size());
+        for (final DataNode dataNode : dataNodes) {
+            ids.add(dataNode.getId());
         }
+        final EdgeTable edgeTable = root.getEdges();
+        final List<FialaBPExportEdgeFormat> edges = new ArrayList<>(edgeTable.size());
+        edgeTable.forEach((from, to, name, stereotype) -> {
+            if (ids.contains(from)) {
+                edges.add(new FialaBPExportEdgeFormat(edges.size() + 1, stereotype, from, to, name));
+            }
+        });
         return edges;
     }
 
@@ -0,0 +1,34 @@
+package cz.zcu.jsmahy.datamining.offline;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.system.Txn;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ResourceFetcher} that "dereferences" the resources by reading the statements about them from a local dataset. A resource missing in the dataset simply has no statements, just like an
+ * unknown resource of the live DBPedia.
+ *
+ * @see DumpImporter
+ * @since 1.0
+ */
+public class DatasetResourceFetcher implements ResourceFetcher {
+    private final Dataset dataset;
+
+    @Inject
+    public DatasetResourceFetcher(final Dataset dataset) {
+        this.dataset = requireNonNull(dataset);
+    }
+
+    @Override
+    public void read(final Model model, final String uri) {
+        Txn.executeRead(dataset, () -> {
+            final Model defaultModel = dataset.getDefaultModel();
+            model.add(defaultModel.listStatements(defaultModel.createResource(uri), null, (RDFNode) null));
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package cz.zcu.jsmahy.datamining.offline;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.QuerySolutionMap;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.system.Txn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link SparqlService} that executes the queries against a local dataset in read transactions.
+ *
+ * @see DumpImporter
+ * @since 1.0
+ */
+public class DatasetSparqlService implements SparqlService {
+    private final Dataset dataset;
+
+    @Inject
+    public DatasetSparqlService(final Dataset dataset) {
+        this.dataset = requireNonNull(dataset);
+    }
+
+    @Override
+    public void construct(final Query query, final Model model) {
+        Txn.executeRead(dataset, () -> {
+            try (QueryExecution qe = QueryExecution.dataset(dataset)
+                                                   .query(query)
+                                                   .build()) {
+                qe.execConstruct(model);
+            }
+        });
+    }
+
+    @Override
+    public void select(final Query query, final Consumer<QuerySolution> solution) {
+        final List<QuerySolution> solutions = new ArrayList<>();
+        Txn.executeRead(dataset, () -> {
+            try (QueryExecution qe = QueryExecution.dataset(dataset)
+                                                   .query(query)
+                                                   .build()) {
+                qe.execSelect()
+                  .forEachRemaining(result -> {
+                      // the solutions of TDB read the nodes lazily, copy them while the transaction is still open
+                      final QuerySolutionMap copy = new QuerySolutionMap();
+                      result.varNames()
+                            .forEachRemaining(var -> copy.add(var, result.get(var)));
+                      solutions.add(copy);
+                  });
+            }
+        });
+        solutions.forEach(solution);
+    }
+}
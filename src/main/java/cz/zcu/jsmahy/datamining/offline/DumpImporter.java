@@ -0,0 +1,115 @@
+package cz.zcu.jsmahy.datamining.offline;
+
+import cz.zcu.jsmahy.datamining.dbpedia.PredicateFilter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.system.Txn;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Streams DBPedia dump files (e.g. the mapping-based objects, labels and redirects) into the default graph of a dataset, usually a TDB2 one.</p>
+ * <p>The dump is never held in memory -- the triples are parsed as a stream and written in batches, each batch in a write transaction of its own. The compressed dumps ({@code .ttl.bz2},
+ * {@code .nt.gz}, ...) are decompressed on the fly, the syntax is guessed from the file name. The syntax of the dumps is not checked as the dumps contain IRIs the strict parser rejects.</p>
+ * <p>The triples the search never queries can be dropped by a {@link PredicateFilter} before they are written, which usually shrinks the dataset several times.</p>
+ * <p>If the import of a file fails halfway through, the batches imported so far stay in the dataset. Importing the same file again is harmless as the dataset is a set of triples.</p>
+ *
+ * @see ImportMain
+ * @since 1.0
+ */
+public class DumpImporter {
+    public static final int DEFAULT_BATCH_SIZE = 100_000;
+    private static final Logger LOGGER = LogManager.getLogger(DumpImporter.class);
+
+    private final Dataset dataset;
+    private final int batchSize;
+    @Nullable
+    private final PredicateFilter predicateFilter;
+
+    /**
+     * @param dataset         the dataset to import to
+     * @param batchSize       the number of triples written in a single transaction
+     * @param predicateFilter the filter of the imported triples, {@code null} to import all of them
+     */
+    public DumpImporter(final Dataset dataset, final int batchSize, final @Nullable PredicateFilter predicateFilter) {
+        this.dataset = requireNonNull(dataset);
+        this.predicateFilter = predicateFilter;
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public DumpImporter(final Dataset dataset) {
+        this(dataset, DEFAULT_BATCH_SIZE, null);
+    }
+
+    /**
+     * Imports the dump file to the dataset.
+     *
+     * @param file the dump file
+     *
+     * @return the number of imported triples, not counting the filtered ones
+     *
+     * @throws org.apache.jena.riot.RiotException if the file could not be parsed
+     */
+    public long importDump(final Path file) {
+        LOGGER.info("Importing {}", file);
+        final long start = System.currentTimeMillis();
+        final BatchingSink sink = new BatchingSink();
+        // the file name rather than the path so that the file is decompressed according to its extension
+        RDFParser.source(file.toString())
+                 .checking(false)
+                 .parse(predicateFilter == null ? sink : predicateFilter.filter(sink));
+        sink.flush();
+        LOGGER.info("Imported {} triples from {} in {}ms", sink.imported, file, System.currentTimeMillis() - start);
+        return sink.imported;
+    }
+
+    /**
+     * Buffers the triples and writes them to the dataset once the buffer is full.
+     */
+    private class BatchingSink extends StreamRDFBase {
+        private final List<Triple> batch = new ArrayList<>(batchSize);
+        private long imported = 0;
+
+        @Override
+        public void triple(final Triple triple) {
+            batch.add(triple);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void quad(final Quad quad) {
+            // the dumps are all in the default graph
+            triple(quad.asTriple());
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Txn.executeWrite(dataset, () -> {
+                final Graph graph = dataset.asDatasetGraph()
+                                           .getDefaultGraph();
+                batch.forEach(graph::add);
+            });
+            imported += batch.size();
+            batch.clear();
+            LOGGER.debug("Imported {} triples", imported);
+        }
+    }
+}
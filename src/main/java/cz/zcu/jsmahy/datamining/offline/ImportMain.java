@@ -0,0 +1,94 @@
+package cz.zcu.jsmahy.datamining.offline;
+
+import cz.zcu.jsmahy.datamining.api.DefaultApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.dbpedia.PredicateFilter;
+import org.apache.commons.cli.*;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * <p>The entry point of the dump import. Imports the DBPedia dump files passed on the command line to a TDB2 dataset that can then be crawled offline (see the {@code -d} option of the batch
+ * mode).</p>
+ * <p>Exits with {@code 0} if every file was imported, {@code 1} if some failed, and {@code 2} on invalid arguments.</p>
+ * <p>An example usage:</p>
+ * <pre>{@code
+ * import -d dbpedia-tdb mappingbased-objects_lang=en.ttl.bz2 labels_lang=en.ttl.bz2 redirects_lang=en.ttl.bz2
+ * }</pre>
+ *
+ * @see DumpImporter
+ * @see OfflineModule
+ * @since 1.0
+ */
+public class ImportMain {
+    private static final Logger LOGGER = LogManager.getLogger(ImportMain.class);
+    private static final Options OPTIONS = new Options();
+
+    static {
+        OPTIONS.addOption(Option.builder("d")
+                                .longOpt("dataset")
+                                .hasArg()
+                                .argName("directory")
+                                .required()
+                                .desc("the directory of the TDB2 dataset to import to, created if it does not exist")
+                                .build());
+        OPTIONS.addOption(Option.builder("b")
+                                .longOpt("batch-size")
+                                .hasArg()
+                                .argName("count")
+                                .desc("the number of triples written in a single transaction (default: " + DumpImporter.DEFAULT_BATCH_SIZE + ")")
+                                .build());
+        OPTIONS.addOption(Option.builder("a")
+                                .longOpt("all")
+                                .desc("import all the triples, by default the ignored predicates and the non-English literals are dropped")
+                                .build());
+    }
+
+    public static void main(String[] args) {
+        final CommandLine cmd;
+        final int batchSize;
+        try {
+            cmd = new DefaultParser().parse(OPTIONS, args);
+            if (cmd.getArgList()
+                   .isEmpty()) {
+                throw new ParseException("No dump files to import");
+            }
+            batchSize = Integer.parseInt(cmd.getOptionValue("batch-size", String.valueOf(DumpImporter.DEFAULT_BATCH_SIZE)));
+            if (batchSize <= 0) {
+                throw new ParseException("The batch size must be positive");
+            }
+        } catch (ParseException | NumberFormatException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp("import [options] <dump files>", OPTIONS);
+            System.exit(2);
+            return;
+        }
+
+        final Dataset dataset = TDB2Factory.connectDataset(cmd.getOptionValue("dataset"));
+        final PredicateFilter predicateFilter = cmd.hasOption("all") ? null : new PredicateFilter(new DefaultApplicationConfiguration());
+        final DumpImporter importer = new DumpImporter(dataset, batchSize, predicateFilter);
+        int failed = 0;
+        for (final String arg : cmd.getArgList()) {
+            final Path file = Paths.get(arg);
+            if (!Files.isRegularFile(file)) {
+                LOGGER.error("{} is not a file", file);
+                failed++;
+                continue;
+            }
+            try {
+                importer.importDump(file);
+            } catch (RiotException e) {
+                LOGGER.error("Failed to import {}", file, e);
+                failed++;
+            }
+        }
+        dataset.close();
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
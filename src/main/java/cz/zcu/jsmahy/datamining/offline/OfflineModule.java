@@ -0,0 +1,67 @@
+package cz.zcu.jsmahy.datamining.offline;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
+import cz.zcu.jsmahy.datamining.api.SparqlService;
+import cz.zcu.jsmahy.datamining.dbpedia.CheckpointStore;
+import cz.zcu.jsmahy.datamining.dbpedia.DBPediaModule;
+import cz.zcu.jsmahy.datamining.dbpedia.RedirectResolver;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.tdb2.TDB2Factory;
+
+import java.nio.file.Path;
+
+import static com.google.inject.Scopes.SINGLETON;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Module for the offline mode. Meant to override the {@link DBPediaModule} so that the tasks crawl a local TDB2 dataset imported by the {@link DumpImporter} instead of the live DBPedia -- no
+ * request leaves the machine and the results are reproducible.</p>
+ * <p>Both the dereferenced resources and the SPARQL queries are served by the dataset. Neither the disk cache nor the throttling is involved, and the redirects are only memoized in memory so that
+ * they never mix with the ones of the live DBPedia. The same goes for the journals of the searches.</p>
+ *
+ * @see ImportMain
+ * @since 1.0
+ */
+public class OfflineModule extends AbstractModule {
+    private static final int REDIRECT_CACHE_MAX_ENTRIES = 100_000;
+    private static final int REDIRECT_BATCH_SIZE = 1_000;
+    private final Path datasetDirectory;
+
+    /**
+     * @param datasetDirectory the directory of the TDB2 dataset
+     */
+    public OfflineModule(final Path datasetDirectory) {
+        this.datasetDirectory = requireNonNull(datasetDirectory);
+    }
+
+    @Override
+    protected void configure() {
+        bind(ResourceFetcher.class).to(DatasetResourceFetcher.class)
+                                   .in(SINGLETON);
+        bind(SparqlService.class).to(DatasetSparqlService.class)
+                                 .in(SINGLETON);
+    }
+
+    @Provides
+    @Singleton
+    Dataset provideDataset() {
+        return TDB2Factory.connectDataset(datasetDirectory.toString());
+    }
+
+    @Provides
+    @Singleton
+    RedirectResolver provideRedirectResolver(final SparqlService sparqlService) {
+        return new RedirectResolver(sparqlService, null, REDIRECT_CACHE_MAX_ENTRIES, REDIRECT_BATCH_SIZE);
+    }
+
+    @Provides
+    @Singleton
+    CheckpointStore provideCheckpointStore(final ApplicationConfiguration config) {
+        return new CheckpointStore(config, "dataset:" + datasetDirectory.toAbsolutePath()
+                                                                        .normalize());
+    }
+}
@@ -0,0 +1,81 @@
+package cz.zcu.jsmahy.datamining.resolvers;
+
+import cz.zcu.jsmahy.datamining.api.ArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultResponseResolver;
+import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask;
+import org.apache.jena.rdf.model.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+
+import static cz.zcu.jsmahy.datamining.resolvers.MultipleItemChoiceResolver.RESULT_KEY_CHOSEN_RDF_NODE;
+import static cz.zcu.jsmahy.datamining.util.RDFNodeUtil.toCalendar;
+
+/**
+ * <p>A non-blocking ambiguity resolver that continues the line with the candidate whose start date is the closest to the start date of the current subject.</p>
+ * <p>The candidates without a start date are only chosen if no candidate has one, in which case the first URI resource is chosen.</p>
+ *
+ * @since 1.0
+ */
+public class ClosestDateResolver extends DefaultResponseResolver<Collection<Statement>> {
+    private static final Logger LOGGER = LogManager.getLogger(ClosestDateResolver.class);
+
+    /**
+     * @param resource     the resource
+     * @param dateProperty the date property
+     *
+     * @return the date of the resource in milliseconds, if it has one
+     */
+    static OptionalLong findDate(final Resource resource, final Property dateProperty) {
+        final Statement stmt = resource.getProperty(dateProperty);
+        if (stmt == null || !stmt.getObject()
+                                 .isLiteral()) {
+            return OptionalLong.empty();
+        }
+        try {
+            final Calendar calendar = toCalendar(stmt.getLiteral());
+            return OptionalLong.of(calendar.getTimeInMillis());
+        } catch (ClassCastException e) {
+            LOGGER.debug("The date {} of {} is not a date", stmt.getObject(), resource);
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    protected void resolveInternal(final Collection<Statement> lineContinuationCandidates, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
+        final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
+        final Property startDateProperty = requestHandler.getProgressListener()
+                                                         .startDateProperty()
+                                                         .get();
+        final RDFNode chosen = lineContinuationCandidates.stream()
+                                                         .filter(stmt -> stmt.getObject()
+                                                                             .isURIResource())
+                                                         .min(Comparator.comparingLong(stmt -> distance(stmt, startDateProperty)))
+                                                         .map(Statement::getObject)
+                                                         .orElse(null);
+        if (chosen != null) {
+            LOGGER.debug("Chose {} as the closest candidate", chosen);
+            result.addMetadata(RESULT_KEY_CHOSEN_RDF_NODE, chosen);
+        }
+        response.complete(result);
+    }
+
+    private long distance(final Statement candidate, final Property startDateProperty) {
+        if (startDateProperty == null) {
+            return Long.MAX_VALUE;
+        }
+        final OptionalLong subjectDate = findDate(candidate.getSubject(), startDateProperty);
+        final OptionalLong candidateDate = findDate(candidate.getObject()
+                                                             .asResource(), startDateProperty);
+        if (subjectDate.isEmpty() || candidateDate.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.abs(candidateDate.getAsLong() - subjectDate.getAsLong());
+    }
+}
@@ -1,12 +1,19 @@
 package cz.zcu.jsmahy.datamining.resolvers;
 
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultArbitraryDataHolder;
 import cz.zcu.jsmahy.datamining.api.DefaultResponseResolver;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
 import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask;
 import javafx.application.Platform;
 import org.apache.jena.rdf.model.Statement;
 
 import java.util.Collection;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
 
 
 /**
@@ -18,21 +25,25 @@ import java.util.ResourceBundle;
 public class MultipleItemChoiceResolver extends DefaultResponseResolver<Collection<Statement>> {
 
     public static final String RESULT_KEY_CHOSEN_RDF_NODE = "chosenNextRDFNode";
+    private final ResourceFetcher resourceFetcher;
+
+    @Inject
+    public MultipleItemChoiceResolver(final ResourceFetcher resourceFetcher) {
+        this.resourceFetcher = requireNonNull(resourceFetcher);
+    }
 
     @Override
-    protected void resolveInternal(final Collection<Statement> lineContinuationCandidates, final SparqlEndpointTask<?> requestHandler) {
+    protected void resolveInternal(final Collection<Statement> lineContinuationCandidates, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
         // first off we check if we have an ontology path set
         // if not, pop up a dialogue
         Platform.runLater(() -> {
+            final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
             final ResourceBundle resourceBundle = ResourceBundle.getBundle("lang");
-            final RDFNodeChooserDialog dialog = new RDFNodeChooserDialog(lineContinuationCandidates, x -> true, resourceBundle.getString("ambiguity-dialog-title"), "");
+            final RDFNodeChooserDialog dialog = new RDFNodeChooserDialog(lineContinuationCandidates, x -> true, resourceBundle.getString("ambiguity-dialog-title"), "", resourceFetcher);
             dialog.showDialogueAndWait(statement -> result.addMetadata(RESULT_KEY_CHOSEN_RDF_NODE, statement.getObject()));
 
-            // once we receive the response notify the thread under the request handler's monitor
-            // that we got a response from the user
-            // the thread waits otherwise for another 5 seconds
-            markResponseReady();
-            requestHandler.unlockDialogPane();
+            // once we receive the response continue the search of the request handler
+            response.complete(result);
         });
     }
 }
@@ -1,32 +1,44 @@
 package cz.zcu.jsmahy.datamining.resolvers;
 
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultArbitraryDataHolder;
 import cz.zcu.jsmahy.datamining.api.DefaultResponseResolver;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
 import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask;
 import javafx.application.Platform;
 import org.apache.jena.rdf.model.Statement;
 
 import java.util.Collection;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
 
 public class OntologyPathPredicateResolver extends DefaultResponseResolver<Collection<Statement>> {
     public static final String RESULT_KEY_ONTOLOGY_PATH_PREDICATE = "ontologyPathPredicate";
+    private final ResourceFetcher resourceFetcher;
+
+    @Inject
+    public OntologyPathPredicateResolver(final ResourceFetcher resourceFetcher) {
+        this.resourceFetcher = requireNonNull(resourceFetcher);
+    }
 
     @Override
-    protected void resolveInternal(final Collection<Statement> candidatesForOntologyPathPredicate, final SparqlEndpointTask<?> requestHandler) {
+    protected void resolveInternal(final Collection<Statement> candidatesForOntologyPathPredicate, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
         Platform.runLater(() -> {
+            final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
             final ResourceBundle resourceBundle = ResourceBundle.getBundle("lang");
             final RDFNodeChooserDialog dialog = new RDFNodeChooserDialog(candidatesForOntologyPathPredicate,
                                                                          RDFNodeChooserDialog.IS_DBPEDIA_SITE,
                                                                          resourceBundle.getString("ontology-path-predicate-dialog-title"),
-                                                                         resourceBundle.getString("ontology-path-predicate-dialog-header")
+                                                                         resourceBundle.getString("ontology-path-predicate-dialog-header"),
+                                                                         resourceFetcher
             );
             dialog.showDialogueAndWait(stmt -> result.addMetadata(RESULT_KEY_ONTOLOGY_PATH_PREDICATE, stmt.getPredicate()));
 
-            // once we receive the response notify the thread under the request handler's monitor
-            // that we got a response from the user
-            // the thread otherwise waits for another 5 seconds
-            markResponseReady();
-            requestHandler.unlockDialogPane();
+            // once we receive the response continue the search of the request handler
+            response.complete(result);
         });
     }
 
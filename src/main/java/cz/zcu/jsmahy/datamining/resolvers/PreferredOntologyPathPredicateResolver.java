@@ -0,0 +1,25 @@
+package cz.zcu.jsmahy.datamining.resolvers;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import org.apache.jena.rdf.model.ResourceFactory;
+
+import java.util.List;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_PREFERRED_PATH_PREDICATES;
+
+/**
+ * A rule-based ontology path predicate resolver. Chooses the first of the preferred path predicates from the configuration the subject has.
+ *
+ * @see ApplicationConfiguration#CFG_KEY_PREFERRED_PATH_PREDICATES
+ * @since 1.0
+ */
+public class PreferredOntologyPathPredicateResolver extends PresetOntologyPathPredicateResolver {
+    @Inject
+    public PreferredOntologyPathPredicateResolver(final ApplicationConfiguration config) {
+        super(config.<List<String>>getValue(CFG_KEY_PREFERRED_PATH_PREDICATES, List.of())
+                    .stream()
+                    .map(ResourceFactory::createProperty)
+                    .toList());
+    }
+}
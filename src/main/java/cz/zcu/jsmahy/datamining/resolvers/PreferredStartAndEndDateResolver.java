@@ -0,0 +1,31 @@
+package cz.zcu.jsmahy.datamining.resolvers;
+
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.ResourceFactory;
+
+import java.util.List;
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_PREFERRED_END_DATE_PREDICATES;
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.CFG_KEY_PREFERRED_START_DATE_PREDICATES;
+
+/**
+ * A rule-based date resolver. Chooses the first of the preferred start and end date predicates from the configuration the subject has.
+ *
+ * @see ApplicationConfiguration#CFG_KEY_PREFERRED_START_DATE_PREDICATES
+ * @see ApplicationConfiguration#CFG_KEY_PREFERRED_END_DATE_PREDICATES
+ * @since 1.0
+ */
+public class PreferredStartAndEndDateResolver extends PresetStartAndEndDateResolver {
+    @Inject
+    public PreferredStartAndEndDateResolver(final ApplicationConfiguration config) {
+        super(toProperties(config.getValue(CFG_KEY_PREFERRED_START_DATE_PREDICATES, List.of())), toProperties(config.getValue(CFG_KEY_PREFERRED_END_DATE_PREDICATES, List.of())));
+    }
+
+    private static List<Property> toProperties(final List<String> uris) {
+        return uris.stream()
+                   .map(ResourceFactory::createProperty)
+                   .toList();
+    }
+}
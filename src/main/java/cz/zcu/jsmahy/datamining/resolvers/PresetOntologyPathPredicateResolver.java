@@ -0,0 +1,47 @@
+package cz.zcu.jsmahy.datamining.resolvers;
+
+import cz.zcu.jsmahy.datamining.api.ArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultResponseResolver;
+import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static cz.zcu.jsmahy.datamining.resolvers.OntologyPathPredicateResolver.RESULT_KEY_ONTOLOGY_PATH_PREDICATE;
+
+/**
+ * A non-blocking ontology path predicate resolver that always answers with a predicate chosen beforehand. Given more predicates, the first one the subject has is chosen. If the subject has none of
+ * them, no predicate is chosen.
+ *
+ * @since 1.0
+ */
+public class PresetOntologyPathPredicateResolver extends DefaultResponseResolver<Collection<Statement>> {
+    private static final Logger LOGGER = LogManager.getLogger(PresetOntologyPathPredicateResolver.class);
+    private final List<Property> ontologyPathPredicates;
+
+    /**
+     * @param ontologyPathPredicates the predicates in the order of preference
+     */
+    public PresetOntologyPathPredicateResolver(final List<Property> ontologyPathPredicates) {
+        this.ontologyPathPredicates = List.copyOf(ontologyPathPredicates);
+    }
+
+    public PresetOntologyPathPredicateResolver(final Property ontologyPathPredicate) {
+        this(List.of(ontologyPathPredicate));
+    }
+
+    @Override
+    protected void resolveInternal(final Collection<Statement> candidatesForOntologyPathPredicate, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
+        final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
+        PresetStartAndEndDateResolver.findPreferred(candidatesForOntologyPathPredicate, ontologyPathPredicates)
+                                     .ifPresentOrElse(predicate -> result.addMetadata(RESULT_KEY_ONTOLOGY_PATH_PREDICATE, predicate),
+                                                      () -> LOGGER.debug("The subject of {} has none of the ontology path predicates {}", requestHandler.getQuery(), ontologyPathPredicates));
+        response.complete(result);
+    }
+}
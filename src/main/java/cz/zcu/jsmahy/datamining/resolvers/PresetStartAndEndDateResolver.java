@@ -0,0 +1,77 @@
+package cz.zcu.jsmahy.datamining.resolvers;
+
+import cz.zcu.jsmahy.datamining.api.ArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultResponseResolver;
+import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver.RESULT_KEY_END_DATE_PREDICATE;
+import static cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver.RESULT_KEY_START_DATE_PREDICATE;
+
+/**
+ * A non-blocking date resolver that always answers with the date predicates chosen beforehand. Given more predicates, the first one the subject has is chosen. If the subject has none of them, no
+ * predicate is chosen.
+ *
+ * @since 1.0
+ */
+public class PresetStartAndEndDateResolver extends DefaultResponseResolver<Collection<Statement>> {
+    private static final Logger LOGGER = LogManager.getLogger(PresetStartAndEndDateResolver.class);
+    private final List<Property> startDatePredicates;
+    private final List<Property> endDatePredicates;
+
+    /**
+     * @param startDatePredicates the start date predicates in the order of preference
+     * @param endDatePredicates   the end date predicates in the order of preference, empty if the nodes should be "moments"
+     */
+    public PresetStartAndEndDateResolver(final List<Property> startDatePredicates, final List<Property> endDatePredicates) {
+        this.startDatePredicates = List.copyOf(startDatePredicates);
+        this.endDatePredicates = List.copyOf(endDatePredicates);
+    }
+
+    /**
+     * @param startDatePredicate the start date predicate
+     * @param endDatePredicate   the end date predicate, {@code null} if the nodes should be "moments"
+     */
+    public PresetStartAndEndDateResolver(final Property startDatePredicate, final @Nullable Property endDatePredicate) {
+        this(List.of(startDatePredicate), endDatePredicate == null ? List.of() : List.of(endDatePredicate));
+    }
+
+    /**
+     * @param candidates the candidate statements
+     * @param preferred  the predicates in the order of preference
+     *
+     * @return the first preferred predicate some candidate has
+     */
+    static Optional<Property> findPreferred(final Collection<Statement> candidates, final List<Property> preferred) {
+        for (final Property predicate : preferred) {
+            for (final Statement candidate : candidates) {
+                if (candidate.getPredicate()
+                             .equals(predicate)) {
+                    return Optional.of(predicate);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    protected void resolveInternal(final Collection<Statement> candidatesForStartAndEndDates, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
+        final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
+        findPreferred(candidatesForStartAndEndDates, startDatePredicates).ifPresentOrElse(predicate -> result.addMetadata(RESULT_KEY_START_DATE_PREDICATE, predicate),
+                                                                                          () -> LOGGER.debug("The subject of {} has none of the start date predicates {}",
+                                                                                                             requestHandler.getQuery(),
+                                                                                                             startDatePredicates));
+        findPreferred(candidatesForStartAndEndDates, endDatePredicates).ifPresent(predicate -> result.addMetadata(RESULT_KEY_END_DATE_PREDICATE, predicate));
+        response.complete(result);
+    }
+}
@@ -4,6 +4,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.Weigher;
 import cz.zcu.jsmahy.datamining.Main;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.ReadOnlyStringWrapper;
@@ -24,6 +25,8 @@ import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import static java.util.Objects.requireNonNull;
+
 public class RDFNodeChooserDialog {
     public static final Predicate<String> IS_DBPEDIA_SITE = uri -> uri.contains("dbpedia");
     public static final String URI_SUFFIX = "";//" (URI)";
@@ -38,6 +41,7 @@ public class RDFNodeChooserDialog {
     private final TableView<Statement> content;
     private final Object lock = new Object();
     private final Predicate<String> uriPredicate;
+    private final ResourceFetcher resourceFetcher;
 
     @SuppressWarnings("unchecked")
     private final ObservableSet<Service<String>> services = FXCollections.synchronizedObservableSet(FXCollections.observableSet());
@@ -48,9 +52,15 @@ public class RDFNodeChooserDialog {
      *                     returns {@code true} it will attempt to look for the label of the property.
      * @param title
      * @param headerText
+     * @param resourceFetcher The fetcher the labels of the properties are looked up with
      */
-    public RDFNodeChooserDialog(final Collection<Statement> statements, final Predicate<String> uriPredicate, final String title, final String headerText) {
+    public RDFNodeChooserDialog(final Collection<Statement> statements,
+                                final Predicate<String> uriPredicate,
+                                final String title,
+                                final String headerText,
+                                final ResourceFetcher resourceFetcher) {
         this.uriPredicate = uriPredicate;
+        this.resourceFetcher = requireNonNull(resourceFetcher);
         this.content = new TableView<>();
         this.content.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         this.content.getItems()
@@ -159,7 +169,7 @@ public class RDFNodeChooserDialog {
 
                         final Model model = ModelFactory.createOntologyModel(OntModelSpec.RDFS_MEM);
                         try {
-                            model.read(uri);
+                            resourceFetcher.read(model, uri);
                         } catch (Exception e) {
                             LOGGER.throwing(e);
                             return null;
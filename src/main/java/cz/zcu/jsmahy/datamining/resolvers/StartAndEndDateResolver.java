@@ -1,6 +1,10 @@
 package cz.zcu.jsmahy.datamining.resolvers;
 
+import com.google.inject.Inject;
+import cz.zcu.jsmahy.datamining.api.ArbitraryDataHolder;
+import cz.zcu.jsmahy.datamining.api.DefaultArbitraryDataHolder;
 import cz.zcu.jsmahy.datamining.api.DefaultResponseResolver;
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher;
 import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
@@ -11,15 +15,25 @@ import org.apache.jena.rdf.model.Statement;
 
 import java.util.Collection;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
 
 public class StartAndEndDateResolver extends DefaultResponseResolver<Collection<Statement>> {
 
     public static final String RESULT_KEY_START_DATE_PREDICATE = "startDatePredicate";
     public static final String RESULT_KEY_END_DATE_PREDICATE = "endDatePredicate";
+    private final ResourceFetcher resourceFetcher;
+
+    @Inject
+    public StartAndEndDateResolver(final ResourceFetcher resourceFetcher) {
+        this.resourceFetcher = requireNonNull(resourceFetcher);
+    }
 
     @Override
-    protected void resolveInternal(final Collection<Statement> candidatesForStartAndEndDates, final SparqlEndpointTask<?> requestHandler) {
+    protected void resolveInternal(final Collection<Statement> candidatesForStartAndEndDates, final SparqlEndpointTask<?> requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
         Platform.runLater(() -> {
+            final ArbitraryDataHolder result = new DefaultArbitraryDataHolder();
             final Callback<TableColumn.CellDataFeatures<Statement, String>, ObservableValue<String>> cellValueCallback = features -> {
                 final Object date = features.getValue()
                                             .getObject()
@@ -32,22 +46,21 @@ public class StartAndEndDateResolver extends DefaultResponseResolver<Collection<
             final RDFNodeChooserDialog startDateDialog = new RDFNodeChooserDialog(candidatesForStartAndEndDates,
                                                                                   RDFNodeChooserDialog.IS_DBPEDIA_SITE,
                                                                                   resourceBundle.getString("start-date-dialog-title"),
-                                                                                  resourceBundle.getString("start-date-dialog-header")
+                                                                                  resourceBundle.getString("start-date-dialog-header"),
+                                                                                  resourceFetcher
             );
             startDateDialog.showDialogueAndWait(statement -> result.addMetadata(RESULT_KEY_START_DATE_PREDICATE, statement.getPredicate()));
 
             final RDFNodeChooserDialog endDateDialog = new RDFNodeChooserDialog(candidatesForStartAndEndDates,
                                                                                 RDFNodeChooserDialog.IS_DBPEDIA_SITE,
                                                                                 resourceBundle.getString("end-date-dialog-title"),
-                                                                                resourceBundle.getString("end-date-dialog-header")
+                                                                                resourceBundle.getString("end-date-dialog-header"),
+                                                                                resourceFetcher
             );
             endDateDialog.showDialogueAndWait(statement -> result.addMetadata(RESULT_KEY_END_DATE_PREDICATE, statement.getPredicate()));
 
-            // once we receive the response notify the thread under the request handler's monitor
-            // that we got a response from the user
-            // the thread waits otherwise for another 5 seconds
-            markResponseReady();
-            requestHandler.unlockDialogPane();
+            // once we receive the response continue the search of the request handler
+            response.complete(result);
         });
     }
 }
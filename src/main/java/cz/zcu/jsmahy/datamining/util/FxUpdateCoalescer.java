@@ -0,0 +1,131 @@
+package cz.zcu.jsmahy.datamining.util;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import lombok.Value;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Buffers the updates of the scene graph posted from any thread and applies them on the JavaFX thread at most once per frame, rather than posting a {@link Platform#runLater(Runnable)}
+ * per update.</p>
+ * <p>The updates are applied in the order they were posted. The {@link #postBatched(Object, Object, Consumer) batched} updates with the same key posted within a frame are merged into a single
+ * update applied at the position of the first of them -- e.g. the children added to the same tree item are added by a single {@code addAll}. The merged updates are only ever moved earlier, so an
+ * update depending on an earlier one (a child added under a tree item that is being added) still comes after it.</p>
+ * <p>The timer only runs while there are updates to apply.</p>
+ *
+ * @since 1.0
+ */
+public class FxUpdateCoalescer {
+    private final Queue<Update> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /**
+     * Created on the JavaFX thread once the first update is posted, the timer needs the toolkit.
+     */
+    private AnimationTimer timer;
+
+    /**
+     * Posts an update.
+     *
+     * @param update the update
+     */
+    public void post(final Runnable update) {
+        pending.add(new Update(null, requireNonNull(update), null));
+        schedule();
+    }
+
+    /**
+     * Posts an item of a batched update. The items with the same key posted within a frame are passed to a single call of the consumer of the first of them.
+     *
+     * @param key   the key of the batch
+     * @param item  the item
+     * @param flush the consumer applying the items of the batch
+     * @param <T>   the type of the items
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void postBatched(final Object key, final T item, final Consumer<List<T>> flush) {
+        pending.add(new Update(requireNonNull(key), item, (Consumer<List<Object>>) (Consumer<?>) requireNonNull(flush)));
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Schedules the {@link #flush()} of the pending updates on the JavaFX thread.
+     */
+    protected void scheduleFlush() {
+        Platform.runLater(() -> {
+            if (timer == null) {
+                timer = new AnimationTimer() {
+                    @Override
+                    public void handle(final long now) {
+                        stop();
+                        flush();
+                    }
+                };
+            }
+            timer.start();
+        });
+    }
+
+    /**
+     * Applies the pending updates now. Must be called on the JavaFX thread.
+     */
+    public void flush() {
+        // the updates posted from now on need another flush
+        scheduled.set(false);
+        final List<Object> updates = new ArrayList<>();
+        final Map<Object, Batch> batches = new HashMap<>();
+        Update update;
+        while ((update = pending.poll()) != null) {
+            if (update.getKey() == null) {
+                updates.add(update.getItem());
+                continue;
+            }
+            Batch batch = batches.get(update.getKey());
+            if (batch == null) {
+                batch = new Batch(update.getFlush(), new ArrayList<>());
+                batches.put(update.getKey(), batch);
+                updates.add(batch);
+            }
+            batch.getItems()
+                 .add(update.getItem());
+        }
+        for (final Object u : updates) {
+            if (u instanceof Batch batch) {
+                batch.getFlush()
+                     .accept(batch.getItems());
+            } else {
+                ((Runnable) u).run();
+            }
+        }
+    }
+
+    @Value
+    private static class Update {
+        /**
+         * The key of a batched update, {@code null} for a plain one.
+         */
+        Object key;
+        /**
+         * The item of a batched update, or the plain update.
+         */
+        Object item;
+        Consumer<List<Object>> flush;
+    }
+
+    @Value
+    private static class Batch {
+        Consumer<List<Object>> flush;
+        List<Object> items;
+    }
+}
@@ -0,0 +1,132 @@
+package cz.zcu.jsmahy.datamining.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>A set of primitive longs, without boxing the values or allocating an entry per value.</p>
+ * <p>The values are kept in a single open-addressing table with linear probing, so a value costs 8 bytes divided by the load factor. The values are expected to be well distributed (e.g. hashes
+ * or ids), they are still mixed before being placed in the table.</p>
+ * <p>Not thread-safe.</p>
+ *
+ * @since 1.0
+ */
+public class LongHashSet {
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+    private static final float MAX_LOAD_FACTOR = 0.7f;
+    /**
+     * Marks an empty slot of the table. The empty value itself is tracked by {@link #containsEmpty}.
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of values the set should hold without growing
+     */
+    public LongHashSet(final int expectedSize) {
+        allocate(tableSizeFor((int) Math.min(1 << 30, (long) Math.ceil(Math.max(expectedSize, 2) / MAX_LOAD_FACTOR))));
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private static int mix(final long value) {
+        // the finalizer of MurmurHash3
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void allocate(final int tableSize) {
+        table = new long[tableSize];
+        mask = tableSize - 1;
+        resizeThreshold = (int) (tableSize * MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * @param value the value
+     *
+     * @return {@code true} if the value was not in the set
+     */
+    public boolean add(final long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int slot = mix(value) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        size++;
+        if (size > resizeThreshold) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(final long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = mix(value) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private void rehash(final int tableSize) {
+        final long[] old = table;
+        allocate(tableSize);
+        for (final long value : old) {
+            if (value != EMPTY) {
+                int slot = mix(value) & mask;
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the values. The table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+}
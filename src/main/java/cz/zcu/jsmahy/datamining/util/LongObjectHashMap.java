@@ -0,0 +1,201 @@
+package cz.zcu.jsmahy.datamining.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>A map of primitive long keys to objects, without boxing the keys or allocating an entry per mapping.</p>
+ * <p>The keys and the values are kept in two parallel open-addressing tables with linear probing. A removed mapping shifts the following mappings of its probe sequence back, so the table never
+ * fills up with tombstones.</p>
+ * <p>Not thread-safe.</p>
+ *
+ * @param <V> the type of the values
+ *
+ * @see LongHashSet
+ * @since 1.0
+ */
+public class LongObjectHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 1 << 6;
+    private static final float MAX_LOAD_FACTOR = 0.7f;
+    /**
+     * Marks an empty slot of the table. The value of the empty key itself is kept in {@link #emptyKeyValue}.
+     */
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean containsEmptyKey;
+    private V emptyKeyValue;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of mappings the map should hold without growing
+     */
+    public LongObjectHashMap(final int expectedSize) {
+        allocate(tableSizeFor((int) Math.min(1 << 30, (long) Math.ceil(Math.max(expectedSize, 2) / MAX_LOAD_FACTOR))));
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    private static int mix(final long key) {
+        // the finalizer of MurmurHash3
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void allocate(final int tableSize) {
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+        resizeThreshold = (int) (tableSize * MAX_LOAD_FACTOR);
+    }
+
+    private int slotOf(final long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param key the key
+     *
+     * @return the value of the key, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final long key) {
+        if (key == EMPTY) {
+            return emptyKeyValue;
+        }
+        final int slot = slotOf(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(final long key) {
+        return key == EMPTY ? containsEmptyKey : slotOf(key) >= 0;
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value
+     *
+     * @return the previous value of the key, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long key, final V value) {
+        if (key == EMPTY) {
+            final V previous = emptyKeyValue;
+            if (!containsEmptyKey) {
+                containsEmptyKey = true;
+                size++;
+            }
+            emptyKeyValue = value;
+            return previous;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * @param key the key
+     *
+     * @return the removed value of the key, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long key) {
+        if (key == EMPTY) {
+            final V previous = emptyKeyValue;
+            if (containsEmptyKey) {
+                containsEmptyKey = false;
+                emptyKeyValue = null;
+                size--;
+            }
+            return previous;
+        }
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        final V previous = (V) values[slot];
+        size--;
+        // shift the following keys of the probe sequence back to the freed slot unless they are already in their place
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            final int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        values[slot] = null;
+        return previous;
+    }
+
+    private void rehash(final int tableSize) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the mappings. The table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        containsEmptyKey = false;
+        emptyKeyValue = null;
+        size = 0;
+    }
+}
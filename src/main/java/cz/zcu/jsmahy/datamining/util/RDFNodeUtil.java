@@ -1,6 +1,8 @@
 package cz.zcu.jsmahy.datamining.util;
 
 import cz.zcu.jsmahy.datamining.api.DataNode;
+import org.apache.jena.datatypes.xsd.XSDDateTime;
+import org.apache.jena.datatypes.xsd.XSDDuration;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
@@ -10,6 +12,9 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
 import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_NAME;
 import static cz.zcu.jsmahy.datamining.api.DataNode.METADATA_KEY_URI;
 
@@ -62,6 +67,35 @@ public class RDFNodeUtil {
         return str;
     }
 
+    /**
+     * <p>Converts the value of a date literal to a {@link Calendar}.</p>
+     * <p>Supported are the {@link XSDDateTime} values (dates, times, years, ...), {@link XSDDuration} values, and integers (seconds since the epoch).</p>
+     *
+     * @param literal the date literal
+     *
+     * @return the date
+     *
+     * @throws ClassCastException if the value of the literal is not a date
+     */
+    public static Calendar toCalendar(Literal literal) throws ClassCastException {
+        final Object value = literal.getValue();
+        final Calendar calendar;
+        if (value instanceof XSDDateTime dateTime) {
+            calendar = dateTime.asCalendar();
+        } else if (value instanceof XSDDuration duration) {
+            final long millis = duration.getFullSeconds() * 1000L;
+            calendar = new GregorianCalendar();
+            calendar.setTimeInMillis(millis);
+        } else if (value instanceof Integer integer) {
+            final long millis = integer * 1000L;
+            calendar = new GregorianCalendar();
+            calendar.setTimeInMillis(millis);
+        } else {
+            throw new ClassCastException("Inner date type is of unknown value: " + value);
+        }
+        return calendar;
+    }
+
     public static void setDataNodeNameFromRDFNode(DataNode dataNode, RDFNode rdfNode) {
         if (dataNode == null || rdfNode == null) {
             return;
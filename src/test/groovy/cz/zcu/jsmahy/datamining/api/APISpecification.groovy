@@ -3,6 +3,7 @@ package cz.zcu.jsmahy.datamining.api
 import com.google.inject.Guice
 import com.google.inject.Injector
 import com.sun.javafx.application.PlatformImpl
+import cz.zcu.jsmahy.datamining.util.FxUpdateCoalescer
 import javafx.application.Platform
 import javafx.event.Event
 import javafx.event.EventDispatchChain
@@ -12,7 +13,13 @@ import spock.lang.Ignore
 import spock.lang.Shared
 import spock.lang.Specification
 
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 import java.util.function.BiConsumer
+import java.util.function.Consumer
 
 import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*
 
@@ -500,52 +507,420 @@ class APISpecification extends Specification {
         noExceptionThrown()
     }
 
+    def "Should keep the edges of an exported root once its IDs are shifted on import"() {
+        given:
+        def root = nodeFactory.newRoot("Root")
+        def (a, b, c) = (1..3).collect { nodeFactory.newNode(root) }
+        root.edges.add(b.id, a.id, "doctoralAdvisor", "relationship")
+        root.edges.add(c.id, b.id, "doctoralAdvisor", "relationship")
+        def out = new ByteArrayOutputStream()
+        new JSONDataNodeSerializer(utils).serialize(out, root)
+        def delta = 1000
+
+        when:
+        def imported = new JSONDataNodeDeserializer(utils).deserialize(new ByteArrayInputStream(out.toByteArray()))
+        def maxId = imported.shiftIds(delta)
+        def (importedA, importedB, importedC) = imported.children
+
+        then:
+        imported.id == root.id + delta
+        importedC.id == c.id + delta
+        maxId == c.id + delta
+        imported.edges.toList()*.from == [importedB.id, importedC.id]
+        imported.edges.toList()*.to == [importedA.id, importedB.id]
+        imported.edges.findIncoming(importedB.id)*.from == [importedC.id]
+        imported.edges.findOutgoing(b.id).isEmpty()
+    }
+
+    def "Should move the relationships of an old export to the edge table"() {
+        given:
+        def json = """{"id":0,"children":[
+            {"id":1,"children":[],"metadata":{"name":"A"}},
+            {"id":2,"children":[],"metadata":{"name":"B","relationships":[{"metadata":{"from":2,"to":1,"name":"doctoralAdvisor","stereotype":"relationship"}}]}}
+        ],"metadata":{"name":"Root"}}"""
+
+        when:
+        def root = new JSONDataNodeDeserializer(utils).deserialize(new ByteArrayInputStream(json.getBytes("UTF-8")))
+
+        then:
+        root.edges.toList() == [new EdgeTable.Edge(2, 1, "doctoralAdvisor", "relationship")]
+        root.children.every { !it.hasMetadataKey(DataNode.METADATA_KEY_RELATIONSHIPS) }
+    }
+
     def "Response resolver test"() {
         given:
         def responseResolver = new DefaultResponseResolver() {
             @Override
-            protected void resolveInternal(final Object inputMetadata, final SparqlEndpointTask requestHandler) {
+            protected void resolveInternal(final Object inputMetadata, final SparqlEndpointTask requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
+                def result = new DefaultArbitraryDataHolder()
                 result.addMetadata("TestKey", "TestValue")
-                markResponseReady()
-                requestHandler.unlockDialogPane()
+                response.complete(result)
             }
         }
         def task = Mock(SparqlEndpointTask)
-        task.unlockDialogPane() >> {} // do nothing
 
         when:
-        responseResolver.resolve(_ as Object, task)
+        def future = responseResolver.resolve(new Object(), task)
 
         then:
-        responseResolver.hasResponseReady()
-        responseResolver.hasResponseReadyProperty().get()
+        future.isDone()
 
         when:
-        def response = responseResolver.getResponse()
+        def response = future.join()
 
         then:
-        notThrown(IllegalStateException) // there is a response
         response.hasMetadataKey("TestKey")
         response.getValue("TestKey").isPresent()
     }
 
-    def "Should throw ISE if resolve was not called"() {
+    def "Should give every request a response of its own"() {
         given:
+        def pending = []
         def responseResolver = new DefaultResponseResolver() {
             @Override
-            protected void resolveInternal(final Object inputMetadata, final SparqlEndpointTask requestHandler) {
-                result.addMetadata("TestKey", "TestValue")
-                markResponseReady()
-                requestHandler.unlockDialogPane()
+            protected void resolveInternal(final Object inputMetadata, final SparqlEndpointTask requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
+                pending << response
             }
         }
         def task = Mock(SparqlEndpointTask)
-        task.unlockDialogPane() >> {} // do nothing
 
         when:
-        responseResolver.getResponse()
+        def first = responseResolver.resolve("first", task)
+        def second = responseResolver.resolve("second", task)
+
+        then:
+        !first.isDone()
+        !second.isDone()
+
+        when:
+        def result = new DefaultArbitraryDataHolder()
+        result.addMetadata("TestKey", "TestValue")
+        pending[1].complete(result)
+
+        then:
+        !first.isDone()
+        second.join().hasMetadataKey("TestKey")
+    }
+
+    def "Should complete the response exceptionally if the resolver throws"() {
+        given:
+        def responseResolver = new DefaultResponseResolver() {
+            @Override
+            protected void resolveInternal(final Object inputMetadata, final SparqlEndpointTask requestHandler, final CompletableFuture<ArbitraryDataHolder> response) {
+                throw new IllegalStateException("Test")
+            }
+        }
+        def task = Mock(SparqlEndpointTask)
+
+        when:
+        responseResolver.resolve(new Object(), task)
+                        .join()
+
+        then:
+        def e = thrown(CompletionException)
+        e.cause instanceof IllegalStateException
+    }
+
+    def "Should limit the concurrent requests per host"() {
+        given:
+        def limiter = new HostRequestLimiter(1)
+        def first = limiter.acquire("http://dbpedia.org/resource/A")
+        def acquired = new CompletableFuture()
+
+        when:
+        def other = limiter.acquire("http://cs.dbpedia.org/resource/A")
+        Thread.start { limiter.acquire("http://DBPEDIA.org/resource/B").withCloseable { acquired.complete(true) } }
+
+        then:
+        other != null
+        !acquired.isDone()
+
+        when:
+        first.close()
+
+        then:
+        acquired.get(5, TimeUnit.SECONDS)
+    }
+
+    def "Should aggregate the progress of the scheduled searches"() {
+        given:
+        def done = new CompletableFuture<Void>()
+        def provider = Mock(SparqlEndpointTaskProvider)
+        provider.newTask(_ as String, _ as DataNode) >> { String query, DataNode root ->
+            def task = Mock(SparqlEndpointTask)
+            task.crawl() >> (query == "fail" ? CompletableFuture.failedFuture(new IllegalStateException()) : done)
+            task
+        }
+        def scheduler = new CrawlScheduler(provider)
+        def progress = []
+        scheduler.addProgressListener { progress << it }
+
+        when:
+        def searches = scheduler.scheduleAll(["a": Mock(DataNode), "b": Mock(DataNode), "fail": Mock(DataNode)])
+
+        then:
+        !searches.isDone()
+        scheduler.progress == new CrawlProgress(3, 1, 1)
+        scheduler.progress.running == 2
+
+        when:
+        done.complete(null)
+
+        then:
+        searches.isCompletedExceptionally()
+        scheduler.progress == new CrawlProgress(3, 3, 1)
+        progress.last().progress == 1d
+    }
+
+    def "Should encode the URIs to IDs and back"() {
+        given:
+        def dictionary = new UriDictionary(offHeap)
+        def uris = (0..<5_000).collect { "http://dbpedia.org/resource/Subject_" + it } + ["http://dbpedia.org/resource/Karel_IV._Lucemburský", "x" * 2_000_000]
+
+        when:
+        def ids = uris.collect { dictionary.intern(it) }
+
+        then:
+        ids == (0..<uris.size()).toList()
+        uris.collect { dictionary.intern(it) } == ids
+        uris.collect { dictionary.find(it) } == ids
+        ids.collect { dictionary.uri(it) } == uris
+        dictionary.size() == uris.size()
+        dictionary.find("http://dbpedia.org/resource/Nobody") == UriDictionary.NO_ID
+
+        where:
+        offHeap << [false, true]
+    }
+
+    def "Should give a URI interned concurrently a single ID"() {
+        given:
+        def dictionary = new UriDictionary(false)
+        def uris = (0..<5_000).collect { "http://dbpedia.org/resource/Subject_" + it }
+        def pool = Executors.newFixedThreadPool(8)
+
+        when: "every thread interns all the URIs"
+        def ids = (0..<8).collect { pool.submit({ uris.collect { dictionary.intern(it) } } as Callable) }*.get()
+
+        then:
+        ids.every { it == ids[0] }
+        ids[0].toSet() == (0..<uris.size()).toSet()
+        uris.collect { dictionary.uri(dictionary.find(it)) } == uris
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "Should keep the well-known metadata in slots and the rest in a map"() {
+        given:
+        def schema = MetadataSchema.builder()
+                                   .key("name")
+                                   .key("from", MetadataSchema.SlotType.LONG)
+                                   .key("begin")
+                                   .build()
+        def metadata = new SchemaMetadataMap(schema)
+        def begin = new GregorianCalendar(TimeZone.getTimeZone("GMT"))
+        begin.setTimeInMillis(-20626012800000L)
+
+        when:
+        metadata.put("name", "Charles IV")
+        metadata.put("from", 42L)
+        metadata.put("begin", begin)
+        metadata.put("description", "Holy Roman Emperor")
+
+        then:
+        metadata.size() == 4
+        metadata.get("name") == "Charles IV"
+        metadata.get("from") == 42L
+        metadata.get("begin") == begin
+        metadata.get("begin").timeZone == begin.timeZone
+        metadata.get("description") == "Holy Roman Emperor"
+        metadata == [name: "Charles IV", from: 42L, begin: begin, description: "Holy Roman Emperor"]
+
+        when: "the calendar read is changed"
+        metadata.get("begin").setTimeInMillis(0L)
+
+        then:
+        metadata.get("begin").is(begin)
+        metadata.get("begin").timeInMillis == 0L
+
+        when: "a value of a different type than the slot expects"
+        metadata.put("from", "nowhere")
+        metadata.remove("name")
+        metadata.entrySet().find { it.key == "description" }.value = "King of Bohemia"
+
+        then:
+        metadata.get("from") == "nowhere"
+        !metadata.containsKey("name")
+        metadata.get("description") == "King of Bohemia"
+        metadata.keySet() == ["from", "begin", "description"] as Set
+    }
+
+    def "Should store the tree in columns and expose it through the data node views"() {
+        given:
+        def factory = new ColumnarDataNodeFactory(false)
+        def root = factory.newRoot("Charles IV")
+        def begin = new GregorianCalendar(TimeZone.getTimeZone("GMT"))
+        begin.setTimeInMillis(-20626012800000L)
+
+        when:
+        def a = factory.newNode(root, "A")
+        def b = factory.newNode(a, "B")
+        def c = factory.newNode(root, "C")
+        a.addMetadata(DataNode.METADATA_KEY_URI, "http://dbpedia.org/resource/A")
+        a.addMetadata(DataNode.METADATA_KEY_START_DATE, begin)
+        a.addMetadata("stereotype", "person")
+        def resource = org.apache.jena.rdf.model.ModelFactory.createDefaultModel().createResource("http://dbpedia.org/resource/A")
+        def literal = org.apache.jena.rdf.model.ResourceFactory.createPlainLiteral("Nobody")
+        b.addMetadata(DataNode.METADATA_KEY_RDF_NODE, resource)
+        c.addMetadata(DataNode.METADATA_KEY_RDF_NODE, literal)
+        def iterated = []
+        root.iterate({ node, depth -> iterated << [node.getValueUnsafe(DataNode.METADATA_KEY_NAME), depth] } as BiConsumer)
+
+        then:
+        root.isRoot()
+        root.children == [a, c]
+        root.copyChildren() == [a, c]
+        b.parent == a
+        b.findRoot().get() == root
+        a.getValue(DataNode.METADATA_KEY_URI).get() == "http://dbpedia.org/resource/A"
+        a.getValue(DataNode.METADATA_KEY_START_DATE).get() == begin
+        a.metadata == [name: "A", uri: "http://dbpedia.org/resource/A", begin: begin, stereotype: "person"]
+        b.getValueUnsafe(DataNode.METADATA_KEY_RDF_NODE) == resource
+        b.getValueUnsafe(DataNode.METADATA_KEY_RDF_NODE).model == null
+        c.getValueUnsafe(DataNode.METADATA_KEY_RDF_NODE) == literal
+        iterated == [["A", 0], ["B", 1], ["C", 0]]
+
+        when:
+        root.children.remove(a)
+
+        then:
+        root.children == [c]
+        root.copyChildren() == [c]
+        b.findRoot().get() == root
+    }
+
+    def "Should copy the children while a search adds them"() {
+        given:
+        def factory = new DataNodeFactory()
+        def root = factory.newRoot("Root")
+        def pool = Executors.newSingleThreadExecutor()
+
+        when:
+        def search = pool.submit({ (0..<50_000).each { factory.newNode(root, "Node " + it) } } as Runnable)
+        def sizes = []
+        while (!search.done) {
+            sizes << root.copyChildren().size()
+        }
+        search.get()
+
+        then:
+        sizes == sizes.toSorted()
+        root.copyChildren().size() == 50_000
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "Should create the tree items of the children once expanded and release them once collapsed"() {
+        given:
+        def factory = new DataNodeFactory()
+        def root = factory.newRoot("Root")
+        def a = factory.newNode(root, "A")
+        factory.newNode(a, "B")
+        def treeItem = new LazyDataNodeTreeItem(root)
+
+        expect:
+        !treeItem.leaf
+        treeItem.children.isEmpty()
+
+        when:
+        treeItem.expanded = true
+
+        then:
+        treeItem.children*.value == [a]
+        treeItem.children[0].children.isEmpty()
+        !treeItem.children[0].leaf
+
+        when:
+        def c = factory.newNode(root, "C")
+        treeItem.refresh()
+
+        then:
+        treeItem.children*.value == [a, c]
+
+        when:
+        treeItem.expanded = false
+
+        then:
+        !treeItem.materialized
+        treeItem.children.isEmpty()
+    }
+
+    def "Should keep the tree items indexed by the IDs of their data nodes"() {
+        given:
+        def factory = new DataNodeFactory()
+        def root = factory.newRoot("Root")
+        def a = factory.newNode(root, "A")
+        def b = factory.newNode(a, "B")
+        def treeRoot = new javafx.scene.control.TreeItem<DataNode>(null)
+        def index = new DataNodeTreeItemIndex()
+        index.setTreeRoot(treeRoot)
+        def rootItem = new LazyDataNodeTreeItem(root)
+
+        when:
+        treeRoot.children.add(rootItem)
+        rootItem.expanded = true
+        rootItem.children[0].expanded = true
+
+        then:
+        index.get(root) == rootItem
+        index.get(a) == rootItem.children[0]
+        index.get(b).value == b
+        index.size() == 3
+
+        when: "the items of a collapsed subtree are released"
+        rootItem.expanded = false
+
+        then:
+        index.get(root) == rootItem
+        index.get(a) == null
+        index.get(b) == null
+
+        when:
+        treeRoot.children.remove(rootItem)
+
+        then:
+        index.size() == 0
+    }
+
+    def "Should apply the posted updates in order and merge the batched ones"() {
+        given:
+        def scheduled = 0
+        def coalescer = new FxUpdateCoalescer() {
+            @Override
+            protected void scheduleFlush() {
+                scheduled++
+            }
+        }
+        def applied = []
+
+        when:
+        coalescer.postBatched("root", "A", { applied << ["root", it] } as Consumer)
+        coalescer.postBatched("A", "A1", { applied << ["A", it] } as Consumer)
+        coalescer.post({ applied << "delete" } as Runnable)
+        coalescer.postBatched("root", "B", { applied << ["root", it] } as Consumer)
+        coalescer.flush()
+
+        then:
+        scheduled == 1
+        applied == [["root", ["A", "B"]], ["A", ["A1"]], "delete"]
+
+        when:
+        coalescer.post({ applied << "again" } as Runnable)
+        coalescer.flush()
 
         then:
-        thrown(IllegalStateException)
+        scheduled == 2
+        applied.last() == "again"
     }
 }
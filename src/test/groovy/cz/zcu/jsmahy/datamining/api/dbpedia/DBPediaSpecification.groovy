@@ -1,7 +1,65 @@
 package cz.zcu.jsmahy.datamining.api.dbpedia
 
-
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration
+import cz.zcu.jsmahy.datamining.api.DataNodeFactory
+import cz.zcu.jsmahy.datamining.api.DefaultApplicationConfiguration
+import cz.zcu.jsmahy.datamining.api.RequestProgressListener
+import cz.zcu.jsmahy.datamining.api.ResourceFetcher
+import cz.zcu.jsmahy.datamining.api.ResponseResolver
+import cz.zcu.jsmahy.datamining.api.SparqlService
+import cz.zcu.jsmahy.datamining.dbpedia.CachingResourceFetcher
+import cz.zcu.jsmahy.datamining.dbpedia.CheckpointStore
+import cz.zcu.jsmahy.datamining.dbpedia.CircuitBreaker
+import cz.zcu.jsmahy.datamining.dbpedia.CrawlJournal
+import cz.zcu.jsmahy.datamining.dbpedia.DBPediaEndpointTask
+import com.sun.net.httpserver.HttpServer
+import cz.zcu.jsmahy.datamining.dbpedia.HopWindow
+import cz.zcu.jsmahy.datamining.dbpedia.HttpResourceFetcher
+import cz.zcu.jsmahy.datamining.dbpedia.PathExpander
+import cz.zcu.jsmahy.datamining.dbpedia.PredicateFilter
+import cz.zcu.jsmahy.datamining.dbpedia.ProjectingResourceFetcher
+import cz.zcu.jsmahy.datamining.dbpedia.RedirectResolver
+import cz.zcu.jsmahy.datamining.dbpedia.RequestThrottle
+import cz.zcu.jsmahy.datamining.dbpedia.ThrottledException
+import cz.zcu.jsmahy.datamining.dbpedia.TokenBucket
+import cz.zcu.jsmahy.datamining.dbpedia.VisitedSetType
+import cz.zcu.jsmahy.datamining.resolvers.PresetOntologyPathPredicateResolver
+import cz.zcu.jsmahy.datamining.resolvers.PresetStartAndEndDateResolver
+import javafx.beans.property.SimpleObjectProperty
+import org.apache.jena.datatypes.xsd.XSDDatatype
+import org.apache.jena.atlas.web.HttpException
+import org.apache.jena.graph.NodeFactory
+import org.apache.jena.query.Query
+import org.apache.jena.query.QueryExecution
+import org.apache.jena.query.QuerySolution
+import org.apache.jena.rdf.model.Model
+import org.apache.jena.rdf.model.ModelFactory
+import org.apache.jena.rdf.model.ResourceFactory
+import org.apache.jena.riot.Lang
+import org.apache.jena.riot.RDFParser
+import org.apache.jena.riot.system.StreamRDFLib
+import org.apache.jena.sparql.core.Quad
+import org.apache.jena.vocabulary.RDFS
 import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.net.http.HttpClient
+import java.nio.file.Files
+import java.nio.file.StandardOpenOption
+import java.nio.file.Path
+import java.time.Duration
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.function.Consumer
+import java.util.zip.GZIPOutputStream
+
+import static cz.zcu.jsmahy.datamining.api.ApplicationConfiguration.*
 
 /**
  * @author Jakub Šmrha
@@ -9,4 +67,675 @@ import spock.lang.Specification
  * @since 19.12.2022
  */
 class DBPediaSpecification extends Specification {
+    static final String URI = "http://dbpedia.org/resource/Charles_IV,_Holy_Roman_Emperor"
+
+    @TempDir
+    Path cacheDir
+
+    def config(int maxSizeMb = 512) {
+        def config = Mock(ApplicationConfiguration)
+        config.getValue(CFG_KEY_RESOURCE_CACHE_ENABLED, _) >> true
+        config.getValue(CFG_KEY_RESOURCE_CACHE_DIRECTORY, _) >> cacheDir.toString()
+        config.getValue(CFG_KEY_RESOURCE_CACHE_TTL_HOURS, _) >> 1
+        config.getValue(CFG_KEY_RESOURCE_CACHE_MAX_SIZE_MB, _) >> maxSizeMb
+        config
+    }
+
+    /**
+     * Creates a task searching the query with the default configuration, its requests go to the given fetcher and SPARQL service.
+     */
+    def task(String query,
+             ResourceFetcher resourceFetcher,
+             ExecutorService pool,
+             Map<String, Object> values = [:],
+             ResponseResolver ontologyPathPredicateResolver = null,
+             ResponseResolver startAndEndDateResolver = null) {
+        def config = new DefaultApplicationConfiguration()
+        values.each { key, value -> config.addMetadata(key, value) }
+        def dataNodeFactory = new DataNodeFactory()
+        def progressListener = Stub(RequestProgressListener)
+        progressListener.queryDataProperty() >> new SimpleObjectProperty<>()
+        progressListener.ontologyPathPredicateProperty() >> new SimpleObjectProperty<>()
+        progressListener.startDateProperty() >> new SimpleObjectProperty<>()
+        progressListener.endDateProperty() >> new SimpleObjectProperty<>()
+        def sparqlService = Stub(SparqlService)
+        new DBPediaEndpointTask(query,
+                                dataNodeFactory.newRoot(query),
+                                config,
+                                progressListener,
+                                dataNodeFactory,
+                                Mock(ResponseResolver),
+                                ontologyPathPredicateResolver ?: Mock(ResponseResolver),
+                                startAndEndDateResolver ?: Mock(ResponseResolver),
+                                resourceFetcher,
+                                pool,
+                                pool,
+                                new ProjectingResourceFetcher(config, sparqlService),
+                                new RedirectResolver(sparqlService, null, 100, 100),
+                                new PathExpander(sparqlService, false, 100, [:]),
+                                new CheckpointStore(config.getValue(CFG_KEY_CHECKPOINT_ENABLED, false), cacheDir.resolve("checkpoints"), null))
+    }
+
+    def "Should serve a repeated read from the disk cache"() {
+        given:
+        def remote = Mock(ResourceFetcher)
+        def fetcher = new CachingResourceFetcher(config(), remote)
+        def first = ModelFactory.createDefaultModel()
+        def second = ModelFactory.createDefaultModel()
+
+        when:
+        fetcher.read(first, URI)
+        fetcher.read(second, URI)
+
+        then:
+        1 * remote.read(_ as Model, URI) >> { Model model, String uri ->
+            model.add(ResourceFactory.createResource(uri), ResourceFactory.createProperty("http://dbpedia.org/ontology/successor"), "Wenceslaus IV")
+        }
+        first.size() == 1
+        second.isIsomorphicWith(first)
+    }
+
+    def "Should survive a restart"() {
+        given:
+        def remote = Mock(ResourceFetcher)
+        new CachingResourceFetcher(config(), { Model model, String uri ->
+            model.add(ResourceFactory.createResource(uri), ResourceFactory.createProperty("http://dbpedia.org/ontology/successor"), "Wenceslaus IV")
+        } as ResourceFetcher).read(ModelFactory.createDefaultModel(), URI)
+        def model = ModelFactory.createDefaultModel()
+
+        when:
+        new CachingResourceFetcher(config(), remote).read(model, URI)
+
+        then:
+        0 * remote.read(_, _)
+        model.size() == 1
+    }
+
+    def "Should evict entries once the cache is full"() {
+        given:
+        def remote = Mock(ResourceFetcher)
+        def fetcher = new CachingResourceFetcher(config(0), remote)
+
+        when:
+        fetcher.read(ModelFactory.createDefaultModel(), URI)
+        fetcher.read(ModelFactory.createDefaultModel(), URI)
+
+        then:
+        2 * remote.read(_ as Model, URI) >> { Model model, String uri ->
+            model.add(ResourceFactory.createResource(uri), ResourceFactory.createProperty("http://dbpedia.org/ontology/successor"), "Wenceslaus IV")
+        }
+    }
+
+    def "Should project only the requested predicates and the English label"() {
+        given:
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def birthDate = ResourceFactory.createProperty("http://dbpedia.org/ontology/birthDate")
+        def other = "http://dbpedia.org/resource/Wenceslaus_IV_of_Bohemia"
+        def endpoint = ModelFactory.createDefaultModel()
+        def charles = endpoint.createResource(URI)
+        charles.addProperty(successor, endpoint.createResource(other))
+        charles.addProperty(birthDate, "1316-05-14")
+        charles.addProperty(RDFS.label, "Charles IV", "en")
+        charles.addProperty(RDFS.label, "Karel IV.", "cs")
+        charles.addProperty(RDFS.comment, "Holy Roman Emperor", "en")
+        endpoint.createResource(other)
+                .addProperty(successor, endpoint.createResource("http://dbpedia.org/resource/Sigismund,_Holy_Roman_Emperor"))
+
+        when:
+        def query = ProjectingResourceFetcher.createQuery([URI, other], [successor])
+        def model = QueryExecution.create(query, endpoint)
+                                  .execConstruct()
+
+        then:
+        query.isConstructType()
+        model.size() == 3
+        model.contains(charles, successor)
+        model.contains(charles, RDFS.label, "Charles IV", "en")
+        !model.contains(charles, birthDate)
+        model.contains(endpoint.createResource(other), successor)
+    }
+
+    def "Should evict the oldest hops from the window"() {
+        given:
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def window = new HopWindow(2)
+        def model = window.getModel()
+        def first = model.createResource("http://dbpedia.org/resource/A")
+        def second = model.createResource("http://dbpedia.org/resource/B")
+        def third = model.createResource("http://dbpedia.org/resource/C")
+
+        when:
+        model.add(first, successor, second)
+        window.nextHop()
+        model.add(second, successor, third)
+
+        then:
+        window.getHopCount() == 2
+        model.contains(first, successor)
+        model.contains(second, successor)
+
+        when:
+        window.nextHop()
+
+        then:
+        window.getHopCount() == 2
+        !model.contains(first, successor)
+        model.contains(second, successor)
+    }
+
+    def "Should negotiate N-Triples and decode a gzipped response"() {
+        given:
+        def headers = [:]
+        def server = HttpServer.create(new InetSocketAddress("localhost", 0), 0)
+        server.createContext("/resource/A") { exchange ->
+            headers.accept = exchange.requestHeaders.getFirst("Accept")
+            headers.encoding = exchange.requestHeaders.getFirst("Accept-Encoding")
+            exchange.responseHeaders.add("Content-Type", "application/n-triples; charset=utf-8")
+            exchange.responseHeaders.add("Content-Encoding", "gzip")
+            exchange.sendResponseHeaders(200, 0)
+            new GZIPOutputStream(exchange.responseBody).withCloseable {
+                it.write('<http://dbpedia.org/resource/A> <http://www.w3.org/2000/01/rdf-schema#label> "A"@en .\n'.bytes)
+            }
+        }
+        // a proxy error page that claims the encoding of the request but is sent as is
+        server.createContext("/resource/Busy") { exchange ->
+            exchange.responseHeaders.add("Content-Encoding", "gzip")
+            def body = "Service Unavailable".bytes
+            exchange.sendResponseHeaders(503, body.length)
+            exchange.responseBody.withCloseable { it.write(body) }
+        }
+        server.start()
+        def fetcher = new HttpResourceFetcher(Mock(ApplicationConfiguration) {
+            getValue(CFG_KEY_HTTP_REQUEST_TIMEOUT_MS, _) >> 5000
+        }, HttpClient.newHttpClient(), new PredicateFilter([]))
+        def model = ModelFactory.createDefaultModel()
+
+        when:
+        fetcher.read(model, "http://localhost:${server.address.port}/resource/A")
+
+        then:
+        headers.accept.startsWith("application/rdf+thrift")
+        headers.encoding == "gzip"
+        model.contains(ResourceFactory.createResource("http://dbpedia.org/resource/A"), RDFS.label, "A", "en")
+
+        when: "the error response is not gzipped"
+        fetcher.read(model, "http://localhost:${server.address.port}/resource/Busy")
+
+        then: "the status is reported rather than the body failing to be decoded"
+        def e = thrown(ThrottledException)
+        e.statusCode == 503
+
+        cleanup:
+        server.stop(0)
+    }
+
+    def "Should prefetch the resources in parallel and skip the ones that failed"() {
+        given:
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def uris = ["A", "B", "C"].collect { "http://dbpedia.org/resource/" + it }
+        def failed = "http://dbpedia.org/resource/Missing"
+        // every fetch waits for the others to start, the fetches done one by one would time out
+        def started = new CountDownLatch(uris.size() + 1)
+        def parallel = new ConcurrentHashMap<String, Boolean>()
+        def fetcher = { Model fetched, String uri ->
+            started.countDown()
+            parallel[uri] = started.await(5, TimeUnit.SECONDS)
+            if (uri == failed) {
+                throw new HttpException(404, "Not found")
+            }
+            fetched.add(ResourceFactory.createResource(uri), successor, "next of " + uri)
+        } as ResourceFetcher
+        def pool = Executors.newFixedThreadPool(uris.size() + 1)
+        def model = ModelFactory.createDefaultModel()
+
+        when:
+        task(URI, fetcher, pool).prefetch(model, uris + [failed])
+
+        then:
+        parallel.size() == 4
+        parallel.values().every()
+        model.size() == 3
+        uris.every { model.contains(ResourceFactory.createResource(it), successor, "next of " + it) }
+        !model.contains(ResourceFactory.createResource(failed), null)
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "Should make the requests over the burst wait and halve the rate when throttled"() {
+        given:
+        long now = 0
+        def bucket = new TokenBucket(10, 2, { now })
+
+        expect:
+        bucket.reserve() == 0
+        bucket.reserve() == 0
+        bucket.reserve() == TimeUnit.MILLISECONDS.toNanos(100)
+
+        when:
+        now += TimeUnit.SECONDS.toNanos(1)
+        bucket.onThrottled()
+
+        then:
+        bucket.rate == 5d
+        bucket.reserve() == 0
+
+        when:
+        20.times { bucket.onSuccess() }
+
+        then:
+        bucket.rate == 10d
+    }
+
+    def "Should open the circuit after consecutive failures and close it after a successful trial"() {
+        given:
+        long now = 0
+        def breaker = new CircuitBreaker(2, 1000, { now })
+
+        when:
+        breaker.onFailure()
+        breaker.onFailure()
+
+        then:
+        breaker.state == CircuitBreaker.State.OPEN
+        !breaker.allowRequest()
+
+        when:
+        now += 1000
+
+        then:
+        breaker.allowRequest()
+        !breaker.allowRequest() // only a single trial
+
+        when:
+        breaker.onSuccess()
+
+        then:
+        breaker.state == CircuitBreaker.State.CLOSED
+        breaker.allowRequest()
+    }
+
+    def "Should retry the transient failures only"() {
+        given:
+        def throttle = new RequestThrottle(1000, 1000, 3, 1, 1, 100, 1000)
+        int attempts = 0
+
+        when:
+        throttle.execute(URI) {
+            if (++attempts < 3) {
+                throw new ThrottledException(429, "Slow down", Duration.ZERO)
+            }
+        }
+
+        then:
+        attempts == 3
+
+        when:
+        attempts = 0
+        throttle.execute(URI) {
+            attempts++
+            throw new HttpException(404, "Not found")
+        }
+
+        then:
+        thrown(HttpException)
+        attempts == 1
+    }
+
+    def "Should open the circuit again when its trial request is interrupted"() {
+        given:
+        def throttle = new RequestThrottle(1, 1, 1, 1, 1, 1, 0)
+
+        when:
+        throttle.execute(URI) { throw new HttpException(500, "Internal server error") }
+
+        then:
+        thrown(HttpException)
+        throttle.getCircuitState(URI) == CircuitBreaker.State.OPEN
+
+        when: "the trial request waits for the token that the failed request used up"
+        Thread.currentThread()
+              .interrupt()
+        throttle.execute(URI) {}
+
+        then:
+        thrown(HttpException)
+        Thread.interrupted()
+        throttle.getCircuitState(URI) == CircuitBreaker.State.OPEN
+    }
+
+    def "Should parse both forms of Retry-After"() {
+        given:
+        def now = ZonedDateTime.of(2023, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC)
+
+        expect:
+        ThrottledException.parseRetryAfter("120", now) == Duration.ofSeconds(120)
+        ThrottledException.parseRetryAfter("Sun, 1 Jan 2023 12:00:30 GMT", now) == Duration.ofSeconds(30)
+        ThrottledException.parseRetryAfter("soon", now) == null
+        ThrottledException.parseRetryAfter(null, now) == null
+    }
+
+    def "Should resolve the redirect chains in a single query and remember them across restarts"() {
+        given:
+        def endpoint = ModelFactory.createDefaultModel()
+        def dbr = "http://dbpedia.org/resource/"
+        endpoint.createResource(dbr + "Charles_IV")
+                .addProperty(RedirectResolver.PROPERTY_REDIRECT, endpoint.createResource(dbr + "Karel_IV"))
+        endpoint.createResource(dbr + "Karel_IV")
+                .addProperty(RedirectResolver.PROPERTY_REDIRECT, endpoint.createResource(URI))
+        def queries = 0
+        def sparqlService = Stub(SparqlService) {
+            select(_ as Query, _ as Consumer) >> { Query query, Consumer<QuerySolution> solution ->
+                queries++
+                QueryExecution.create(query, endpoint)
+                              .execSelect()
+                              .forEachRemaining(solution)
+            }
+        }
+        def cacheFile = cacheDir.resolve("redirects.tsv")
+                                .toString()
+        def resolver = new RedirectResolver(sparqlService, cacheFile, 100, 100)
+
+        when:
+        def canonicalUris = resolver.resolve([dbr + "Charles_IV", dbr + "Karel_IV", URI])
+        resolver.resolve([dbr + "Charles_IV", URI])
+        def restarted = new RedirectResolver(sparqlService, cacheFile, 100, 100).resolve([dbr + "Charles_IV", dbr + "Karel_IV"])
+
+        then:
+        queries == 1
+        canonicalUris == [(dbr + "Charles_IV"): URI, (dbr + "Karel_IV"): URI, (URI): URI]
+        restarted == [(dbr + "Charles_IV"): URI, (dbr + "Karel_IV"): URI]
+    }
+
+    def "Should drop the configured predicates and the non-English literals while parsing"() {
+        given:
+        def filter = new PredicateFilter([RDFS.label.URI, "http://dbpedia.org/ontology/wikiPageWikiLink"])
+        def model = ModelFactory.createDefaultModel()
+        def nt = """\
+<${URI}> <http://dbpedia.org/ontology/wikiPageWikiLink> <http://dbpedia.org/resource/Prague> .
+<${URI}> <http://dbpedia.org/ontology/successor> <http://dbpedia.org/resource/Wenceslaus_IV> .
+<${URI}> <http://dbpedia.org/ontology/birthDate> "1316-05-14"^^<http://www.w3.org/2001/XMLSchema#date> .
+<${URI}> <${RDFS.label.URI}> "Charles IV"@en .
+<${URI}> <${RDFS.label.URI}> "Karel IV."@cs .
+<${URI}> <http://dbpedia.org/property/title> "Holy Roman Emperor"@en-GB .
+"""
+
+        when:
+        RDFParser.fromString(nt)
+                 .lang(Lang.NTRIPLES)
+                 .parse(filter.filter(StreamRDFLib.graph(model.getGraph())))
+
+        then:
+        model.size() == 4
+        model.contains(ResourceFactory.createResource(URI), RDFS.label, "Charles IV", "en")
+        !model.contains(ResourceFactory.createResource(URI), RDFS.label, "Karel IV.", "cs")
+        !model.contains(ResourceFactory.createResource(URI), ResourceFactory.createProperty("http://dbpedia.org/ontology/wikiPageWikiLink"))
+        !filter.test(Quad.create(Quad.defaultGraphIRI, NodeFactory.createURI(URI), NodeFactory.createURI("http://dbpedia.org/ontology/wikiPageWikiLink"), NodeFactory.createURI(URI)))
+        filter.test(Quad.create(Quad.defaultGraphIRI, NodeFactory.createURI(URI), RDFS.Nodes.label, NodeFactory.createLiteral("Charles IV", "en")))
+    }
+
+    def "Should read the whole line via the aliases in a single query"() {
+        given:
+        def dbr = "http://dbpedia.org/resource/"
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def predecessor = ResourceFactory.createProperty("http://dbpedia.org/ontology/predecessor")
+        def dbpSuccessor = ResourceFactory.createProperty("http://dbpedia.org/property/successor")
+        def endpoint = ModelFactory.createDefaultModel()
+        def (a, b, c, d, e) = ["A", "B", "C", "D", "E"].collect { endpoint.createResource(dbr + it) }
+        a.addProperty(successor, b)
+         .addProperty(RDFS.label, "A", "en")
+         .addProperty(RDFS.label, "Á", "cs")
+        c.addProperty(predecessor, b)
+         .addProperty(dbpSuccessor, d)
+        d.addProperty(dbpSuccessor, "Nobody")
+        e.addProperty(successor, a)
+        def queries = 0
+        def sparqlService = Stub(SparqlService) {
+            select(_ as Query, _ as Consumer) >> { Query query, Consumer<QuerySolution> solution ->
+                queries++
+                QueryExecution.create(query, endpoint)
+                              .execSelect()
+                              .forEachRemaining(solution)
+            }
+        }
+        def aliases = [(successor.URI): [dbpSuccessor.URI, "^" + predecessor.URI]]
+
+        when:
+        def line = new PathExpander(sparqlService, true, 100, aliases).expand(a.URI, successor, [successor])
+                                                                       .get()
+        def tooLarge = new PathExpander(sparqlService, true, 3, aliases).expand(a.URI, successor, [successor])
+
+        then:
+        queries == 2
+        line.contains(a, successor, b)
+        line.contains(b, successor, c)
+        line.contains(c, successor, d)
+        line.contains(d, successor, "Nobody")
+        line.contains(a, RDFS.label, "A", "en")
+        !line.contains(a, RDFS.label, "Á", "cs")
+        !line.contains(e, null)
+        line.size() == 5
+        tooLarge.isEmpty()
+
+        when: "the line is read hop by hop"
+        def hops = QueryExecution.create(ProjectingResourceFetcher.createQuery([b.URI, c.URI], [successor], successor, aliases[successor.URI]), endpoint)
+                                 .execConstruct()
+
+        then:
+        hops.contains(b, successor, c)
+        hops.contains(c, successor, d)
+        !hops.contains(c, predecessor, b)
+        !hops.contains(c, dbpSuccessor)
+    }
+
+    def "Should search a long line without growing the stack"() {
+        given:
+        int length = 20_000
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def birthDate = ResourceFactory.createProperty("http://dbpedia.org/ontology/birthDate")
+        def fetcher = { Model model, String uri ->
+            int hop = uri.substring(uri.lastIndexOf('_') + 1) as int
+            def subject = model.createResource(uri)
+            subject.addProperty(RDFS.label, "Line " + hop, "en")
+            subject.addLiteral(birthDate, model.createTypedLiteral("1316-05-14", XSDDatatype.XSDdate))
+            if (hop < length) {
+                subject.addProperty(successor, model.createResource("http://dbpedia.org/resource/Line_" + (hop + 1)))
+            }
+        } as ResourceFetcher
+        def pool = Executors.newFixedThreadPool(2)
+        def task = task("Line_1",
+                        fetcher,
+                        pool,
+                        [(CFG_KEY_FETCH_MODE): "dereference"],
+                        new PresetOntologyPathPredicateResolver(successor),
+                        new PresetStartAndEndDateResolver(birthDate, null))
+
+        when:
+        task.crawl()
+            .get(2, TimeUnit.MINUTES)
+
+        then:
+        noExceptionThrown()
+        task.dataNodeRoot
+            .children
+            .size() == length
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "Should fail the search and keep the journal when the visited subject fails to be fetched"() {
+        given:
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def birthDate = ResourceFactory.createProperty("http://dbpedia.org/ontology/birthDate")
+        def fetcher = { Model model, String uri ->
+            int hop = uri.substring(uri.lastIndexOf('_') + 1) as int
+            if (hop == 3) {
+                throw new HttpException(503, "Service unavailable")
+            }
+            def subject = model.createResource(uri)
+            subject.addProperty(RDFS.label, "Line " + hop, "en")
+            subject.addLiteral(birthDate, model.createTypedLiteral("1316-05-14", XSDDatatype.XSDdate))
+            subject.addProperty(successor, model.createResource("http://dbpedia.org/resource/Line_" + (hop + 1)))
+        } as ResourceFetcher
+        def pool = Executors.newFixedThreadPool(2)
+        def task = task("Line_1",
+                        fetcher,
+                        pool,
+                        [(CFG_KEY_FETCH_MODE): "dereference", (CFG_KEY_CHECKPOINT_ENABLED): true],
+                        new PresetOntologyPathPredicateResolver(successor),
+                        new PresetStartAndEndDateResolver(birthDate, null))
+
+        when:
+        task.crawl()
+            .get(1, TimeUnit.MINUTES)
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof HttpException
+        task.dataNodeRoot
+            .children
+            .size() == 2
+        def records = new CheckpointStore(true, cacheDir.resolve("checkpoints"), null).journal(task.query).get().read()
+        records*.type == [CrawlJournal.RecordType.START, CrawlJournal.RecordType.VISIT, CrawlJournal.RecordType.VISIT]
+        records.last().next*.subject == ["http://dbpedia.org/resource/Line_3"]
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "Should start afresh and discard the journal when resuming is disabled"() {
+        given:
+        def successor = ResourceFactory.createProperty("http://dbpedia.org/ontology/successor")
+        def birthDate = ResourceFactory.createProperty("http://dbpedia.org/ontology/birthDate")
+        def reads = []
+        def fetcher = { int failingHop, Model model, String uri ->
+            reads << uri
+            int hop = uri.substring(uri.lastIndexOf('_') + 1) as int
+            if (hop == failingHop) {
+                throw new HttpException(503, "Service unavailable")
+            }
+            def subject = model.createResource(uri)
+            subject.addProperty(RDFS.label, "Line " + hop, "en")
+            subject.addLiteral(birthDate, model.createTypedLiteral("1316-05-14", XSDDatatype.XSDdate))
+            if (hop < 3) {
+                subject.addProperty(successor, model.createResource("http://dbpedia.org/resource/Line_" + (hop + 1)))
+            }
+        }
+        def pool = Executors.newFixedThreadPool(2)
+        def values = [(CFG_KEY_FETCH_MODE): "dereference", (CFG_KEY_CHECKPOINT_ENABLED): true]
+        def failed = task("Line_1",
+                          fetcher.curry(3) as ResourceFetcher,
+                          pool,
+                          values,
+                          new PresetOntologyPathPredicateResolver(successor),
+                          new PresetStartAndEndDateResolver(birthDate, null))
+        def store = new CheckpointStore(true, cacheDir.resolve("checkpoints"), null)
+
+        when: "the first search fails and leaves its journal behind"
+        failed.crawl()
+              .handle { ignored, e -> null }
+              .get(1, TimeUnit.MINUTES)
+
+        then:
+        !store.journal(failed.query).get().read().isEmpty()
+
+        when: "the query is searched again without resuming"
+        reads.clear()
+        def fresh = task("Line_1",
+                         fetcher.curry(-1) as ResourceFetcher,
+                         pool,
+                         values + [(CFG_KEY_CHECKPOINT_RESUME): false],
+                         new PresetOntologyPathPredicateResolver(successor),
+                         new PresetStartAndEndDateResolver(birthDate, null))
+        fresh.crawl()
+             .get(1, TimeUnit.MINUTES)
+
+        then: "the visited subjects are read again and the journal is deleted once done"
+        reads.contains("http://dbpedia.org/resource/Line_2")
+        fresh.dataNodeRoot
+             .children
+             .size() == 3
+        store.journal(fresh.query).get().read().isEmpty()
+
+        cleanup:
+        pool.shutdownNow()
+    }
+
+    def "Should read back the journal up to the record cut short by a crash"() {
+        given:
+        def store = new CheckpointStore(true, cacheDir.resolve("checkpoints"), null)
+        def journal = store.journal(URI).get()
+        journal.append(CrawlJournal.Record.start(URI, "http://dbpedia.org/ontology/successor", "http://dbpedia.org/ontology/birthDate", null))
+        journal.append(CrawlJournal.Record.visit(URI, null, "<${URI}> <${RDFS.label.URI}> \"Charles IV\"@en .\n", null,
+                                                 [new CrawlJournal.Next("http://dbpedia.org/resource/Wenceslaus_IV_of_Bohemia")]))
+        journal.close()
+
+        when: "the search is interrupted while writing a record"
+        def file = Files.list(cacheDir.resolve("checkpoints")).findFirst().get()
+        Files.writeString(file, '{"type":"VISIT","subj', StandardOpenOption.APPEND)
+        def records = store.journal(URI).get().read()
+
+        then:
+        records.collect { it.type } == [CrawlJournal.RecordType.START, CrawlJournal.RecordType.VISIT]
+        records[0].endDatePredicate == null
+        records[1].previous == null
+        records[1].next[0].subject == "http://dbpedia.org/resource/Wenceslaus_IV_of_Bohemia"
+        records[1].statements.contains("Charles IV")
+
+        when: "the search is resumed"
+        journal.append(CrawlJournal.Record.visit("http://dbpedia.org/resource/Wenceslaus_IV_of_Bohemia", 0, "", null, null))
+        journal.close()
+
+        then:
+        store.journal(URI).get().read()*.previous == [null, null, 0]
+
+        when: "the search is done"
+        store.journal(URI).get().delete()
+
+        then:
+        store.journal(URI).get().read().isEmpty()
+        new CheckpointStore(false, cacheDir, null).journal(URI).isEmpty()
+    }
+
+    def "Should keep the journals of the concurrent searches and of the data sources apart"() {
+        given:
+        def live = new CheckpointStore(true, cacheDir.resolve("checkpoints"), null)
+        def offline = new CheckpointStore(true, cacheDir.resolve("checkpoints"), "dataset:/dbpedia")
+        def journal = live.journal(URI).get()
+
+        expect:
+        journal.tryLock()
+        !live.journal(URI).get().tryLock()
+        offline.journal(URI).get().tryLock()
+
+        when:
+        journal.close()
+
+        then:
+        live.journal(URI).get().tryLock()
+    }
+
+    def "Should remember the visited URIs"() {
+        given:
+        def visited = type.create(false)
+        def uris = (0..<20_000).collect { "http://dbpedia.org/resource/Subject_" + it }
+
+        expect:
+        uris.every { visited.add(it) }
+        uris.every { visited.contains(it) }
+        uris.every { !visited.add(it) }
+        visited.size() == uris.size()
+        !visited.contains("http://dbpedia.org/resource/Nobody")
+
+        when:
+        visited.clear()
+
+        then:
+        visited.size() == 0
+        !visited.contains(uris[0])
+
+        where:
+        type << VisitedSetType.values()
+    }
 }
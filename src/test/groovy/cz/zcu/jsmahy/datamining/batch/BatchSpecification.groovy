@@ -0,0 +1,60 @@
+package cz.zcu.jsmahy.datamining.batch
+
+import org.apache.commons.cli.ParseException
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class BatchSpecification extends Specification {
+    static final String[] REQUIRED_ARGS = ["-i", "seeds.txt", "-p", "http://dbpedia.org/ontology/successor", "-s", "http://dbpedia.org/ontology/birthDate"]
+
+    @TempDir
+    Path dir
+
+    def "Should parse the options with their defaults"() {
+        when:
+        def options = BatchOptions.parse(REQUIRED_ARGS)
+
+        then:
+        options.ontologyPathPredicate == "http://dbpedia.org/ontology/successor"
+        options.endDatePredicate == null
+        options.threads == BatchOptions.DEFAULT_THREADS
+        options.format == BatchOptions.Format.JSON
+        options.outputDirectory == Path.of(BatchOptions.DEFAULT_OUTPUT_DIRECTORY)
+        !options.fresh
+        BatchOptions.parse(REQUIRED_ARGS + ["--fresh"]).fresh
+    }
+
+    def "Should throw ParseException on invalid options"() {
+        when:
+        BatchOptions.parse(args as String[])
+
+        then:
+        thrown(ParseException)
+
+        where:
+        args << [["-i", "seeds.txt"], REQUIRED_ARGS + ["-t", "0"], REQUIRED_ARGS + ["-t", "many"], REQUIRED_ARGS + ["-f", "xml"]]
+    }
+
+    def "Should skip blank, comment and duplicate lines of the input file"() {
+        given:
+        def input = dir.resolve("seeds.txt")
+        Files.writeString(input, "# monarchs\nCharles_IV,_Holy_Roman_Emperor\n\n  Wenceslaus_IV_of_Bohemia  \nCharles_IV,_Holy_Roman_Emperor\n")
+
+        expect:
+        BatchCrawler.readSubjects(input) == ["Charles_IV,_Holy_Roman_Emperor", "Wenceslaus_IV_of_Bohemia"]
+    }
+
+    def "Should create a valid file name from the subject"() {
+        expect:
+        BatchCrawler.toFileName(subject) == fileName
+
+        where:
+        subject                                                       | fileName
+        "Charles_IV,_Holy_Roman_Emperor"                              | "Charles_IV__Holy_Roman_Emperor"
+        "http://dbpedia.org/resource/Charles_IV,_Holy_Roman_Emperor" | "Charles_IV__Holy_Roman_Emperor"
+        "Jan_Žižka"                                                   | "Jan_Žižka"
+    }
+}
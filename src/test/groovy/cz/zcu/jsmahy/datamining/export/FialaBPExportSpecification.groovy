@@ -4,6 +4,7 @@ import com.google.inject.Guice
 import com.sun.javafx.application.PlatformImpl
 import cz.zcu.jsmahy.datamining.api.DataNode
 import cz.zcu.jsmahy.datamining.api.DataNodeFactory
+import cz.zcu.jsmahy.datamining.api.EdgeTable
 import cz.zcu.jsmahy.datamining.api.JSONDataNodeSerializationUtils
 import cz.zcu.jsmahy.datamining.api.Mocks
 import spock.lang.Ignore
@@ -115,6 +116,57 @@ class FialaBPExportSpecification extends Specification {
         }
     }
 
+    def "Should remove only the relationships of the deleted data node"() {
+        given:
+        def root = getStubRoot()
+        def (einstein, kleiner, muller, fick) = root.children
+        def predicate = org.apache.jena.rdf.model.ResourceFactory.createProperty("http://dbpedia.org/ontology/doctoralAdvisor")
+        FialaBPRequestProgressListener.addRelationship(kleiner, einstein, predicate)
+        FialaBPRequestProgressListener.addRelationship(muller, kleiner, predicate)
+        FialaBPRequestProgressListener.addRelationship(fick, muller, predicate)
+        def edges = root.edges
+
+        expect:
+        edges.size() == 3
+        einstein.edges.is(edges)
+        edges.findIncoming(kleiner.id)*.from == [einstein.id]
+        edges.findIncoming(einstein.id).isEmpty()
+        edges.findOutgoing(muller.id)*.name == ["doctoralAdvisor"]
+
+        when:
+        def removed = edges.removeDataNode(kleiner.id)
+
+        then:
+        removed == 2
+        edges.toList()*.from == [muller.id]
+        edges.findOutgoing(einstein.id).isEmpty()
+        edges.findIncoming(muller.id).isEmpty()
+
+        when:
+        FialaBPRequestProgressListener.addRelationship(fick, einstein, predicate)
+        edges.removeDataNode(fick.id)
+
+        then:
+        edges.isEmpty()
+    }
+
+    def "Should keep the edges after compacting the edge table"() {
+        given:
+        def edges = new EdgeTable()
+        (0..<200).each { edges.add(it, it + 1, "next", "relationship") }
+
+        when:
+        (0..<150).step(2).each { edges.removeDataNode(it) }
+
+        then:
+        edges.size() == 51
+        edges.toList()*.from == (149..<200).toList()
+        edges.findIncoming(151)*.from == [150]
+        edges.findOutgoing(199)*.to == [200]
+        edges.removeDataNode(151) == 2
+        edges.size() == 49
+    }
+
     @Ignore("Requires JavaFX Runtime")
     def "Persistence test"() {
         given:
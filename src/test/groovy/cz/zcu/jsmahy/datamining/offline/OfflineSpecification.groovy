@@ -0,0 +1,55 @@
+package cz.zcu.jsmahy.datamining.offline
+
+import cz.zcu.jsmahy.datamining.api.ApplicationConfiguration
+import cz.zcu.jsmahy.datamining.dbpedia.ProjectingResourceFetcher
+import cz.zcu.jsmahy.datamining.dbpedia.RedirectResolver
+import org.apache.jena.rdf.model.ModelFactory
+import org.apache.jena.rdf.model.ResourceFactory
+import org.apache.jena.system.Txn
+import org.apache.jena.tdb2.TDB2Factory
+import org.apache.jena.vocabulary.RDFS
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPOutputStream
+
+class OfflineSpecification extends Specification {
+    static final String DBR = "http://dbpedia.org/resource/"
+    static final String DBO = "http://dbpedia.org/ontology/"
+
+    @TempDir
+    Path dumpDir
+
+    def "Should import a compressed dump in batches and serve it offline"() {
+        given:
+        def dump = dumpDir.resolve("dump.nt.gz")
+        new GZIPOutputStream(Files.newOutputStream(dump)).withWriter("UTF-8") {
+            it << "<${DBR}Charles_IV> <${DBO}successor> <${DBR}Wenceslaus_IV> .\n"
+            it << "<${DBR}Charles_IV> <${RDFS.label.URI}> \"Charles IV\"@en .\n"
+            it << "<${DBR}Wenceslaus_IV> <${DBO}successor> <${DBR}Sigismund> .\n"
+            it << "<${DBR}Karel_IV> <${RedirectResolver.PROPERTY_REDIRECT.URI}> <${DBR}Charles_IV> .\n"
+            it << "<${DBR}Charles_IV> <${DBO}birthDate> \"1316-05-14\" .\n"
+        }
+        def dataset = TDB2Factory.createDataset()
+        def successor = ResourceFactory.createProperty(DBO, "successor")
+
+        when:
+        def imported = new DumpImporter(dataset, 2, null).importDump(dump)
+        def dereferenced = ModelFactory.createDefaultModel()
+        new DatasetResourceFetcher(dataset).read(dereferenced, DBR + "Charles_IV")
+        def projected = ModelFactory.createDefaultModel()
+        new ProjectingResourceFetcher(Stub(ApplicationConfiguration) {
+            getValue(_, _) >> 100
+        }, new DatasetSparqlService(dataset)).read(projected, [DBR + "Charles_IV", DBR + "Wenceslaus_IV"], [successor])
+        def canonicalUris = new RedirectResolver(new DatasetSparqlService(dataset), null, 10, 10).resolve([DBR + "Karel_IV"])
+
+        then:
+        imported == 5
+        Txn.calculateRead(dataset, { dataset.getDefaultModel().size() }) == 5
+        dereferenced.size() == 3
+        projected.size() == 3
+        canonicalUris == [(DBR + "Karel_IV"): DBR + "Charles_IV"]
+    }
+}
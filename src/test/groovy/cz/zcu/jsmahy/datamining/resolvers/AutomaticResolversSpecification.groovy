@@ -0,0 +1,102 @@
+package cz.zcu.jsmahy.datamining.resolvers
+
+import cz.zcu.jsmahy.datamining.api.RequestProgressListener
+import cz.zcu.jsmahy.datamining.api.SparqlEndpointTask
+import javafx.beans.property.SimpleObjectProperty
+import org.apache.jena.datatypes.xsd.XSDDatatype
+import org.apache.jena.rdf.model.Model
+import org.apache.jena.rdf.model.ModelFactory
+import org.apache.jena.rdf.model.Property
+import org.apache.jena.rdf.model.Resource
+import spock.lang.Specification
+
+import static cz.zcu.jsmahy.datamining.resolvers.MultipleItemChoiceResolver.RESULT_KEY_CHOSEN_RDF_NODE
+import static cz.zcu.jsmahy.datamining.resolvers.OntologyPathPredicateResolver.RESULT_KEY_ONTOLOGY_PATH_PREDICATE
+import static cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver.RESULT_KEY_END_DATE_PREDICATE
+import static cz.zcu.jsmahy.datamining.resolvers.StartAndEndDateResolver.RESULT_KEY_START_DATE_PREDICATE
+
+class AutomaticResolversSpecification extends Specification {
+    static final String DBO = "http://dbpedia.org/ontology/"
+    static final String DBR = "http://dbpedia.org/resource/"
+
+    Model model = ModelFactory.createDefaultModel()
+    Property successor = model.createProperty(DBO, "successor")
+    Property predecessor = model.createProperty(DBO, "predecessor")
+    Property birthDate = model.createProperty(DBO, "birthDate")
+    Property deathDate = model.createProperty(DBO, "deathDate")
+
+    SparqlEndpointTask<?> task(Property startDate = birthDate) {
+        def progressListener = Mock(RequestProgressListener)
+        progressListener.startDateProperty() >> new SimpleObjectProperty<>(startDate)
+        def task = Mock(SparqlEndpointTask)
+        task.getProgressListener() >> progressListener
+        task
+    }
+
+    Resource person(String name, String birth = null) {
+        def resource = model.createResource(DBR + name)
+        if (birth != null) {
+            resource.addLiteral(birthDate, model.createTypedLiteral(birth, XSDDatatype.XSDdate))
+        }
+        resource
+    }
+
+    def "Should answer synchronously with the candidate of the closest date"() {
+        given:
+        def charles = person("Charles_IV", "1316-05-14")
+        def candidates = [model.createStatement(charles, successor, person("Sigismund", "1368-02-15")),
+                          model.createStatement(charles, successor, person("Wenceslaus_IV", "1361-02-26")),
+                          model.createStatement(charles, successor, person("Unknown"))]
+        def resolver = new ClosestDateResolver()
+
+        when:
+        def response = resolver.resolve(candidates, task())
+
+        then:
+        response.isDone()
+        response.join()
+                .getValue(RESULT_KEY_CHOSEN_RDF_NODE)
+                .get() == person("Wenceslaus_IV")
+    }
+
+    def "Should choose the first URI candidate if there are no dates"() {
+        given:
+        def charles = person("Charles_IV")
+        def candidates = [model.createStatement(charles, successor, "Wenceslaus IV"),
+                          model.createStatement(charles, successor, person("Wenceslaus_IV")),
+                          model.createStatement(charles, successor, person("Sigismund"))]
+        def resolver = new ClosestDateResolver()
+
+        when:
+        def response = resolver.resolve(candidates, task(null))
+
+        then:
+        response.join()
+                .getValue(RESULT_KEY_CHOSEN_RDF_NODE)
+                .get() == person("Wenceslaus_IV")
+    }
+
+    def "Should choose the most preferred predicates the subject has"() {
+        given:
+        def charles = person("Charles_IV", "1316-05-14")
+        def paths = [model.createStatement(charles, predecessor, person("John")),
+                     model.createStatement(charles, successor, person("Wenceslaus_IV"))]
+        def dates = [model.createStatement(charles, birthDate, "1316-05-14")]
+        def pathResolver = new PresetOntologyPathPredicateResolver([successor, predecessor])
+        def dateResolver = new PresetStartAndEndDateResolver([deathDate, birthDate], [deathDate])
+
+        when:
+        def pathResponse = pathResolver.resolve(paths, task())
+                                       .join()
+        def dateResponse = dateResolver.resolve(dates, task())
+                                       .join()
+
+        then:
+        pathResponse.getValue(RESULT_KEY_ONTOLOGY_PATH_PREDICATE)
+                    .get() == successor
+        dateResponse.getValue(RESULT_KEY_START_DATE_PREDICATE)
+                    .get() == birthDate
+        dateResponse.getValue(RESULT_KEY_END_DATE_PREDICATE)
+                    .isEmpty()
+    }
+}